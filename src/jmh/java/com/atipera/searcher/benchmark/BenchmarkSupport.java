@@ -0,0 +1,81 @@
+package com.atipera.searcher.benchmark;
+
+import com.atipera.searcher.cache.CachedPage;
+import com.atipera.searcher.cache.GithubResponseCache;
+import com.atipera.searcher.client.GithubApiClient;
+import com.atipera.searcher.concurrent.SingleFlight;
+import com.google.gson.Gson;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.HttpUrl;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Wiring helpers shared by the benchmarks.
+ * Components are assembled by hand, without a Spring context, so only the measured code runs.
+ */
+final class BenchmarkSupport {
+
+    private static final MediaType JSON = MediaType.get("application/json");
+
+    /**
+     * A cache that never stores anything, so every call goes through the HTTP stack.
+     */
+    static final GithubResponseCache NO_CACHE = new GithubResponseCache() {
+        @Override
+        public Optional<CachedPage> get(String key) {
+            return Optional.empty();
+        }
+
+        @Override
+        public void put(String key, CachedPage page) {
+        }
+    };
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * Creates an OkHttpClient that answers every request in-process with a recorded body.
+     *
+     * @param bodies the recorded response body for each requested URL
+     * @return an OkHttpClient that never touches the network
+     */
+    static OkHttpClient cannedOkHttpClient(Function<HttpUrl, byte[]> bodies) {
+        return new OkHttpClient.Builder()
+                .addInterceptor(chain -> new Response.Builder()
+                        .request(chain.request())
+                        .protocol(Protocol.HTTP_1_1)
+                        .code(200)
+                        .message("OK")
+                        .body(ResponseBody.create(bodies.apply(chain.request().url()), JSON))
+                        .build())
+                .build();
+    }
+
+    /**
+     * Creates a GithubApiClient with the properties Spring would otherwise inject.
+     *
+     * @param okHttpClient the HTTP client to use
+     * @return a ready to use GithubApiClient
+     */
+    static GithubApiClient githubApiClient(OkHttpClient okHttpClient) {
+        var meterRegistry = new SimpleMeterRegistry();
+        var githubApiClient = new GithubApiClient(okHttpClient, new Gson(), NO_CACHE, meterRegistry,
+                new SingleFlight<>("branches", meterRegistry));
+        ReflectionTestUtils.setField(githubApiClient, "githubUsersApiUrl", "https://api.github.com/users/");
+        ReflectionTestUtils.setField(githubApiClient, "githubReposApiUrl", "https://api.github.com/repos/");
+        ReflectionTestUtils.setField(githubApiClient, "pageFetchParallelism", 8);
+        ReflectionTestUtils.setField(githubApiClient, "repositoriesTimeToLive", Duration.ZERO);
+        ReflectionTestUtils.setField(githubApiClient, "branchesTimeToLive", Duration.ZERO);
+        return githubApiClient;
+    }
+}
@@ -0,0 +1,63 @@
+package com.atipera.searcher.benchmark;
+
+import com.atipera.searcher.client.GithubApiClient;
+import com.atipera.searcher.dto.github.RepositoryResponse;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the deserialization of recorded {@code /users/{username}/repos} payloads by {@link GithubApiClient}.
+ * The HTTP layer answers in-process, so the score is dominated by reading and parsing the body.
+ * {@link #bufferedStringParse()} keeps the former read-the-whole-body approach as a baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GithubApiClientBenchmark {
+
+    private static final Type REPOSITORY_LIST_TYPE = new TypeToken<List<RepositoryResponse>>() {
+    }.getType();
+
+    @Param({"10", "100", "1000"})
+    private int repositoryCount;
+
+    private GithubApiClient githubApiClient;
+    private Gson gson;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() {
+        payload = GithubPayloads.repositoriesJson("octocat", repositoryCount).getBytes(StandardCharsets.UTF_8);
+        githubApiClient = BenchmarkSupport.githubApiClient(BenchmarkSupport.cannedOkHttpClient(url -> payload));
+        gson = new Gson();
+    }
+
+    @Benchmark
+    public List<RepositoryResponse> fetchUserRepositories() {
+        return githubApiClient.fetchUserRepositories("octocat");
+    }
+
+    @Benchmark
+    public List<RepositoryResponse> bufferedStringParse() {
+        return gson.fromJson(new String(payload, StandardCharsets.UTF_8), REPOSITORY_LIST_TYPE);
+    }
+}
@@ -0,0 +1,176 @@
+package com.atipera.searcher.benchmark;
+
+import com.atipera.searcher.dto.github.BranchResponse;
+import com.atipera.searcher.dto.github.CommitResponse;
+import com.atipera.searcher.dto.github.OwnerResponse;
+import com.atipera.searcher.dto.github.RepositoryResponse;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Synthetic GitHub API payloads shaped like the real responses.
+ * A repository object carries every field GitHub returns (roughly 5 KB each),
+ * although the application only maps a handful of them.
+ */
+final class GithubPayloads {
+
+    private static final String API = "https://api.github.com";
+
+    private GithubPayloads() {
+    }
+
+    /**
+     * Builds the body of a {@code /users/{username}/repos} response.
+     *
+     * @param owner the login of the repository owner
+     * @param count the number of repositories
+     * @return the JSON array of repositories
+     */
+    static String repositoriesJson(String owner, int count) {
+        var json = new StringBuilder(count * 5_500).append('[');
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            appendRepository(json, owner, "repository-" + i, i, i % 5 == 0);
+        }
+        return json.append(']').toString();
+    }
+
+    /**
+     * Builds the body of a {@code /repos/{owner}/{repository}/branches} response.
+     *
+     * @param owner      the login of the repository owner
+     * @param repository the name of the repository
+     * @param count      the number of branches
+     * @return the JSON array of branches
+     */
+    static String branchesJson(String owner, String repository, int count) {
+        var json = new StringBuilder(count * 250).append('[');
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            var sha = sha(i);
+            json.append("{\"name\":\"").append(branchName(i)).append("\",")
+                    .append("\"commit\":{\"sha\":\"").append(sha).append("\",")
+                    .append("\"url\":\"").append(API).append("/repos/").append(owner).append('/').append(repository)
+                    .append("/commits/").append(sha).append("\"},")
+                    .append("\"protected\":").append(i == 0).append('}');
+        }
+        return json.append(']').toString();
+    }
+
+    /**
+     * Builds deserialized repositories, as returned by the client.
+     *
+     * @param owner the login of the repository owner
+     * @param count the number of repositories
+     * @return the repositories, every fifth one being a fork
+     */
+    static List<RepositoryResponse> repositories(String owner, int count) {
+        var ownerResponse = OwnerResponse.builder().login(owner).build();
+        return IntStream.range(0, count)
+                .mapToObj(i -> RepositoryResponse.builder()
+                        .name("repository-" + i)
+                        .isForked(i % 5 == 0)
+                        .owner(ownerResponse)
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Builds deserialized branches, as returned by the client.
+     *
+     * @param count the number of branches
+     * @return the branches
+     */
+    static List<BranchResponse> branches(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> BranchResponse.builder()
+                        .name(branchName(i))
+                        .commit(CommitResponse.builder().sha(sha(i)).build())
+                        .build())
+                .toList();
+    }
+
+    private static String branchName(int index) {
+        return switch (index) {
+            case 0 -> "main";
+            case 1 -> "develop";
+            case 2 -> "gh-pages";
+            default -> "feature/branch-" + index;
+        };
+    }
+
+    private static String sha(int index) {
+        return "%040x".formatted(0x9fceb02d0ae598e9L * (index + 1));
+    }
+
+    private static void appendRepository(StringBuilder json, String owner, String name, int id, boolean fork) {
+        var fullName = owner + "/" + name;
+        var repositoryUrl = API + "/repos/" + fullName;
+        var ownerUrl = API + "/users/" + owner;
+        json.append('{')
+                .append("\"id\":").append(1_296_269 + id).append(',')
+                .append("\"node_id\":\"MDEwOlJlcG9zaXRvcnkxMjk2MjY5").append(id).append("\",")
+                .append("\"name\":\"").append(name).append("\",")
+                .append("\"full_name\":\"").append(fullName).append("\",")
+                .append("\"private\":false,")
+                .append("\"owner\":{")
+                .append("\"login\":\"").append(owner).append("\",")
+                .append("\"id\":583231,")
+                .append("\"node_id\":\"MDQ6VXNlcjU4MzIzMQ==\",")
+                .append("\"avatar_url\":\"https://avatars.githubusercontent.com/u/583231?v=4\",")
+                .append("\"gravatar_id\":\"\",")
+                .append("\"url\":\"").append(ownerUrl).append("\",")
+                .append("\"html_url\":\"https://github.com/").append(owner).append("\",")
+                .append("\"followers_url\":\"").append(ownerUrl).append("/followers\",")
+                .append("\"following_url\":\"").append(ownerUrl).append("/following{/other_user}\",")
+                .append("\"gists_url\":\"").append(ownerUrl).append("/gists{/gist_id}\",")
+                .append("\"starred_url\":\"").append(ownerUrl).append("/starred{/owner}{/repo}\",")
+                .append("\"subscriptions_url\":\"").append(ownerUrl).append("/subscriptions\",")
+                .append("\"organizations_url\":\"").append(ownerUrl).append("/orgs\",")
+                .append("\"repos_url\":\"").append(ownerUrl).append("/repos\",")
+                .append("\"events_url\":\"").append(ownerUrl).append("/events{/privacy}\",")
+                .append("\"received_events_url\":\"").append(ownerUrl).append("/received_events\",")
+                .append("\"type\":\"User\",")
+                .append("\"site_admin\":false},")
+                .append("\"html_url\":\"https://github.com/").append(fullName).append("\",")
+                .append("\"description\":\"Synthetic repository ").append(id)
+                .append(" used to benchmark the deserialization of realistic GitHub payloads.\",")
+                .append("\"fork\":").append(fork).append(',')
+                .append("\"url\":\"").append(repositoryUrl).append("\",");
+        for (var resource : new String[]{"forks", "keys", "collaborators", "teams", "hooks", "issue_events",
+                "events", "assignees", "branches", "tags", "blobs", "git_tags", "git_refs", "trees", "statuses",
+                "languages", "stargazers", "contributors", "subscribers", "subscription", "commits", "git_commits",
+                "comments", "issue_comment", "contents", "compare", "merges", "archive", "downloads", "issues",
+                "pulls", "milestones", "notifications", "labels", "releases", "deployments"}) {
+            json.append('"').append(resource).append("_url\":\"").append(repositoryUrl).append('/')
+                    .append(resource.replace('_', '/')).append("\",");
+        }
+        json.append("\"created_at\":\"2011-01-26T19:01:12Z\",")
+                .append("\"updated_at\":\"2024-06-01T12:00:00Z\",")
+                .append("\"pushed_at\":\"2024-06-01T12:00:00Z\",")
+                .append("\"git_url\":\"git://github.com/").append(fullName).append(".git\",")
+                .append("\"ssh_url\":\"git@github.com:").append(fullName).append(".git\",")
+                .append("\"clone_url\":\"https://github.com/").append(fullName).append(".git\",")
+                .append("\"svn_url\":\"https://github.com/").append(fullName).append("\",")
+                .append("\"homepage\":null,")
+                .append("\"size\":").append(108 + id).append(',')
+                .append("\"stargazers_count\":").append(80 + id).append(',')
+                .append("\"watchers_count\":").append(80 + id).append(',')
+                .append("\"language\":\"Java\",")
+                .append("\"has_issues\":true,\"has_projects\":true,\"has_downloads\":true,")
+                .append("\"has_wiki\":true,\"has_pages\":false,\"has_discussions\":false,")
+                .append("\"forks_count\":9,\"mirror_url\":null,\"archived\":false,\"disabled\":false,")
+                .append("\"open_issues_count\":0,")
+                .append("\"license\":{\"key\":\"mit\",\"name\":\"MIT License\",\"spdx_id\":\"MIT\",")
+                .append("\"url\":\"").append(API).append("/licenses/mit\",\"node_id\":\"MDc6TGljZW5zZTEz\"},")
+                .append("\"allow_forking\":true,\"is_template\":false,\"web_commit_signoff_required\":false,")
+                .append("\"topics\":[\"api\",\"benchmark\",\"github\"],")
+                .append("\"visibility\":\"public\",\"forks\":9,\"open_issues\":0,\"watchers\":").append(80 + id)
+                .append(",\"default_branch\":\"main\"}");
+    }
+}
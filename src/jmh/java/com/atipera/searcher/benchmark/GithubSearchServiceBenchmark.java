@@ -0,0 +1,118 @@
+package com.atipera.searcher.benchmark;
+
+import com.atipera.searcher.client.GithubApiClient;
+import com.atipera.searcher.concurrent.SingleFlight;
+import com.atipera.searcher.dto.github.BranchResponse;
+import com.atipera.searcher.dto.github.RepositoryDetails;
+import com.atipera.searcher.dto.github.RepositoryResponse;
+import com.atipera.searcher.service.GithubSearchService;
+import com.atipera.searcher.service.HotUserSearchCache;
+import com.atipera.searcher.service.RepositoryBranchSnapshots;
+import com.atipera.searcher.service.RepositoryDetailsMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link GithubSearchService#processNonForkedUserRepositories(String)} end to end
+ * against an in-process GitHub client stub that answers every call after a fixed latency.
+ * Comparing parallelism 1 with higher values shows how much of the per-call latency the fan-out hides.
+ * With {@code unchangedRepositories} set, every repository keeps its push timestamp between searches,
+ * so repeated searches reuse the branch snapshots instead of listing branches.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GithubSearchServiceBenchmark {
+
+    @Param({"10", "100"})
+    private int repositoryCount;
+
+    @Param({"0", "20"})
+    private long latencyMillis;
+
+    @Param({"1", "16"})
+    private int parallelism;
+
+    @Param({"false", "true"})
+    private boolean unchangedRepositories;
+
+    private GithubSearchService githubSearchService;
+
+    @Setup
+    public void setUp() {
+        var repositories = GithubPayloads.repositories("octocat", repositoryCount);
+        if (unchangedRepositories) {
+            repositories.forEach(repository -> repository.setPushedAt("2024-06-01T12:00:00Z"));
+        }
+        var stubClient = new LatencyStubGithubApiClient(repositories, GithubPayloads.branches(5), latencyMillis);
+        var meterRegistry = new SimpleMeterRegistry();
+        githubSearchService = new GithubSearchService(stubClient, null, new RepositoryDetailsMapper(), meterRegistry,
+                new SingleFlight<>("search", meterRegistry), new RepositoryBranchSnapshots(10_000, Duration.ofHours(1)),
+                new HotUserSearchCache(List.of(), 0, Duration.ZERO, Duration.ofMinutes(1)));
+        ReflectionTestUtils.setField(githubSearchService, "branchFetchParallelism", parallelism);
+        githubSearchService.processNonForkedUserRepositories("octocat");
+    }
+
+    @Benchmark
+    public List<RepositoryDetails> processNonForkedUserRepositories() {
+        return githubSearchService.processNonForkedUserRepositories("octocat");
+    }
+
+    /**
+     * GitHub client stub returning fixed listings after a configurable delay.
+     */
+    private static final class LatencyStubGithubApiClient extends GithubApiClient {
+        private final List<RepositoryResponse> repositories;
+        private final List<BranchResponse> branches;
+        private final long latencyMillis;
+
+        LatencyStubGithubApiClient(List<RepositoryResponse> repositories, List<BranchResponse> branches,
+                                   long latencyMillis) {
+            super(null, null, null, null, null);
+            this.repositories = repositories;
+            this.branches = branches;
+            this.latencyMillis = latencyMillis;
+        }
+
+        @Override
+        public List<RepositoryResponse> fetchUserRepositories(String username) {
+            simulateLatency();
+            return repositories;
+        }
+
+        @Override
+        public List<BranchResponse> fetchRepositoryBranches(String repositoryName, String username) {
+            simulateLatency();
+            return branches;
+        }
+
+        private void simulateLatency() {
+            if (latencyMillis == 0) {
+                return;
+            }
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.atipera.searcher.benchmark;
+
+import com.atipera.searcher.dto.github.BranchDetails;
+import com.atipera.searcher.dto.github.CommitSha;
+import com.atipera.searcher.dto.github.RepositoryDetails;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Measures the JSON serialization of the search response, using an ObjectMapper
+ * configured the same way Spring MVC configures the one writing controller responses,
+ * with and without the Blackbird module registered by the application.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryDetailsSerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int repositoryCount;
+
+    @Param({"5", "50"})
+    private int branchCount;
+
+    @Param({"reflection", "blackbird"})
+    private String accessors;
+
+    private ObjectMapper objectMapper;
+    private List<RepositoryDetails> repositoryDetails;
+
+    @Setup
+    public void setUp() {
+        var objectMapperBuilder = Jackson2ObjectMapperBuilder.json();
+        if ("blackbird".equals(accessors)) {
+            objectMapperBuilder.modulesToInstall(new BlackbirdModule());
+        }
+        objectMapper = objectMapperBuilder.build();
+        var branches = GithubPayloads.branches(branchCount).stream()
+                .map(branch -> BranchDetails.builder()
+                        .name(branch.getName())
+                        .commitSha(CommitSha.of(branch.getCommit().getSha()))
+                        .build())
+                .toList();
+        repositoryDetails = IntStream.range(0, repositoryCount)
+                .mapToObj(i -> RepositoryDetails.builder()
+                        .repositoryName("repository-" + i)
+                        .ownerLogin("octocat")
+                        .branches(branches)
+                        .build())
+                .toList();
+    }
+
+    @Benchmark
+    public byte[] writeRepositoryDetails() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(repositoryDetails);
+    }
+}
@@ -0,0 +1,277 @@
+package com.atipera.searcher.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+import java.util.regex.Pattern;
+
+/**
+ * A local stand-in for the GitHub REST API serving synthetic users.
+ * <ul>
+ *     <li>{@code /users/user-<i>/repos} lists the repositories of every user below {@code users}, other users
+ *     do not exist; {@code /repos/<owner>/<repo>/branches} lists the branches of every repository.</li>
+ *     <li>Listings are paginated by {@code per_page} and {@code page} with {@code Link} headers like GitHub's.</li>
+ *     <li>Every page carries an {@code ETag}, and a matching {@code If-None-Match} is answered with 304,
+ *     which does not count against the rate limit, as on GitHub.</li>
+ *     <li>Every response carries {@code X-RateLimit-*} headers of an hourly budget; once it is spent,
+ *     calls are answered with 403 until the window resets.</li>
+ *     <li>Every response is delayed by a log-normally distributed latency.</li>
+ * </ul>
+ * Calls are counted per endpoint and status, so the load test can relate them to the requests it sent.
+ */
+final class GithubSimulator implements Closeable {
+
+    private static final Pattern REPOSITORIES_PATH = Pattern.compile("/users/([^/]+)/repos");
+    private static final Pattern BRANCHES_PATH = Pattern.compile("/repos/([^/]+)/([^/]+)/branches");
+    private static final Duration RATE_LIMIT_WINDOW = Duration.ofHours(1);
+    private static final String PUSHED_AT = "2024-06-01T12:00:00Z";
+
+    /**
+     * The kinds of calls the simulator counts.
+     */
+    enum Call {
+        REPOSITORIES, BRANCHES, NOT_MODIFIED, RATE_LIMITED, NOT_FOUND
+    }
+
+    private final LoadTestOptions options;
+    private final HttpServer server;
+    private final Map<Call, LongAdder> calls = new EnumMap<>(Call.class);
+    private final Map<String, Page> pages = new ConcurrentHashMap<>();
+    private final AtomicInteger remaining;
+    private volatile Instant resetAt;
+
+    /**
+     * Starts a simulator on a free local port.
+     *
+     * @param options the options describing the synthetic users and the latency
+     * @throws IOException if the server could not be started
+     */
+    GithubSimulator(LoadTestOptions options) throws IOException {
+        this.options = options;
+        for (var call : Call.values()) {
+            calls.put(call, new LongAdder());
+        }
+        this.remaining = new AtomicInteger(options.rateLimit());
+        this.resetAt = Instant.now().plus(RATE_LIMIT_WINDOW);
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    /**
+     * Returns the base URI of the simulated API.
+     *
+     * @return the URI, without a trailing slash
+     */
+    URI baseUri() {
+        return URI.create("http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort());
+    }
+
+    /**
+     * Returns the number of calls of a kind received so far.
+     *
+     * @param call the kind of calls
+     * @return the count
+     */
+    long calls(Call call) {
+        return calls.get(call).sum();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            sleep(latency());
+            var path = exchange.getRequestURI().getPath();
+            var query = exchange.getRequestURI().getRawQuery();
+            var repositoriesMatcher = REPOSITORIES_PATH.matcher(path);
+            var branchesMatcher = BRANCHES_PATH.matcher(path);
+            Page page;
+            if (repositoriesMatcher.matches() && userExists(repositoriesMatcher.group(1))) {
+                calls.get(Call.REPOSITORIES).increment();
+                page = page(exchange, repositoriesMatcher.group(1), null, query);
+            } else if (branchesMatcher.matches() && userExists(branchesMatcher.group(1))) {
+                calls.get(Call.BRANCHES).increment();
+                page = page(exchange, branchesMatcher.group(1), branchesMatcher.group(2), query);
+            } else {
+                calls.get(Call.NOT_FOUND).increment();
+                send(exchange, 404, "{\"message\":\"Not Found\"}");
+                return;
+            }
+            if (page.etag().equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                calls.get(Call.NOT_MODIFIED).increment();
+                rateLimitHeaders(exchange, remaining.get());
+                exchange.getResponseHeaders().set("ETag", page.etag());
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            }
+            var left = spend();
+            rateLimitHeaders(exchange, Math.max(0, left));
+            if (left < 0) {
+                calls.get(Call.RATE_LIMITED).increment();
+                send(exchange, 403, "{\"message\":\"API rate limit exceeded\"}");
+                return;
+            }
+            exchange.getResponseHeaders().set("ETag", page.etag());
+            if (page.link() != null) {
+                exchange.getResponseHeaders().set("Link", page.link());
+            }
+            send(exchange, 200, page.body());
+        }
+    }
+
+    private Page page(HttpExchange exchange, String owner, String repository, String query) {
+        var perPage = Math.clamp(queryParameter(query, "per_page", 30), 1, 100);
+        var pageNumber = Math.max(1, queryParameter(query, "page", 1));
+        var url = "http://" + exchange.getRequestHeaders().getFirst("Host") + exchange.getRequestURI().getPath();
+        return pages.computeIfAbsent(url + "?" + perPage + "&" + pageNumber,
+                key -> repository == null
+                        ? buildPage(url, perPage, pageNumber, options.repositories(),
+                        i -> repositoryJson(owner, i))
+                        : buildPage(url, perPage, pageNumber, options.branches(),
+                        i -> branchJson(owner, repository, i)));
+    }
+
+    private static Page buildPage(String url, int perPage, int pageNumber, int itemCount,
+                                  IntFunction<String> item) {
+        var lastPage = Math.max(1, (itemCount + perPage - 1) / perPage);
+        var body = new StringBuilder("[");
+        for (int i = (pageNumber - 1) * perPage; i < Math.min(itemCount, pageNumber * perPage); i++) {
+            if (body.length() > 1) {
+                body.append(',');
+            }
+            body.append(item.apply(i));
+        }
+        body.append(']');
+        String link = null;
+        if (pageNumber < lastPage) {
+            link = "<" + url + "?per_page=" + perPage + "&page=" + (pageNumber + 1) + ">; rel=\"next\", <"
+                    + url + "?per_page=" + perPage + "&page=" + lastPage + ">; rel=\"last\"";
+        }
+        return new Page(body.toString(), "\"" + sha1(body.toString()).substring(0, 32) + "\"", link);
+    }
+
+    private String repositoryJson(String owner, int index) {
+        var fork = index < options.repositories() * options.forkShare();
+        return "{\"name\":\"repo-" + index + "\",\"owner\":{\"login\":\"" + owner + "\"},\"fork\":" + fork
+                + ",\"default_branch\":\"main\",\"pushed_at\":\"" + PUSHED_AT
+                + "\",\"updated_at\":\"" + PUSHED_AT + "\"}";
+    }
+
+    private static String branchJson(String owner, String repository, int index) {
+        var name = index == 0 ? "main" : "branch-" + index;
+        return "{\"name\":\"" + name + "\",\"commit\":{\"sha\":\"" + sha1(owner + "/" + repository + "/" + name)
+                + "\"}}";
+    }
+
+    private boolean userExists(String owner) {
+        if (!owner.startsWith("user-")) {
+            return false;
+        }
+        try {
+            var index = Integer.parseInt(owner.substring("user-".length()));
+            return index >= 0 && index < options.users();
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private int spend() {
+        var now = Instant.now();
+        if (!now.isBefore(resetAt)) {
+            synchronized (this) {
+                if (!now.isBefore(resetAt)) {
+                    resetAt = now.plus(RATE_LIMIT_WINDOW);
+                    remaining.set(options.rateLimit());
+                }
+            }
+        }
+        return remaining.decrementAndGet();
+    }
+
+    private void rateLimitHeaders(HttpExchange exchange, int left) {
+        var headers = exchange.getResponseHeaders();
+        headers.set("X-RateLimit-Limit", String.valueOf(options.rateLimit()));
+        headers.set("X-RateLimit-Remaining", String.valueOf(left));
+        headers.set("X-RateLimit-Reset", String.valueOf(resetAt.getEpochSecond()));
+    }
+
+    private Duration latency() {
+        var median = options.latencyMedian().toNanos();
+        var nanos = median * Math.exp(options.latencySigma() * ThreadLocalRandom.current().nextGaussian());
+        return Duration.ofNanos((long) nanos);
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        var bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private static int queryParameter(String query, String name, int defaultValue) {
+        if (query == null) {
+            return defaultValue;
+        }
+        for (var parameter : query.split("&")) {
+            if (parameter.startsWith(name + "=")) {
+                try {
+                    return Integer.parseInt(parameter.substring(name.length() + 1));
+                } catch (NumberFormatException e) {
+                    return defaultValue;
+                }
+            }
+        }
+        return defaultValue;
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String sha1(String value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-1")
+                    .digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 is not available", e);
+        }
+    }
+
+    /**
+     * A rendered page of a listing.
+     *
+     * @param body the JSON body
+     * @param etag the entity tag of the body
+     * @param link the {@code Link} header, {@code null} on the last page
+     */
+    private record Page(String body, String etag, String link) {
+    }
+}
@@ -0,0 +1,128 @@
+package com.atipera.searcher.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-model load driver: a fixed number of clients on virtual threads send searches back to back.
+ * Usernames are drawn from a Zipf distribution, so a few users receive most of the traffic, as in production.
+ * Latencies are recorded in microseconds, from sending the request until the whole body is read.
+ */
+final class LoadDriver {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final URI target;
+    private final LoadTestOptions options;
+    private final HttpClient httpClient;
+    private final double[] cumulativeUserWeights;
+
+    /**
+     * Constructs a new LoadDriver.
+     *
+     * @param target  the base URI of the application under test
+     * @param options the options of the run
+     */
+    LoadDriver(URI target, LoadTestOptions options) {
+        this.target = target;
+        this.options = options;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        this.cumulativeUserWeights = cumulativeZipfWeights(options.users(), options.userSkew());
+    }
+
+    /**
+     * Drives the load for the given time.
+     *
+     * @param duration how long the load is driven
+     * @return the outcome of the requests sent
+     * @throws InterruptedException if interrupted while waiting for the clients
+     */
+    Result run(Duration duration) throws InterruptedException {
+        var recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+        var statuses = new ConcurrentHashMap<String, LongAdder>();
+        var deadline = System.nanoTime() + duration.toNanos();
+        var startedAt = System.nanoTime();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < options.concurrency(); i++) {
+                executor.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        var status = search(recorder);
+                        statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+                    }
+                });
+            }
+        }
+        var elapsed = Duration.ofNanos(System.nanoTime() - startedAt);
+        var counts = new TreeMap<String, Long>();
+        statuses.forEach((status, count) -> counts.put(status, count.sum()));
+        return new Result(recorder.getIntervalHistogram(), counts, elapsed);
+    }
+
+    private String search(Recorder recorder) {
+        var request = HttpRequest.newBuilder(target.resolve("/github/search/user-" + nextUser()))
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+        var sentAt = System.nanoTime();
+        try {
+            var response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            recorder.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, (System.nanoTime() - sentAt) / 1_000));
+            return String.valueOf(response.statusCode());
+        } catch (IOException e) {
+            return e.getClass().getSimpleName();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "INTERRUPTED";
+        }
+    }
+
+    private int nextUser() {
+        var index = Arrays.binarySearch(cumulativeUserWeights, ThreadLocalRandom.current().nextDouble());
+        return Math.min(cumulativeUserWeights.length - 1, index >= 0 ? index : -index - 1);
+    }
+
+    private static double[] cumulativeZipfWeights(int users, double skew) {
+        var weights = new double[users];
+        var total = 0.0;
+        for (int i = 0; i < users; i++) {
+            total += 1 / Math.pow(i + 1, skew);
+            weights[i] = total;
+        }
+        for (int i = 0; i < users; i++) {
+            weights[i] /= total;
+        }
+        return weights;
+    }
+
+    /**
+     * The outcome of a load phase.
+     *
+     * @param latencies the latencies of completed requests, in microseconds
+     * @param statuses  the number of requests per response status or failure
+     * @param elapsed   how long the phase took, including draining the last requests
+     */
+    record Result(Histogram latencies, Map<String, Long> statuses, Duration elapsed) {
+
+        long requests() {
+            return statuses.values().stream().mapToLong(Long::longValue).sum();
+        }
+    }
+}
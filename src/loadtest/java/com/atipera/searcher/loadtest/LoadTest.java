@@ -0,0 +1,110 @@
+package com.atipera.searcher.loadtest;
+
+import com.atipera.searcher.SearcherApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs the application against a {@link GithubSimulator} and drives searches with a {@link LoadDriver}.
+ * After a warm-up phase, the load is measured and the report lists the throughput, the latency distribution,
+ * the response statuses and the GitHub call amplification, i.e. the number of simulated GitHub calls per search.
+ * The full latency distribution is also written to {@code target/loadtest-latency.hgrm}.
+ * The application runs in the same JVM as the simulator and the driver, so absolute numbers understate a
+ * dedicated deployment; comparisons between configurations on the same machine are what the harness is for.
+ */
+public final class LoadTest {
+
+    private static final Path HISTOGRAM_FILE = Path.of("target", "loadtest-latency.hgrm");
+
+    private LoadTest() {
+    }
+
+    /**
+     * Runs a load test.
+     *
+     * @param args the options, see {@link LoadTestOptions}
+     * @throws Exception if the simulator, the application or the driver fails
+     */
+    public static void main(String[] args) throws Exception {
+        var options = LoadTestOptions.parse(args);
+        try (var simulator = new GithubSimulator(options);
+             var application = new SpringApplicationBuilder(SearcherApplication.class)
+                     .run(applicationArguments(simulator, options))) {
+            var port = ((WebServerApplicationContext) application).getWebServer().getPort();
+            var driver = new LoadDriver(URI.create("http://localhost:" + port), options);
+            System.out.printf("Warming up for %s with %d clients%n", options.warmup(), options.concurrency());
+            driver.run(options.warmup());
+            var callsBefore = snapshot(simulator);
+            System.out.printf("Measuring for %s%n", options.duration());
+            var result = driver.run(options.duration());
+            var callsAfter = snapshot(simulator);
+            report(options, result, callsBefore, callsAfter);
+        }
+    }
+
+    /**
+     * Builds the command line of the application, pointing it at the simulator.
+     * Application properties given in the options come last, so they override these.
+     *
+     * @param simulator the simulator the application talks to
+     * @param options   the options of the run
+     * @return the application arguments
+     */
+    private static String[] applicationArguments(GithubSimulator simulator, LoadTestOptions options) {
+        var arguments = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--github.api.users.url=" + simulator.baseUri() + "/users/",
+                "--github.api.repos.url=" + simulator.baseUri() + "/repos/",
+                "--github.api.http.warm-concurrent-calls=0",
+                "--github.cache.disk.enabled=false",
+                "--logging.level.root=WARN",
+                "--spring.main.banner-mode=off"));
+        arguments.addAll(options.applicationProperties());
+        return arguments.toArray(String[]::new);
+    }
+
+    private static Map<GithubSimulator.Call, Long> snapshot(GithubSimulator simulator) {
+        var calls = new EnumMap<GithubSimulator.Call, Long>(GithubSimulator.Call.class);
+        for (var call : GithubSimulator.Call.values()) {
+            calls.put(call, simulator.calls(call));
+        }
+        return calls;
+    }
+
+    private static void report(LoadTestOptions options, LoadDriver.Result result,
+                               Map<GithubSimulator.Call, Long> callsBefore,
+                               Map<GithubSimulator.Call, Long> callsAfter) throws IOException {
+        var requests = result.requests();
+        var latencies = result.latencies();
+        System.out.println();
+        System.out.printf("Options        %s%n", options);
+        System.out.printf("Requests       %d in %.1f s, %.1f req/s%n", requests,
+                result.elapsed().toMillis() / 1000.0, requests * 1000.0 / Math.max(1, result.elapsed().toMillis()));
+        System.out.printf("Statuses       %s%n", result.statuses());
+        System.out.printf("Latency (ms)   p50 %.1f | p90 %.1f | p99 %.1f | p99.9 %.1f | max %.1f%n",
+                latencies.getValueAtPercentile(50) / 1000.0, latencies.getValueAtPercentile(90) / 1000.0,
+                latencies.getValueAtPercentile(99) / 1000.0, latencies.getValueAtPercentile(99.9) / 1000.0,
+                latencies.getMaxValue() / 1000.0);
+        System.out.println("GitHub calls per search");
+        for (var call : GithubSimulator.Call.values()) {
+            var calls = callsAfter.get(call) - callsBefore.get(call);
+            System.out.printf("  %-14s %8d  %.2f%n", call, calls, calls / (double) Math.max(1, requests));
+        }
+        Files.createDirectories(HISTOGRAM_FILE.getParent());
+        try (var out = new PrintStream(new FileOutputStream(HISTOGRAM_FILE.toFile()))) {
+            latencies.outputPercentileDistribution(out, 1000.0);
+        }
+        System.out.printf("Latency distribution (ms) written to %s%n", HISTOGRAM_FILE);
+    }
+}
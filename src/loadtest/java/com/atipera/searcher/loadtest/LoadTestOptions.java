@@ -0,0 +1,83 @@
+package com.atipera.searcher.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Options of a load test run, parsed from {@code key=value} arguments.
+ * Arguments starting with {@code --} are application properties and are passed to the application as they are,
+ * e.g. {@code --github.search.pipeline=reactive}.
+ *
+ * @param users                 the number of synthetic GitHub users, named {@code user-0} to {@code user-<n-1>}
+ * @param repositories          the number of repositories of every user
+ * @param branches              the number of branches of every repository
+ * @param forkShare             the share of every user's repositories that are forks
+ * @param latencyMedian         the median latency of a simulated GitHub response
+ * @param latencySigma          the spread of the log-normal latency distribution, {@code 0} for a constant latency
+ * @param rateLimit             the simulated rate limit budget per hour
+ * @param concurrency           the number of concurrent clients driving the load
+ * @param userSkew              the exponent of the Zipf distribution users are picked from, {@code 0} for uniform
+ * @param warmup                how long the load is driven before it is measured
+ * @param duration              how long the load is measured
+ * @param applicationProperties the application properties to override
+ */
+record LoadTestOptions(int users, int repositories, int branches, double forkShare, Duration latencyMedian,
+                       double latencySigma, int rateLimit, int concurrency, double userSkew, Duration warmup,
+                       Duration duration, List<String> applicationProperties) {
+
+    private static final Map<String, String> DEFAULTS = Map.ofEntries(
+            Map.entry("users", "100"),
+            Map.entry("repositories", "30"),
+            Map.entry("branches", "5"),
+            Map.entry("fork-share", "0.2"),
+            Map.entry("latency-median", "50ms"),
+            Map.entry("latency-sigma", "0.5"),
+            Map.entry("rate-limit", "1000000"),
+            Map.entry("concurrency", "64"),
+            Map.entry("user-skew", "1.0"),
+            Map.entry("warmup", "10s"),
+            Map.entry("duration", "30s"));
+
+    /**
+     * Parses the arguments of a run, falling back to defaults for missing options.
+     *
+     * @param args the arguments
+     * @return the options
+     * @throws IllegalArgumentException if an option is unknown or malformed
+     */
+    static LoadTestOptions parse(String[] args) {
+        var values = new HashMap<>(DEFAULTS);
+        var applicationProperties = new ArrayList<String>();
+        for (var arg : args) {
+            if (arg.startsWith("--")) {
+                applicationProperties.add(arg);
+                continue;
+            }
+            var separator = arg.indexOf('=');
+            if (separator < 0 || !DEFAULTS.containsKey(arg.substring(0, separator))) {
+                throw new IllegalArgumentException("Unknown option " + arg + ", expected one of "
+                        + Set.copyOf(DEFAULTS.keySet()));
+            }
+            values.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        return new LoadTestOptions(
+                Integer.parseInt(values.get("users")),
+                Integer.parseInt(values.get("repositories")),
+                Integer.parseInt(values.get("branches")),
+                Double.parseDouble(values.get("fork-share")),
+                DurationStyle.detectAndParse(values.get("latency-median")),
+                Double.parseDouble(values.get("latency-sigma")),
+                Integer.parseInt(values.get("rate-limit")),
+                Integer.parseInt(values.get("concurrency")),
+                Double.parseDouble(values.get("user-skew")),
+                DurationStyle.detectAndParse(values.get("warmup")),
+                DurationStyle.detectAndParse(values.get("duration")),
+                List.copyOf(applicationProperties));
+    }
+}
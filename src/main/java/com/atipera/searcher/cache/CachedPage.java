@@ -0,0 +1,46 @@
+package com.atipera.searcher.cache;
+
+import com.atipera.searcher.client.GithubEndpoint;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Represents a cached page of a GitHub listing.
+ * Besides the deserialized items, the entry keeps the validators needed to revalidate it
+ * with a conditional request once it becomes stale.
+ *
+ * @param endpoint   the endpoint the page was fetched from
+ * @param items      the deserialized items of the page
+ * @param etag       the {@code ETag} returned by GitHub, may be {@code null}
+ * @param linkHeader the {@code Link} header returned by GitHub, may be {@code null}
+ * @param fetchedAt  the moment the page was last fetched or revalidated
+ */
+public record CachedPage(GithubEndpoint endpoint,
+                         List<?> items,
+                         String etag,
+                         String linkHeader,
+                         Instant fetchedAt) {
+
+    /**
+     * Checks whether the page can still be served without contacting GitHub.
+     *
+     * @param ttl the time to live configured for the page's endpoint
+     * @param now the current moment
+     * @return {@code true} if the page is younger than the given time to live
+     */
+    public boolean isFresh(Duration ttl, Instant now) {
+        return fetchedAt.plus(ttl).isAfter(now);
+    }
+
+    /**
+     * Creates a copy of the page marked as revalidated at the given moment.
+     *
+     * @param now the moment GitHub confirmed the page has not changed
+     * @return the revalidated page
+     */
+    public CachedPage revalidatedAt(Instant now) {
+        return new CachedPage(endpoint, items, etag, linkHeader, now);
+    }
+}
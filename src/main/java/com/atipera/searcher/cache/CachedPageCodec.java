@@ -0,0 +1,171 @@
+package com.atipera.searcher.cache;
+
+import com.atipera.searcher.client.GithubEndpoint;
+import com.atipera.searcher.dto.github.BranchResponse;
+import com.atipera.searcher.dto.github.CommitResponse;
+import com.atipera.searcher.dto.github.OwnerResponse;
+import com.atipera.searcher.dto.github.RepositoryResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact binary encoding of {@link CachedPage}s for the on-disk cache tier.
+ * Only the fields the application reads are stored. Every entry starts with its fetch time,
+ * so it can be checked for expiry without decoding the rest.
+ * <pre>
+ * long fetchedAtSeconds | int fetchedAtNanos | byte endpoint | string etag | string linkHeader | int itemCount | items
+ * </pre>
+ * Strings are stored as their UTF-8 length followed by the bytes, {@code -1} standing for {@code null}.
+ */
+final class CachedPageCodec {
+
+    static final int FETCHED_AT_SIZE = Long.BYTES + Integer.BYTES;
+
+    private CachedPageCodec() {
+    }
+
+    /**
+     * Encodes a record body: the cache key followed by the page.
+     *
+     * @param key  the cache key
+     * @param page the page to encode
+     * @return the encoded record body
+     */
+    static byte[] encode(String key, CachedPage page) {
+        var bytes = new ByteArrayOutputStream(256);
+        try (var output = new DataOutputStream(bytes)) {
+            writeString(output, key);
+            output.writeLong(page.fetchedAt().getEpochSecond());
+            output.writeInt(page.fetchedAt().getNano());
+            output.writeByte(page.endpoint().ordinal());
+            writeString(output, page.etag());
+            writeString(output, page.linkHeader());
+            output.writeInt(page.items().size());
+            for (var item : page.items()) {
+                writeItem(output, page.endpoint(), item);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Reads the cache key at the start of a record body.
+     *
+     * @param buffer the buffer holding the record
+     * @param offset the offset of the record body
+     * @return the cache key
+     */
+    static String readKey(ByteBuffer buffer, int offset) {
+        return readString(buffer.duplicate().position(offset));
+    }
+
+    /**
+     * Returns the offset of the encoded page within a record body, right after the cache key.
+     *
+     * @param buffer the buffer holding the record
+     * @param offset the offset of the record body
+     * @return the offset of the encoded page
+     */
+    static int pageOffset(ByteBuffer buffer, int offset) {
+        return offset + Integer.BYTES + Math.max(0, buffer.getInt(offset));
+    }
+
+    /**
+     * Reads the fetch time of an encoded page.
+     *
+     * @param buffer     the buffer holding the page
+     * @param pageOffset the offset of the encoded page
+     * @return the moment the page was fetched or revalidated
+     */
+    static Instant readFetchedAt(ByteBuffer buffer, int pageOffset) {
+        return Instant.ofEpochSecond(buffer.getLong(pageOffset), buffer.getInt(pageOffset + Long.BYTES));
+    }
+
+    /**
+     * Decodes a page straight from the buffer holding it.
+     *
+     * @param buffer     the buffer holding the page
+     * @param pageOffset the offset of the encoded page
+     * @return the decoded page
+     */
+    static CachedPage decode(ByteBuffer buffer, int pageOffset) {
+        var input = buffer.duplicate().position(pageOffset + FETCHED_AT_SIZE);
+        var endpoint = GithubEndpoint.values()[input.get()];
+        var etag = readString(input);
+        var linkHeader = readString(input);
+        var itemCount = input.getInt();
+        var items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            items.add(readItem(input, endpoint));
+        }
+        return new CachedPage(endpoint, List.copyOf(items), etag, linkHeader, readFetchedAt(buffer, pageOffset));
+    }
+
+    private static void writeItem(DataOutputStream output, GithubEndpoint endpoint, Object item) throws IOException {
+        switch (endpoint) {
+            case USER_REPOSITORIES -> {
+                var repository = (RepositoryResponse) item;
+                writeString(output, repository.getName());
+                writeString(output, repository.getOwner() == null ? null : repository.getOwner().getLogin());
+                output.writeBoolean(repository.isForked());
+                writeString(output, repository.getPushedAt());
+                writeString(output, repository.getUpdatedAt());
+                writeString(output, repository.getDefaultBranch());
+            }
+            case REPOSITORY_BRANCHES -> {
+                var branch = (BranchResponse) item;
+                writeString(output, branch.getName());
+                writeString(output, branch.getCommit() == null ? null : branch.getCommit().getSha());
+            }
+            case GRAPHQL -> throw new IllegalArgumentException("GraphQL responses are not cached");
+        }
+    }
+
+    private static Object readItem(ByteBuffer input, GithubEndpoint endpoint) {
+        return switch (endpoint) {
+            case USER_REPOSITORIES -> RepositoryResponse.builder()
+                    .name(readString(input))
+                    .owner(OwnerResponse.builder().login(readString(input)).build())
+                    .isForked(input.get() != 0)
+                    .pushedAt(readString(input))
+                    .updatedAt(readString(input))
+                    .defaultBranch(readString(input))
+                    .build();
+            case REPOSITORY_BRANCHES -> BranchResponse.builder()
+                    .name(readString(input))
+                    .commit(CommitResponse.builder().sha(readString(input)).build())
+                    .build();
+            case GRAPHQL -> throw new IllegalArgumentException("GraphQL responses are not cached");
+        };
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        if (value == null) {
+            output.writeInt(-1);
+            return;
+        }
+        var bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(ByteBuffer input) {
+        var length = input.getInt();
+        if (length < 0) {
+            return null;
+        }
+        var value = StandardCharsets.UTF_8.decode(input.slice(input.position(), length)).toString();
+        input.position(input.position() + length);
+        return value;
+    }
+}
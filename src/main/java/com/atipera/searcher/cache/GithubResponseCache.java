@@ -0,0 +1,26 @@
+package com.atipera.searcher.cache;
+
+import java.util.Optional;
+
+/**
+ * Cache of GitHub API responses, keyed by the requested page URL.
+ * Implementations decide how entries are stored and evicted; freshness is evaluated by the caller.
+ */
+public interface GithubResponseCache {
+
+    /**
+     * Looks up a cached page.
+     *
+     * @param key the URL of the page
+     * @return the cached page, or an empty {@link Optional} if there is none
+     */
+    Optional<CachedPage> get(String key);
+
+    /**
+     * Stores a page, replacing any previous entry for the same key.
+     *
+     * @param key  the URL of the page
+     * @param page the page to store
+     */
+    void put(String key, CachedPage page);
+}
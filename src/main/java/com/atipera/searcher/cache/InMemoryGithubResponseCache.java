@@ -0,0 +1,50 @@
+package com.atipera.searcher.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * In-heap implementation of {@link GithubResponseCache} backed by Caffeine.
+ * The cache is bounded by the number of pages and evicts entries using the W-TinyLFU policy.
+ * Entries are retained well past their time to live, so stale pages can still be revalidated
+ * with {@code If-None-Match} instead of being downloaded again.
+ */
+public class InMemoryGithubResponseCache implements GithubResponseCache {
+
+    private final Cache<String, CachedPage> cache;
+
+    /**
+     * Constructs a new InMemoryGithubResponseCache.
+     *
+     * @param maximumSize the maximum number of cached pages
+     * @param retention   how long a page is kept after it was last written
+     */
+    public InMemoryGithubResponseCache(long maximumSize, Duration retention) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(retention)
+                .build();
+    }
+
+    @Override
+    public Optional<CachedPage> get(String key) {
+        return Optional.ofNullable(cache.getIfPresent(key));
+    }
+
+    @Override
+    public void put(String key, CachedPage page) {
+        cache.put(key, page);
+    }
+
+    /**
+     * Drops the cached page, so the next lookup falls through to the tier behind this one.
+     *
+     * @param key the URL of the page
+     */
+    public void invalidate(String key) {
+        cache.invalidate(key);
+    }
+}
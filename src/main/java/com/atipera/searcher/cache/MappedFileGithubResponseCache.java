@@ -0,0 +1,283 @@
+package com.atipera.searcher.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/**
+ * Persistent implementation of {@link GithubResponseCache} backed by an append-only, memory-mapped file.
+ * Every {@link #put(String, CachedPage)} appends a record and an in-heap index maps each key to its latest record.
+ * <ul>
+ *     <li>On startup only the record headers and keys are read to rebuild the index; pages are decoded
+ *     straight from the mapping when they are looked up.</li>
+ *     <li>Each record carries a CRC32 of its body, checked on lookup, so a record torn by a crash is
+ *     treated as a miss.</li>
+ *     <li>Once the file is full, it is compacted into a new file holding only the latest record of every key
+ *     younger than the retention, which then replaces the old one. The most recently written pages are kept
+ *     up to half of the file and older ones are evicted, so the next compaction only happens once the log
+ *     has grown by at least half of the file again.</li>
+ *     <li>The file is locked while it is open, so a second process cannot map it and overwrite its records.</li>
+ * </ul>
+ * Record layout: {@code int bodyLength | int crc32 | body}, where the body is the key followed by the
+ * page encoded by {@link CachedPageCodec}. A zero length marks the end of the log.
+ * The file starts with a magic number identifying the layout version; a file of another version is reset on startup.
+ */
+@Slf4j
+public class MappedFileGithubResponseCache implements GithubResponseCache, Closeable {
+
+    private static final int MAGIC = 0x47484333;
+    private static final int FILE_HEADER_SIZE = Integer.BYTES;
+    private static final int RECORD_HEADER_SIZE = 2 * Integer.BYTES;
+    private static final double COMPACTION_TARGET = 0.5;
+
+    private final Path path;
+    private final int capacity;
+    private final Duration retention;
+    private final Clock clock;
+    private final int compactionTarget;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> index = new HashMap<>();
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int writePosition;
+
+    /**
+     * Constructs a new MappedFileGithubResponseCache, reopening the file if it already exists.
+     *
+     * @param path      the file the cache is stored in
+     * @param capacity  the size of the file in bytes
+     * @param retention how long a page is kept after it was last written
+     * @throws IOException if the file could not be opened, locked or mapped
+     */
+    public MappedFileGithubResponseCache(Path path, int capacity, Duration retention) throws IOException {
+        this(path, capacity, retention, Clock.systemUTC());
+    }
+
+    MappedFileGithubResponseCache(Path path, int capacity, Duration retention, Clock clock) throws IOException {
+        this.path = path;
+        this.capacity = capacity;
+        this.retention = retention;
+        this.clock = clock;
+        this.compactionTarget = (int) (capacity * COMPACTION_TARGET);
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        this.channel = openLocked(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        if (buffer.getInt(0) == MAGIC) {
+            rebuildIndex();
+        } else {
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(FILE_HEADER_SIZE, 0);
+            writePosition = FILE_HEADER_SIZE;
+        }
+        log.info("Opened response cache {} with {} entries, {} of {} bytes used", path, index.size(), writePosition,
+                capacity);
+    }
+
+    @Override
+    public Optional<CachedPage> get(String key) {
+        lock.readLock().lock();
+        try {
+            var position = index.get(key);
+            if (position == null) {
+                return Optional.empty();
+            }
+            var bodyOffset = position + RECORD_HEADER_SIZE;
+            var pageOffset = CachedPageCodec.pageOffset(buffer, bodyOffset);
+            if (isExpired(pageOffset) || !hasValidChecksum(position)) {
+                return Optional.empty();
+            }
+            return Optional.of(CachedPageCodec.decode(buffer, pageOffset));
+        } catch (RuntimeException e) {
+            log.warn("Discarding unreadable response cache entry {}: {}", key, e.getMessage());
+            return Optional.empty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void put(String key, CachedPage page) {
+        var body = CachedPageCodec.encode(key, page);
+        var recordSize = RECORD_HEADER_SIZE + body.length;
+        if (recordSize > capacity - compactionTarget - FILE_HEADER_SIZE - Integer.BYTES) {
+            log.warn("Page {} is too large for response cache {}, not storing it", key, path);
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!hasRoomFor(recordSize)) {
+                compact();
+            }
+            if (!hasRoomFor(recordSize)) {
+                log.warn("Response cache {} is full, not storing {}", path, key);
+                return;
+            }
+            var position = writePosition;
+            var checksum = new CRC32();
+            checksum.update(body);
+            buffer.put(position + RECORD_HEADER_SIZE, body);
+            buffer.putInt(position + Integer.BYTES, (int) checksum.getValue());
+            buffer.putInt(position + recordSize, 0);
+            buffer.putInt(position, body.length);
+            writePosition = position + recordSize;
+            index.put(key, position);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Flushes the mapping to disk and closes the file.
+     *
+     * @throws IOException if the file could not be closed
+     */
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            buffer.force();
+            channel.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Reads the record headers and keys of the log, stopping at its end or at the first malformed record.
+     */
+    private void rebuildIndex() {
+        var position = FILE_HEADER_SIZE;
+        while (position + RECORD_HEADER_SIZE <= capacity) {
+            var bodyLength = buffer.getInt(position);
+            if (bodyLength <= 0 || bodyLength > capacity - position - RECORD_HEADER_SIZE - Integer.BYTES) {
+                break;
+            }
+            index.put(CachedPageCodec.readKey(buffer, position + RECORD_HEADER_SIZE), position);
+            position += RECORD_HEADER_SIZE + bodyLength;
+        }
+        buffer.putInt(position, 0);
+        writePosition = position;
+    }
+
+    /**
+     * Rewrites the latest, unexpired record of every key into a new file, which then replaces the current one.
+     * Records are copied newest first, between the mappings and without being decoded, until the new file is
+     * filled up to the compaction target; the remaining, older records are evicted.
+     */
+    private void compact() {
+        var compactedPath = path.resolveSibling(path.getFileName() + ".compact");
+        try {
+            var compactedChannel = openLocked(compactedPath, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            var compactedBuffer = compactedChannel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            var compactedIndex = new HashMap<String, Integer>();
+            var position = FILE_HEADER_SIZE;
+            var evicted = 0;
+            for (var entry : newestFirst()) {
+                var recordPosition = entry.getValue();
+                var recordSize = RECORD_HEADER_SIZE + buffer.getInt(recordPosition);
+                if (position + recordSize > compactionTarget) {
+                    evicted++;
+                    continue;
+                }
+                compactedBuffer.put(position, buffer, recordPosition, recordSize);
+                compactedIndex.put(entry.getKey(), position);
+                position += recordSize;
+            }
+            compactedBuffer.putInt(position, 0);
+            compactedBuffer.putInt(0, MAGIC);
+            compactedBuffer.force();
+            Files.move(compactedPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            channel.close();
+            log.info("Compacted response cache {} from {} to {} bytes, evicting {} pages", path, writePosition,
+                    position, evicted);
+            channel = compactedChannel;
+            buffer = compactedBuffer;
+            writePosition = position;
+            index.clear();
+            index.putAll(compactedIndex);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to compact response cache " + path, e);
+        }
+    }
+
+    /**
+     * Lists the unexpired records of the index, most recently written first.
+     *
+     * @return the index entries of the unexpired records
+     */
+    private List<Map.Entry<String, Integer>> newestFirst() {
+        var fetchedAt = new HashMap<String, Instant>();
+        for (var entry : index.entrySet()) {
+            var pageOffset = CachedPageCodec.pageOffset(buffer, entry.getValue() + RECORD_HEADER_SIZE);
+            if (!isExpired(pageOffset)) {
+                fetchedAt.put(entry.getKey(), CachedPageCodec.readFetchedAt(buffer, pageOffset));
+            }
+        }
+        return index.entrySet().stream()
+                .filter(entry -> fetchedAt.containsKey(entry.getKey()))
+                .sorted(Comparator.comparing((Map.Entry<String, Integer> entry) -> fetchedAt.get(entry.getKey()))
+                        .reversed())
+                .toList();
+    }
+
+    /**
+     * Opens a file and takes an exclusive lock on it, held until the channel is closed.
+     *
+     * @param path    the file to open
+     * @param options the options to open the file with
+     * @return the locked channel
+     * @throws IOException if the file could not be opened, or is locked by another process or cache
+     */
+    private static FileChannel openLocked(Path path, StandardOpenOption... options) throws IOException {
+        var channel = FileChannel.open(path, options);
+        try {
+            if (channel.tryLock() != null) {
+                return channel;
+            }
+        } catch (OverlappingFileLockException e) {
+            // locked by another cache of this process
+        }
+        channel.close();
+        throw new IOException("Response cache " + path + " is in use by another process");
+    }
+
+    private boolean hasRoomFor(int recordSize) {
+        return writePosition + recordSize + Integer.BYTES <= capacity;
+    }
+
+    private boolean isExpired(int pageOffset) {
+        return !CachedPageCodec.readFetchedAt(buffer, pageOffset).plus(retention).isAfter(clock.instant());
+    }
+
+    private boolean hasValidChecksum(int position) {
+        var bodyLength = buffer.getInt(position);
+        var checksum = new CRC32();
+        checksum.update(buffer.slice(position + RECORD_HEADER_SIZE, bodyLength));
+        return (int) checksum.getValue() == buffer.getInt(position + Integer.BYTES);
+    }
+}
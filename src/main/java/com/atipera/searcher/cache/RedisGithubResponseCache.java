@@ -0,0 +1,151 @@
+package com.atipera.searcher.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import redis.clients.jedis.JedisPubSub;
+import redis.clients.jedis.UnifiedJedis;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.params.SetParams;
+
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Implementation of {@link GithubResponseCache} shared by all nodes using the same Redis key prefix,
+ * so a page fetched or revalidated by one node is served by every other one without calling GitHub.
+ * Pages are stored encoded by {@link CachedPageCodec} and expire after the retention.
+ * <ul>
+ *     <li>Every write is announced on an invalidation channel; messages of other nodes are handed to the
+ *     invalidation listener, which drops the page from the local near-cache in front of this one.</li>
+ *     <li>Invalidations are fire-and-forget, so the near-cache has to expire its pages on its own as well.</li>
+ *     <li>If Redis cannot be reached, lookups miss and writes are dropped, so GitHub is called directly.</li>
+ * </ul>
+ */
+@Slf4j
+public class RedisGithubResponseCache implements GithubResponseCache, Closeable {
+
+    private static final Duration RESUBSCRIBE_DELAY = Duration.ofSeconds(1);
+
+    private final UnifiedJedis jedis;
+    private final String keyPrefix;
+    private final String invalidationChannel;
+    private final SetParams expiry;
+    private final Consumer<String> invalidationListener;
+    private final MeterRegistry meterRegistry;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final InvalidationSubscriber subscriber = new InvalidationSubscriber();
+    private final Thread subscriberThread;
+
+    private volatile boolean closed;
+
+    /**
+     * Constructs a new RedisGithubResponseCache and subscribes to the invalidations of other nodes.
+     *
+     * @param jedis                the Redis client
+     * @param keyPrefix            the prefix of the keys and of the channel the pages are shared under
+     * @param retention            how long a page is kept after it was last written
+     * @param invalidationListener the listener of the keys written by other nodes
+     * @param meterRegistry        the registry the invalidation and error counts are published to
+     */
+    public RedisGithubResponseCache(UnifiedJedis jedis, String keyPrefix, Duration retention,
+                                    Consumer<String> invalidationListener, MeterRegistry meterRegistry) {
+        this.jedis = jedis;
+        this.keyPrefix = keyPrefix;
+        this.invalidationChannel = keyPrefix + "invalidations";
+        this.expiry = SetParams.setParams().px(retention.toMillis());
+        this.invalidationListener = invalidationListener;
+        this.meterRegistry = meterRegistry;
+        this.subscriberThread = Thread.ofVirtual().name("github-cache-invalidations").start(this::subscribe);
+    }
+
+    @Override
+    public Optional<CachedPage> get(String key) {
+        try {
+            var bytes = jedis.get(redisKey(key));
+            if (bytes == null) {
+                return Optional.empty();
+            }
+            var buffer = ByteBuffer.wrap(bytes);
+            if (!key.equals(CachedPageCodec.readKey(buffer, 0))) {
+                return Optional.empty();
+            }
+            return Optional.of(CachedPageCodec.decode(buffer, CachedPageCodec.pageOffset(buffer, 0)));
+        } catch (JedisException e) {
+            recordError("get", e);
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void put(String key, CachedPage page) {
+        try {
+            jedis.set(redisKey(key), CachedPageCodec.encode(key, page), expiry);
+            jedis.publish(invalidationChannel, nodeId + " " + key);
+        } catch (JedisException e) {
+            recordError("put", e);
+        }
+    }
+
+    /**
+     * Stops listening for invalidations.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (subscriber.isSubscribed()) {
+            subscriber.unsubscribe();
+        }
+        subscriberThread.interrupt();
+    }
+
+    /**
+     * Listens for invalidations until the cache is closed, subscribing again whenever the connection is lost.
+     */
+    private void subscribe() {
+        while (!closed) {
+            try {
+                jedis.subscribe(subscriber, invalidationChannel);
+            } catch (JedisException e) {
+                if (closed) {
+                    return;
+                }
+                log.warn("Lost the subscription to cache invalidations: {}", e.getMessage());
+                try {
+                    Thread.sleep(RESUBSCRIBE_DELAY);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private byte[] redisKey(String key) {
+        return (keyPrefix + "page:" + key).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void recordError(String operation, JedisException e) {
+        log.warn("Redis cache {} failed: {}", operation, e.getMessage());
+        meterRegistry.counter("github.cache.redis.errors", "operation", operation).increment();
+    }
+
+    /**
+     * Hands the keys written by other nodes to the invalidation listener.
+     */
+    private final class InvalidationSubscriber extends JedisPubSub {
+
+        @Override
+        public void onMessage(String channel, String message) {
+            var separator = message.indexOf(' ');
+            if (separator < 0 || message.startsWith(nodeId + " ")) {
+                return;
+            }
+            invalidationListener.accept(message.substring(separator + 1));
+            meterRegistry.counter("github.cache.invalidations").increment();
+        }
+    }
+}
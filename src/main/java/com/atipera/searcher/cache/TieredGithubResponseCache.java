@@ -0,0 +1,59 @@
+package com.atipera.searcher.cache;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Two-tier implementation of {@link GithubResponseCache}.
+ * Lookups are served from the near tier and fall back to the far tier, promoting hits into the near tier.
+ * Writes go to both tiers, so the far tier can warm up the near one after a restart.
+ */
+public class TieredGithubResponseCache implements GithubResponseCache, Closeable {
+
+    private final GithubResponseCache nearCache;
+    private final GithubResponseCache farCache;
+
+    /**
+     * Constructs a new TieredGithubResponseCache.
+     *
+     * @param nearCache the fast, usually in-heap tier
+     * @param farCache  the slower, usually persistent tier
+     */
+    public TieredGithubResponseCache(GithubResponseCache nearCache, GithubResponseCache farCache) {
+        this.nearCache = nearCache;
+        this.farCache = farCache;
+    }
+
+    @Override
+    public Optional<CachedPage> get(String key) {
+        var nearPage = nearCache.get(key);
+        if (nearPage.isPresent()) {
+            return nearPage;
+        }
+        var farPage = farCache.get(key);
+        farPage.ifPresent(page -> nearCache.put(key, page));
+        return farPage;
+    }
+
+    @Override
+    public void put(String key, CachedPage page) {
+        nearCache.put(key, page);
+        farCache.put(key, page);
+    }
+
+    /**
+     * Closes the tiers holding resources.
+     *
+     * @throws IOException if a tier could not be closed
+     */
+    @Override
+    public void close() throws IOException {
+        if (farCache instanceof Closeable closeable) {
+            closeable.close();
+        }
+        if (nearCache instanceof Closeable closeable) {
+            closeable.close();
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package com.atipera.searcher.client;
 
+import com.atipera.searcher.cache.CachedPage;
+import com.atipera.searcher.cache.GithubResponseCache;
+import com.atipera.searcher.concurrent.FanOut;
+import com.atipera.searcher.concurrent.SingleFlight;
 import com.atipera.searcher.dto.github.BranchResponse;
 import com.atipera.searcher.dto.github.RepositoryResponse;
 import com.atipera.searcher.exception.FetchFailedException;
@@ -7,9 +11,14 @@ import com.atipera.searcher.exception.ProcessingFailedException;
 import com.atipera.searcher.exception.RateLimitExceededException;
 import com.atipera.searcher.exception.UserNotFoundException;
 import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import okhttp3.HttpUrl;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
@@ -17,18 +26,39 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.stream.IntStream;
 
 /**
  * Service class for making API calls to GitHub.
  * Utilizes OkHttpClient for HTTP requests and Gson for JSON processing.
+ * Every page is cached in a {@link GithubResponseCache} and revalidated with its {@code ETag} once stale.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class GithubApiClient {
+    static final Type REPOSITORY_LIST_TYPE = new TypeToken<List<RepositoryResponse>>() {
+    }.getType();
+    static final Type BRANCH_LIST_TYPE = new TypeToken<List<BranchResponse>>() {
+    }.getType();
+    static final Type BRANCH_TYPE = BranchResponse.class;
+    static final int MAX_PAGES = 1000;
+    private static final int PAGE_SIZE = 100;
+    private static final int HTTP_NOT_MODIFIED = 304;
+
     private final OkHttpClient okHttpClient;
     private final Gson gson;
+    private final GithubResponseCache githubResponseCache;
+    private final MeterRegistry meterRegistry;
+    private final SingleFlight<String, List<BranchResponse>> branchesSingleFlight;
 
     @Value("${github.api.users.url}")
     private String githubUsersApiUrl;
@@ -36,8 +66,18 @@ public class GithubApiClient {
     @Value("${github.api.repos.url}")
     private String githubReposApiUrl;
 
+    @Value("${github.api.page-fetch.parallelism}")
+    private int pageFetchParallelism;
+
+    @Value("${github.cache.repositories.ttl}")
+    private Duration repositoriesTimeToLive;
+
+    @Value("${github.cache.branches.ttl}")
+    private Duration branchesTimeToLive;
+
     /**
      * Fetches all public repositories for a given GitHub username.
+     * Follows the pagination links of the GitHub API, so the result is never truncated to the first page.
      *
      * @param username the GitHub username
      * @return List of {@link RepositoryResponse}
@@ -45,17 +85,9 @@ public class GithubApiClient {
      */
     public List<RepositoryResponse> fetchUserRepositories(String username) {
         try {
-            var request = new Request.Builder()
-                    .url(githubUsersApiUrl + username + "/repos")
-                    .build();
-            var response = okHttpClient.newCall(request).execute();
-            if (!response.isSuccessful()) {
-                handleErrorResponse(response);
-            }
-            var type = new TypeToken<List<RepositoryResponse>>() {
-            }.getType();
-            return gson.fromJson(response.body().string(), type);
-        } catch (IOException e) {
+            return fetchAllPages(userRepositoriesUrl(username), GithubEndpoint.USER_REPOSITORIES,
+                    REPOSITORY_LIST_TYPE);
+        } catch (IOException | UncheckedIOException e) {
             log.error("Failed to process repositories for user {}: {}", username, e.getMessage());
             throw new ProcessingFailedException("Failed to process repositories information");
         }
@@ -63,6 +95,8 @@ public class GithubApiClient {
 
     /**
      * Fetches branches for a given repository and username.
+     * Follows the pagination links of the GitHub API, so the result is never truncated to the first page.
+     * Concurrent calls for the same repository share a single request.
      *
      * @param repositoryName the name of the repository
      * @param username       the GitHub username
@@ -70,30 +104,324 @@ public class GithubApiClient {
      * @throws ProcessingFailedException if there is an error while processing the request
      */
     public List<BranchResponse> fetchRepositoryBranches(String repositoryName, String username) {
+        return branchesSingleFlight.execute((username + "/" + repositoryName).toLowerCase(Locale.ROOT),
+                () -> fetchAllRepositoryBranches(repositoryName, username));
+    }
+
+    /**
+     * Fetches a single branch of a given repository and username with one call, without listing the other branches.
+     * Concurrent calls for the same branch share a single request.
+     *
+     * @param repositoryName the name of the repository
+     * @param branchName     the name of the branch
+     * @param username       the GitHub username
+     * @return the {@link BranchResponse}, or an empty list if the branch does not exist
+     * @throws ProcessingFailedException if there is an error while processing the request
+     */
+    public List<BranchResponse> fetchRepositoryBranch(String repositoryName, String branchName, String username) {
+        return branchesSingleFlight.execute((username + "/" + repositoryName).toLowerCase(Locale.ROOT)
+                + "#" + branchName, () -> fetchSingleRepositoryBranch(repositoryName, branchName, username));
+    }
+
+    private List<BranchResponse> fetchSingleRepositoryBranch(String repositoryName, String branchName,
+                                                             String username) {
         try {
-            var request = new Request.Builder()
-                    .url(githubReposApiUrl + username + "/" + repositoryName + "/branches")
-                    .build();
-            var response = okHttpClient.newCall(request).execute();
+            return this.<BranchResponse>fetchPage(repositoryBranchUrl(repositoryName, branchName, username),
+                    GithubEndpoint.REPOSITORY_BRANCHES, BRANCH_TYPE).items();
+        } catch (UserNotFoundException e) {
+            return List.of();
+        } catch (IOException | UncheckedIOException e) {
+            log.error("Failed to process branch {} of repository {}: {}", branchName, repositoryName, e.getMessage());
+            throw new ProcessingFailedException("Failed to process branches information");
+        }
+    }
 
-            if (!response.isSuccessful()) {
-                handleErrorResponse(response);
-            }
-            var type = new TypeToken<List<BranchResponse>>() {
-            }.getType();
-            return gson.fromJson(response.body().string(), type);
-        } catch (IOException e) {
+    private List<BranchResponse> fetchAllRepositoryBranches(String repositoryName, String username) {
+        try {
+            return fetchAllPages(repositoryBranchesUrl(repositoryName, username), GithubEndpoint.REPOSITORY_BRANCHES,
+                    BRANCH_LIST_TYPE);
+        } catch (IOException | UncheckedIOException e) {
             log.error("Failed to process branches for repository {}: {}", repositoryName, e.getMessage());
             throw new ProcessingFailedException("Failed to process branches information");
         }
     }
 
+    /**
+     * Fetches every page of a paginated GitHub listing.
+     * When the first page discloses the last page number, the remaining pages are fetched in parallel,
+     * otherwise the {@code next} links are followed one by one.
+     * Pagination links are only followed on the host of the first page and up to {@link #MAX_PAGES} pages.
+     *
+     * @param firstPageUrl the URL of the first page of the listing
+     * @param endpoint     the endpoint the listing belongs to
+     * @param type         the type of a single page of items
+     * @param <T>          the type of the listed items
+     * @return the items of all pages, in page order
+     * @throws IOException if any of the pages could not be read, or the pagination links are not trusted
+     */
+    private <T> List<T> fetchAllPages(HttpUrl firstPageUrl, GithubEndpoint endpoint, Type type) throws IOException {
+        GithubPage<T> firstPage = fetchPage(firstPageUrl, endpoint, type);
+        var lastPage = firstPage.links().lastPage();
+        if (lastPage.isPresent()) {
+            return fetchRemainingPagesInParallel(firstPageUrl, firstPage, lastPage.getAsInt(), endpoint, type);
+        }
+        return fetchRemainingPagesSequentially(firstPageUrl, firstPage, endpoint, type);
+    }
+
+    private <T> List<T> fetchRemainingPagesInParallel(HttpUrl firstPageUrl, GithubPage<T> firstPage, int lastPage,
+                                                      GithubEndpoint endpoint, Type type) throws IOException {
+        var lastPageUrl = checkPageLink(firstPageUrl, firstPage.links().last().orElseThrow(), lastPage);
+        var pageNumbers = IntStream.rangeClosed(2, lastPage).boxed().toList();
+        List<GithubPage<T>> remainingPages = FanOut.map(pageNumbers, pageFetchParallelism, page -> {
+            try {
+                return fetchPage(pageUrl(lastPageUrl, page), endpoint, type);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        var items = new ArrayList<>(firstPage.items());
+        remainingPages.forEach(page -> items.addAll(page.items()));
+        return items;
+    }
+
+    private <T> List<T> fetchRemainingPagesSequentially(HttpUrl firstPageUrl, GithubPage<T> firstPage,
+                                                        GithubEndpoint endpoint, Type type) throws IOException {
+        var items = new ArrayList<>(firstPage.items());
+        var next = firstPage.links().next();
+        for (int page = 2; next.isPresent(); page++) {
+            GithubPage<T> nextPage = fetchPage(checkPageLink(firstPageUrl, next.get(), page), endpoint, type);
+            items.addAll(nextPage.items());
+            next = nextPage.links().next();
+        }
+        return items;
+    }
+
+    /**
+     * Checks a pagination link advertised by GitHub before it is followed, so a malformed or cycling
+     * {@code Link} header can neither send the credentials to another host nor page forever.
+     *
+     * @param firstPageUrl the URL of the first page of the listing
+     * @param link         the advertised link
+     * @param page         the number of the page the link leads to, or the last page number for a {@code last} link
+     * @return the link, if it may be followed
+     * @throws IOException if the link points to another origin than the first page, or beyond {@link #MAX_PAGES}
+     */
+    static HttpUrl checkPageLink(HttpUrl firstPageUrl, HttpUrl link, int page) throws IOException {
+        if (!link.scheme().equals(firstPageUrl.scheme()) || !link.host().equals(firstPageUrl.host())
+                || link.port() != firstPageUrl.port()) {
+            throw new IOException("Pagination link points to another host: " + link.host());
+        }
+        if (page > MAX_PAGES) {
+            throw new IOException("Listing exceeds " + MAX_PAGES + " pages");
+        }
+        return link;
+    }
+
+    /**
+     * Fetches and deserializes a single page of a GitHub listing, going through the response cache.
+     *
+     * @param url      the URL of the page
+     * @param endpoint the endpoint the page belongs to
+     * @param type     the type of the page items
+     * @param <T>      the type of the listed items
+     * @return the page items together with its pagination links
+     * @throws IOException if the page could not be read
+     */
+    private <T> GithubPage<T> fetchPage(HttpUrl url, GithubEndpoint endpoint, Type type) throws IOException {
+        var cachedPage = cachedPage(url);
+        var now = Instant.now();
+        if (isFresh(cachedPage, endpoint, now)) {
+            return GithubPage.of(cachedPage.get());
+        }
+        try (var response = okHttpClient.newCall(pageRequest(url, endpoint, cachedPage)).execute()) {
+            return readPage(response, url, endpoint, type, cachedPage, now);
+        } catch (RejectedCallException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Builds the URL of the first page of a user's repository listing.
+     *
+     * @param username the GitHub username
+     * @return the URL of the first page
+     */
+    HttpUrl userRepositoriesUrl(String username) {
+        return firstPageUrl(githubUsersApiUrl + username + "/repos");
+    }
+
+    /**
+     * Builds the URL of the first page of a repository's branch listing.
+     *
+     * @param repositoryName the name of the repository
+     * @param username       the GitHub username
+     * @return the URL of the first page
+     */
+    HttpUrl repositoryBranchesUrl(String repositoryName, String username) {
+        return firstPageUrl(githubReposApiUrl + username + "/" + repositoryName + "/branches");
+    }
+
+    /**
+     * Builds the URL of a single branch of a repository.
+     *
+     * @param repositoryName the name of the repository
+     * @param branchName     the name of the branch, which may contain slashes
+     * @param username       the GitHub username
+     * @return the URL of the branch
+     */
+    HttpUrl repositoryBranchUrl(String repositoryName, String branchName, String username) {
+        return HttpUrl.get(githubReposApiUrl + username + "/" + repositoryName + "/branches").newBuilder()
+                .addPathSegments(branchName)
+                .build();
+    }
+
+    /**
+     * Builds the URL of a given page, using the {@code last} link of the listing as a template.
+     *
+     * @param lastPageUrl the URL of the last page
+     * @param page        the requested page number
+     * @return the URL of the requested page
+     */
+    static HttpUrl pageUrl(HttpUrl lastPageUrl, int page) {
+        return lastPageUrl.newBuilder()
+                .setQueryParameter("page", String.valueOf(page))
+                .build();
+    }
+
+    /**
+     * Returns the maximum number of pages of a single listing fetched concurrently.
+     *
+     * @return the page fetch parallelism
+     */
+    int pageFetchParallelism() {
+        return pageFetchParallelism;
+    }
+
+    /**
+     * Looks up the cached copy of a page.
+     *
+     * @param url the URL of the page
+     * @return the cached page, if any
+     */
+    Optional<CachedPage> cachedPage(HttpUrl url) {
+        return githubResponseCache.get(url.toString());
+    }
+
+    /**
+     * Checks whether a cached page can be served without contacting GitHub.
+     *
+     * @param cachedPage the cached page, if any
+     * @param endpoint   the endpoint the page belongs to
+     * @param now        the current moment
+     * @return {@code true} if the page is present and younger than the endpoint's time to live
+     */
+    boolean isFresh(Optional<CachedPage> cachedPage, GithubEndpoint endpoint, Instant now) {
+        return cachedPage.isPresent() && cachedPage.get().isFresh(timeToLive(endpoint), now);
+    }
+
+    /**
+     * Builds the request for a page. A stale cached copy is revalidated with {@code If-None-Match}.
+     * The request is tagged with its {@link GithubListingPage}; first page URLs carry no {@code page} parameter,
+     * while every pagination link does.
+     *
+     * @param url        the URL of the page
+     * @param endpoint   the endpoint the page belongs to
+     * @param cachedPage the cached copy of the page, if any
+     * @return the request to send
+     */
+    Request pageRequest(HttpUrl url, GithubEndpoint endpoint, Optional<CachedPage> cachedPage) {
+        var requestBuilder = new Request.Builder()
+                .url(url)
+                .tag(GithubEndpoint.class, endpoint)
+                .tag(GithubListingPage.class, url.queryParameter("page") == null
+                        ? GithubListingPage.FIRST : GithubListingPage.FOLLOWING);
+        cachedPage.map(CachedPage::etag)
+                .ifPresent(etag -> requestBuilder.header("If-None-Match", etag));
+        return requestBuilder.build();
+    }
+
+    /**
+     * Reads the response to a page request and updates the response cache.
+     * A {@code 304 Not Modified} answer, which does not count against the GitHub rate limit,
+     * renews the cached copy instead of downloading the page again.
+     *
+     * @param response   the response to read, closed by the caller
+     * @param url        the URL of the page
+     * @param endpoint   the endpoint the page belongs to
+     * @param type       the type of the page items
+     * @param cachedPage the cached copy of the page the request was built from, if any
+     * @param now        the moment the request was started
+     * @param <T>        the type of the listed items
+     * @return the page items together with its pagination links
+     * @throws IOException if the body could not be read
+     */
+    <T> GithubPage<T> readPage(Response response, HttpUrl url, GithubEndpoint endpoint, Type type,
+                               Optional<CachedPage> cachedPage, Instant now) throws IOException {
+        var cacheKey = url.toString();
+        if (response.code() == HTTP_NOT_MODIFIED && cachedPage.isPresent()) {
+            var revalidatedPage = cachedPage.get().revalidatedAt(now);
+            githubResponseCache.put(cacheKey, revalidatedPage);
+            return GithubPage.of(revalidatedPage);
+        }
+        if (!response.isSuccessful()) {
+            handleErrorResponse(response);
+        }
+        var parseSample = Timer.start(meterRegistry);
+        List<T> items = readItems(response, type);
+        parseSample.stop(Timer.builder("github.client.response.parse")
+                .description("Time spent deserializing GitHub API responses")
+                .tag("endpoint", endpoint.name())
+                .register(meterRegistry));
+        var page = new CachedPage(endpoint, items == null ? List.of() : List.copyOf(items),
+                response.header("ETag"), response.header("Link"), now);
+        githubResponseCache.put(cacheKey, page);
+        return GithubPage.of(page);
+    }
+
+    private HttpUrl firstPageUrl(String url) {
+        return HttpUrl.get(url).newBuilder()
+                .addQueryParameter("per_page", String.valueOf(PAGE_SIZE))
+                .build();
+    }
+
+    /**
+     * Deserializes the items of a page straight from the response stream.
+     * The body is never materialized as a {@link String}; Gson skips every field
+     * that is not mapped in the target type while reading.
+     * A plain class type reads a single object, such as a single branch, as a page of one item.
+     *
+     * @param response the successful HTTP response
+     * @param type     the type of the page items, or of the single item
+     * @param <T>      the type of the listed items
+     * @return the deserialized items, or {@code null} if the body is empty
+     * @throws IOException if the body could not be read or is not valid JSON
+     */
+    private <T> List<T> readItems(Response response, Type type) throws IOException {
+        try (var jsonReader = new JsonReader(response.body().charStream())) {
+            if (type instanceof Class<?>) {
+                T item = gson.fromJson(jsonReader, type);
+                return item == null ? null : List.of(item);
+            }
+            return gson.fromJson(jsonReader, type);
+        } catch (JsonParseException e) {
+            throw new IOException("Malformed response body", e);
+        }
+    }
+
+    private Duration timeToLive(GithubEndpoint endpoint) {
+        return switch (endpoint) {
+            case USER_REPOSITORIES -> repositoriesTimeToLive;
+            case REPOSITORY_BRANCHES -> branchesTimeToLive;
+            case GRAPHQL -> Duration.ZERO;
+        };
+    }
+
     /**
      * Handles error responses from the GitHub API.
      *
      * @param response the HTTP response to handle
      * @throws UserNotFoundException      if the response code is 404, indicating the user was not found
-     * @throws RateLimitExceededException if the response code is 403, indicating the rate limit has been exceeded
+     * @throws RateLimitExceededException if the response code is 403 or 429, indicating the rate limit has been exceeded
      * @throws FetchFailedException       for all other error response codes
      */
     private void handleErrorResponse(Response response) {
@@ -101,10 +429,43 @@ public class GithubApiClient {
         switch (statusCode) {
             case 404:
                 throw new UserNotFoundException();
-            case 403:
-                throw new RateLimitExceededException();
+            case 403, 429:
+                throw new RateLimitExceededException(retryAfter(response));
             default:
                 throw new FetchFailedException();
         }
     }
+
+    /**
+     * Determines when a rate limited request may be retried, from the {@code Retry-After} header
+     * or, for an exhausted primary rate limit, from the {@code X-RateLimit-Reset} header.
+     *
+     * @param response the rate limited response
+     * @return the time to wait before retrying, or {@code null} if GitHub did not disclose it
+     */
+    static Duration retryAfter(Response response) {
+        var retryAfter = response.header("Retry-After");
+        if (retryAfter != null && !retryAfter.isEmpty() && retryAfter.chars().allMatch(Character::isDigit)) {
+            return Duration.ofSeconds(Long.parseLong(retryAfter));
+        }
+        return GithubRateLimit.fromHeaders(response)
+                .filter(rateLimit -> rateLimit.remaining() == 0)
+                .map(rateLimit -> rateLimit.untilReset(Instant.now()))
+                .orElse(null);
+    }
+
+    /**
+     * A single page of a GitHub listing.
+     *
+     * @param items the items of the page
+     * @param links the pagination links of the page
+     * @param <T>   the type of the listed items
+     */
+    record GithubPage<T>(List<T> items, GithubLinkHeader links) {
+
+        @SuppressWarnings("unchecked")
+        static <T> GithubPage<T> of(CachedPage cachedPage) {
+            return new GithubPage<>((List<T>) cachedPage.items(), GithubLinkHeader.parse(cachedPage.linkHeader()));
+        }
+    }
 }
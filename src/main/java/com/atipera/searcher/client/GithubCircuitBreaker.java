@@ -0,0 +1,246 @@
+package com.atipera.searcher.client;
+
+import com.atipera.searcher.exception.GithubUnavailableException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Interceptor;
+import okhttp3.Response;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * OkHttp interceptor shedding calls to the GitHub API while it keeps failing.
+ * A call fails if it ends with an I/O error or a 5xx response; rate limited and other client error
+ * responses are not failures, and neither are cancelled calls or calls refused by other interceptors.
+ * <ul>
+ *     <li>{@code CLOSED}: calls pass, and the outcomes of the last {@code github.api.circuit-breaker.window-size}
+ *     calls are tracked. Once at least {@code minimum-calls} are tracked and the share of failures reaches
+ *     {@code failure-rate-threshold}, the circuit opens.</li>
+ *     <li>{@code OPEN}: calls fail fast with a {@link GithubUnavailableException} wrapped in a
+ *     {@link RejectedCallException}, until {@code open-duration} has passed.</li>
+ *     <li>{@code HALF_OPEN}: up to {@code half-open-calls} probe calls pass. If all of them succeed the circuit
+ *     closes, the first failure opens it again.</li>
+ * </ul>
+ * The current state is published as the {@code github.client.circuit.state} gauge, and every transition is counted
+ * by {@code github.client.circuit.transitions}, tagged by the states it went {@code from} and {@code to}.
+ */
+@Component
+@Slf4j
+public class GithubCircuitBreaker implements Interceptor {
+
+    /**
+     * The states of the circuit.
+     */
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /**
+     * The permission of a call admitted as a regular call rather than as a probe.
+     */
+    static final int NOT_A_PROBE = -1;
+
+    private final double failureRateThreshold;
+    private final int minimumCalls;
+    private final Duration openDuration;
+    private final int halfOpenCalls;
+    private final Clock clock;
+    private final MeterRegistry meterRegistry;
+    private final boolean[] outcomes;
+
+    private State state = State.CLOSED;
+    private int trackedCalls;
+    private int failedCalls;
+    private int nextOutcome;
+    private Instant openedAt = Instant.EPOCH;
+    private int halfOpenPeriod;
+    private int probesStarted;
+    private int probesSucceeded;
+
+    /**
+     * Constructs a new GithubCircuitBreaker.
+     *
+     * @param failureRateThreshold the share of failed calls at which the circuit opens
+     * @param minimumCalls         the number of tracked calls required before the failure rate is evaluated
+     * @param windowSize           the number of most recent calls whose outcomes are tracked
+     * @param openDuration         how long the circuit stays open before probe calls are let through
+     * @param halfOpenCalls        the number of probe calls that have to succeed to close the circuit
+     * @param meterRegistry        the registry the state and its transitions are published to
+     */
+    @Autowired
+    public GithubCircuitBreaker(@Value("${github.api.circuit-breaker.failure-rate-threshold}") double failureRateThreshold,
+                                @Value("${github.api.circuit-breaker.minimum-calls}") int minimumCalls,
+                                @Value("${github.api.circuit-breaker.window-size}") int windowSize,
+                                @Value("${github.api.circuit-breaker.open-duration}") Duration openDuration,
+                                @Value("${github.api.circuit-breaker.half-open-calls}") int halfOpenCalls,
+                                MeterRegistry meterRegistry) {
+        this(failureRateThreshold, minimumCalls, windowSize, openDuration, halfOpenCalls, Clock.systemUTC(),
+                meterRegistry);
+        for (var gaugeState : State.values()) {
+            Gauge.builder("github.client.circuit.state", this, breaker -> breaker.currentState() == gaugeState ? 1 : 0)
+                    .description("Whether the circuit around GitHub API calls is in the given state")
+                    .tag("state", gaugeState.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    GithubCircuitBreaker(double failureRateThreshold, int minimumCalls, int windowSize, Duration openDuration,
+                         int halfOpenCalls, Clock clock, MeterRegistry meterRegistry) {
+        this.failureRateThreshold = failureRateThreshold;
+        this.minimumCalls = minimumCalls;
+        this.openDuration = openDuration;
+        this.halfOpenCalls = halfOpenCalls;
+        this.clock = clock;
+        this.meterRegistry = meterRegistry;
+        this.outcomes = new boolean[Math.max(1, windowSize)];
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        int permission;
+        try {
+            permission = acquirePermission();
+        } catch (GithubUnavailableException e) {
+            throw new RejectedCallException(e);
+        }
+        Response response;
+        try {
+            response = chain.proceed(chain.request());
+        } catch (RejectedCallException e) {
+            onIgnored(permission);
+            throw e;
+        } catch (IOException e) {
+            if (chain.call().isCanceled()) {
+                onIgnored(permission);
+            } else {
+                onResult(permission, true);
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            onResult(permission, true);
+            throw e;
+        }
+        onResult(permission, response.code() >= 500);
+        return response;
+    }
+
+    /**
+     * Returns the current state of the circuit.
+     *
+     * @return the state
+     */
+    public synchronized State currentState() {
+        return state;
+    }
+
+    /**
+     * Admits a call, moving an open circuit to half-open once the open duration has passed.
+     *
+     * @return the permission of the call, identifying the half-open period it probes
+     * or {@link #NOT_A_PROBE}, to be handed back with its outcome
+     * @throws GithubUnavailableException if the circuit is open, or half-open with all probe calls started
+     */
+    synchronized int acquirePermission() {
+        var now = clock.instant();
+        if (state == State.OPEN) {
+            var closedAt = openedAt.plus(openDuration);
+            if (now.isBefore(closedAt)) {
+                throw new GithubUnavailableException(Duration.between(now, closedAt));
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesStarted >= halfOpenCalls) {
+                throw new GithubUnavailableException(null);
+            }
+            probesStarted++;
+            return halfOpenPeriod;
+        }
+        return NOT_A_PROBE;
+    }
+
+    /**
+     * Records the outcome of an admitted call.
+     *
+     * @param permission the permission the call was admitted with
+     * @param failed     whether the call failed
+     */
+    synchronized void onResult(int permission, boolean failed) {
+        switch (state) {
+            case CLOSED -> {
+                track(failed);
+                if (trackedCalls >= minimumCalls && failedCalls >= trackedCalls * failureRateThreshold) {
+                    transitionTo(State.OPEN);
+                }
+            }
+            case HALF_OPEN -> {
+                if (permission != halfOpenPeriod) {
+                    // a call admitted before this half-open period, it does not probe GitHub's recovery
+                    return;
+                }
+                if (failed) {
+                    transitionTo(State.OPEN);
+                } else if (++probesSucceeded >= halfOpenCalls) {
+                    transitionTo(State.CLOSED);
+                }
+            }
+            case OPEN -> {
+                // a call admitted before the circuit opened, its outcome no longer matters
+            }
+        }
+    }
+
+    /**
+     * Releases an admitted call that was refused further down the chain and therefore says nothing about GitHub.
+     * Only a probe of the current half-open period gives its slot back.
+     *
+     * @param permission the permission the call was admitted with
+     */
+    synchronized void onIgnored(int permission) {
+        if (state == State.HALF_OPEN && permission == halfOpenPeriod) {
+            probesStarted--;
+        }
+    }
+
+    private void track(boolean failed) {
+        if (trackedCalls == outcomes.length) {
+            if (outcomes[nextOutcome]) {
+                failedCalls--;
+            }
+        } else {
+            trackedCalls++;
+        }
+        outcomes[nextOutcome] = failed;
+        if (failed) {
+            failedCalls++;
+        }
+        nextOutcome = (nextOutcome + 1) % outcomes.length;
+    }
+
+    private void transitionTo(State target) {
+        log.warn("Circuit around GitHub API calls changed from {} to {}", state, target);
+        meterRegistry.counter("github.client.circuit.transitions", "from", state.name(), "to", target.name())
+                .increment();
+        state = target;
+        switch (target) {
+            case OPEN -> openedAt = clock.instant();
+            case HALF_OPEN -> {
+                halfOpenPeriod++;
+                probesStarted = 0;
+                probesSucceeded = 0;
+            }
+            case CLOSED -> {
+                trackedCalls = 0;
+                failedCalls = 0;
+                nextOutcome = 0;
+            }
+        }
+    }
+}
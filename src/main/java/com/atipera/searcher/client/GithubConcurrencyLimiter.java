@@ -0,0 +1,164 @@
+package com.atipera.searcher.client;
+
+import com.atipera.searcher.exception.GithubUnavailableException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import okhttp3.Interceptor;
+import okhttp3.Response;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * OkHttp interceptor adapting the number of concurrent GitHub API calls to how GitHub copes with them,
+ * using additive increase and multiplicative decrease (AIMD).
+ * <ul>
+ *     <li>Every call that completes within {@code github.api.concurrency.latency-threshold} with a non-5xx,
+ *     non-429 response raises the limit by one over the course of a full limit of calls.</li>
+ *     <li>Every slower call, I/O error, 5xx or 429 response multiplies the limit by
+ *     {@code github.api.concurrency.backoff-ratio}. Cancelled calls leave the limit unchanged.</li>
+ *     <li>The limit stays between {@code min-limit} and {@code max-limit}. A call beyond the limit waits up to
+ *     {@code max-wait} for a slot and then fails fast with a {@link GithubUnavailableException} wrapped in a
+ *     {@link RejectedCallException}.</li>
+ * </ul>
+ * The current limit is published as the {@code github.client.concurrency.limit} gauge, and refused calls are counted
+ * by {@code github.client.concurrency.rejections}.
+ */
+@Component
+public class GithubConcurrencyLimiter implements Interceptor {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final Duration latencyThreshold;
+    private final Duration maxWait;
+    private final MeterRegistry meterRegistry;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition slotReleased = lock.newCondition();
+
+    private double limit;
+    private int inFlight;
+
+    /**
+     * Constructs a new GithubConcurrencyLimiter.
+     *
+     * @param initialLimit     the limit before any call completed
+     * @param minLimit         the lowest limit
+     * @param maxLimit         the highest limit
+     * @param backoffRatio     the factor the limit is multiplied by when a call signals overload
+     * @param latencyThreshold the latency above which a call signals overload
+     * @param maxWait          the longest time a call waits for a slot before it fails fast
+     * @param meterRegistry    the registry the limit is published to
+     */
+    @Autowired
+    public GithubConcurrencyLimiter(@Value("${github.api.concurrency.initial-limit}") int initialLimit,
+                                    @Value("${github.api.concurrency.min-limit}") int minLimit,
+                                    @Value("${github.api.concurrency.max-limit}") int maxLimit,
+                                    @Value("${github.api.concurrency.backoff-ratio}") double backoffRatio,
+                                    @Value("${github.api.concurrency.latency-threshold}") Duration latencyThreshold,
+                                    @Value("${github.api.concurrency.max-wait}") Duration maxWait,
+                                    MeterRegistry meterRegistry) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.backoffRatio = backoffRatio;
+        this.latencyThreshold = latencyThreshold;
+        this.maxWait = maxWait;
+        this.meterRegistry = meterRegistry;
+        this.limit = Math.clamp(initialLimit, this.minLimit, this.maxLimit);
+        Gauge.builder("github.client.concurrency.limit", this, GithubConcurrencyLimiter::currentLimit)
+                .description("Adaptive limit of concurrent GitHub API calls")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        try {
+            acquire();
+        } catch (GithubUnavailableException e) {
+            meterRegistry.counter("github.client.concurrency.rejections").increment();
+            throw new RejectedCallException(e);
+        }
+        var startedAt = System.nanoTime();
+        var overloaded = true;
+        try {
+            var response = chain.proceed(chain.request());
+            overloaded = response.code() >= 500 || response.code() == 429
+                    || System.nanoTime() - startedAt > latencyThreshold.toNanos();
+            return response;
+        } catch (RejectedCallException e) {
+            overloaded = false;
+            throw e;
+        } catch (IOException e) {
+            overloaded = !chain.call().isCanceled();
+            throw e;
+        } finally {
+            release(overloaded);
+        }
+    }
+
+    /**
+     * Returns the current limit of concurrent calls.
+     *
+     * @return the limit, rounded down
+     */
+    public int currentLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes a slot for a call, waiting up to the maximum wait for one to be released.
+     *
+     * @throws GithubUnavailableException if no slot was released in time
+     * @throws InterruptedIOException     if the calling thread is interrupted while waiting
+     */
+    void acquire() throws InterruptedIOException {
+        lock.lock();
+        try {
+            var remainingNanos = maxWait.toNanos();
+            while (inFlight >= (int) limit) {
+                if (remainingNanos <= 0) {
+                    throw new GithubUnavailableException(null);
+                }
+                remainingNanos = slotReleased.awaitNanos(remainingNanos);
+            }
+            inFlight++;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a concurrency slot");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Releases the slot of a completed call and adapts the limit to its outcome.
+     *
+     * @param overloaded whether the call signalled that GitHub is overloaded
+     */
+    void release(boolean overloaded) {
+        lock.lock();
+        try {
+            inFlight--;
+            if (overloaded) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+            } else {
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+            slotReleased.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.atipera.searcher.client;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Address;
+import okhttp3.ConnectionPool;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Opens connections to the GitHub API once the application is ready, so the first searches do not
+ * pay for TCP and TLS handshakes. From then on the connection pool keeps enough connections per GitHub host
+ * open to carry {@code github.api.http.warm-concurrent-calls} concurrent calls, reopening them when they are
+ * evicted. Over HTTP/2 a single multiplexed connection usually carries them all; over HTTP/1.1 every call
+ * needs a connection of its own.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GithubConnectionPrewarmer {
+
+    private final OkHttpClient okHttpClient;
+
+    @Value("${github.api.users.url}")
+    private String githubUsersApiUrl;
+
+    @Value("${github.api.repos.url}")
+    private String githubReposApiUrl;
+
+    @Value("${github.api.http.warm-concurrent-calls}")
+    private int warmConcurrentCalls;
+
+    /**
+     * Sets the connection pool policy of every GitHub host the client talks to.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void prewarmConnections() {
+        if (warmConcurrentCalls <= 0) {
+            return;
+        }
+        var policy = new ConnectionPool.AddressPolicy(warmConcurrentCalls, 60_000, 100);
+        addresses().forEach(address -> {
+            okHttpClient.connectionPool().setPolicy(address, policy);
+            log.info("Keeping connections for {} concurrent calls to {} warm", warmConcurrentCalls, address.url());
+        });
+    }
+
+    private Set<Address> addresses() {
+        return Set.of(githubUsersApiUrl, githubReposApiUrl).stream()
+                .map(HttpUrl::get)
+                .map(this::address)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Builds the address OkHttp uses to pool connections for a URL, mirroring the one derived for calls.
+     *
+     * @param url the URL of a GitHub API endpoint
+     * @return the address of the URL's host
+     */
+    private Address address(HttpUrl url) {
+        var https = url.isHttps();
+        return new Address(url.host(), url.port(), okHttpClient.dns(), okHttpClient.socketFactory(),
+                https ? okHttpClient.sslSocketFactory() : null,
+                https ? okHttpClient.hostnameVerifier() : null,
+                https ? okHttpClient.certificatePinner() : null,
+                okHttpClient.proxyAuthenticator(), okHttpClient.proxy(), okHttpClient.protocols(),
+                okHttpClient.connectionSpecs(), okHttpClient.proxySelector());
+    }
+}
@@ -0,0 +1,22 @@
+package com.atipera.searcher.client;
+
+/**
+ * Enumerates the GitHub API endpoints called by the application.
+ * Used to apply endpoint specific policies, such as cache expiration.
+ */
+public enum GithubEndpoint {
+    /**
+     * The {@code /users/{username}/repos} listing.
+     */
+    USER_REPOSITORIES,
+
+    /**
+     * The {@code /repos/{owner}/{repository}/branches} listing.
+     */
+    REPOSITORY_BRANCHES,
+
+    /**
+     * The {@code /graphql} endpoint, which has a rate limit budget of its own.
+     */
+    GRAPHQL
+}
@@ -0,0 +1,259 @@
+package com.atipera.searcher.client;
+
+import com.atipera.searcher.concurrent.FanOut;
+import com.atipera.searcher.dto.github.BranchResponse;
+import com.atipera.searcher.dto.github.CommitResponse;
+import com.atipera.searcher.dto.github.OwnerResponse;
+import com.atipera.searcher.dto.github.RepositoryResponse;
+import com.atipera.searcher.exception.FetchFailedException;
+import com.atipera.searcher.exception.ProcessingFailedException;
+import com.atipera.searcher.exception.RateLimitExceededException;
+import com.atipera.searcher.exception.UserNotFoundException;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Service class for fetching repositories together with their branches from the GitHub GraphQL API.
+ * A single query returns up to 100 non-forked repositories with the head commit of up to 100 branches each,
+ * so a search takes one call per 100 repositories instead of one call per repository.
+ * Repositories with more branches are completed with follow-up queries, run concurrently.
+ * The GraphQL API requires authentication; calls are authenticated by the {@link GithubTokenPool}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GithubGraphqlClient {
+    private static final MediaType JSON = MediaType.get("application/json");
+    private static final String REPOSITORIES_QUERY = """
+            query($login: String!, $cursor: String) {
+              repositoryOwner(login: $login) {
+                repositories(first: 100, after: $cursor, isFork: false, ownerAffiliations: OWNER, privacy: PUBLIC) {
+                  pageInfo { hasNextPage endCursor }
+                  nodes {
+                    name
+                    owner { login }
+                    defaultBranchRef { name }
+                    pushedAt
+                    updatedAt
+                    refs(refPrefix: "refs/heads/", first: 100) {
+                      pageInfo { hasNextPage endCursor }
+                      nodes { name target { oid } }
+                    }
+                  }
+                }
+              }
+            }
+            """;
+    private static final String BRANCHES_QUERY = """
+            query($owner: String!, $name: String!, $cursor: String) {
+              repository(owner: $owner, name: $name) {
+                refs(refPrefix: "refs/heads/", first: 100, after: $cursor) {
+                  pageInfo { hasNextPage endCursor }
+                  nodes { name target { oid } }
+                }
+              }
+            }
+            """;
+
+    private final OkHttpClient okHttpClient;
+    private final Gson gson;
+
+    @Value("${github.api.graphql.url}")
+    private String githubGraphqlApiUrl;
+
+    @Value("${github.api.page-fetch.parallelism}")
+    private int pageFetchParallelism;
+
+    /**
+     * Fetches all public, non-forked repositories of a given GitHub username together with their branches.
+     *
+     * @param username the GitHub username
+     * @return List of {@link GithubRepositoryBranches}, in the order returned by GitHub
+     * @throws UserNotFoundException      if there is no user or organization with the given name
+     * @throws RateLimitExceededException if the GraphQL rate limit has been exceeded
+     * @throws ProcessingFailedException  if there is an error while processing the request
+     */
+    public List<GithubRepositoryBranches> fetchNonForkedRepositoriesWithBranches(String username) {
+        try {
+            var repositories = new ArrayList<RepositoryNode>();
+            String cursor = null;
+            do {
+                var variables = new HashMap<String, Object>();
+                variables.put("login", username);
+                variables.put("cursor", cursor);
+                var owner = execute(REPOSITORIES_QUERY, variables, OwnerData.class).repositoryOwner();
+                if (owner == null) {
+                    throw new UserNotFoundException();
+                }
+                repositories.addAll(owner.repositories().nodes());
+                cursor = owner.repositories().pageInfo().nextCursor();
+            } while (cursor != null);
+            return FanOut.map(repositories, pageFetchParallelism, this::toRepositoryBranches);
+        } catch (IOException | UncheckedIOException e) {
+            log.error("Failed to process GraphQL repositories for user {}: {}", username, e.getMessage());
+            throw new ProcessingFailedException("Failed to process repositories information");
+        }
+    }
+
+    private GithubRepositoryBranches toRepositoryBranches(RepositoryNode repository) {
+        var refs = new ArrayList<>(repository.refs().nodes());
+        var cursor = repository.refs().pageInfo().nextCursor();
+        while (cursor != null) {
+            var variables = new HashMap<String, Object>();
+            variables.put("owner", repository.owner().login());
+            variables.put("name", repository.name());
+            variables.put("cursor", cursor);
+            try {
+                var repositoryData = execute(BRANCHES_QUERY, variables, RepositoryData.class).repository();
+                if (repositoryData == null) {
+                    throw new FetchFailedException();
+                }
+                refs.addAll(repositoryData.refs().nodes());
+                cursor = repositoryData.refs().pageInfo().nextCursor();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        var repositoryResponse = RepositoryResponse.builder()
+                .name(repository.name())
+                .owner(OwnerResponse.builder().login(repository.owner().login()).build())
+                .isForked(false)
+                .defaultBranch(repository.defaultBranchRef() == null ? null : repository.defaultBranchRef().name())
+                .pushedAt(repository.pushedAt())
+                .updatedAt(repository.updatedAt())
+                .build();
+        var branches = refs.stream()
+                .map(ref -> BranchResponse.builder()
+                        .name(ref.name())
+                        .commit(CommitResponse.builder().sha(ref.target() == null ? null : ref.target().oid()).build())
+                        .build())
+                .toList();
+        return new GithubRepositoryBranches(repositoryResponse, branches);
+    }
+
+    /**
+     * Sends a GraphQL query and returns its data.
+     *
+     * @param query     the GraphQL query
+     * @param variables the query variables
+     * @param dataType  the type of the {@code data} field of the response
+     * @param <T>       the type of the data
+     * @return the data of the response
+     * @throws IOException                if the response could not be read
+     * @throws RateLimitExceededException if GitHub rejected the query because of its rate limit
+     * @throws FetchFailedException       if GitHub answered with an error status or without data
+     */
+    private <T> T execute(String query, Map<String, Object> variables, Class<T> dataType) throws IOException {
+        var request = new Request.Builder()
+                .url(githubGraphqlApiUrl)
+                .tag(GithubEndpoint.class, GithubEndpoint.GRAPHQL)
+                .post(RequestBody.create(gson.toJson(Map.of("query", query, "variables", variables)), JSON))
+                .build();
+        try (var response = okHttpClient.newCall(request).execute()) {
+            if (response.code() == 403 || response.code() == 429) {
+                throw new RateLimitExceededException(GithubApiClient.retryAfter(response));
+            }
+            if (!response.isSuccessful()) {
+                throw new FetchFailedException();
+            }
+            GraphqlResponse<T> graphqlResponse;
+            try (var jsonReader = new JsonReader(response.body().charStream())) {
+                graphqlResponse = gson.fromJson(jsonReader,
+                        TypeToken.getParameterized(GraphqlResponse.class, dataType).getType());
+            } catch (JsonParseException e) {
+                throw new IOException("Malformed response body", e);
+            }
+            if (graphqlResponse == null) {
+                throw new IOException("Empty response body");
+            }
+            if (graphqlResponse.hasError("RATE_LIMITED")) {
+                throw new RateLimitExceededException(GithubApiClient.retryAfter(response));
+            }
+            if (graphqlResponse.data() == null) {
+                log.error("GraphQL query failed: {}", graphqlResponse.errors());
+                throw new FetchFailedException();
+            }
+            return graphqlResponse.data();
+        } catch (RejectedCallException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * A GraphQL response. The nested records below model only the fields selected by the queries.
+     *
+     * @param data   the query result, {@code null} if the query failed as a whole
+     * @param errors the errors reported for the query, if any
+     * @param <T>    the type of the query result
+     */
+    record GraphqlResponse<T>(T data, List<GraphqlError> errors) {
+
+        boolean hasError(String type) {
+            return errors != null && errors.stream().anyMatch(error -> type.equals(error.type()));
+        }
+    }
+
+    record GraphqlError(String type, String message) {
+    }
+
+    record OwnerData(OwnerNode repositoryOwner) {
+    }
+
+    record RepositoryData(RepositoryNode repository) {
+    }
+
+    record OwnerNode(RepositoryConnection repositories) {
+    }
+
+    record RepositoryConnection(PageInfo pageInfo, List<RepositoryNode> nodes) {
+    }
+
+    record RepositoryNode(String name, LoginNode owner, NameNode defaultBranchRef, String pushedAt, String updatedAt,
+                          RefConnection refs) {
+    }
+
+    record LoginNode(String login) {
+    }
+
+    record NameNode(String name) {
+    }
+
+    record RefConnection(PageInfo pageInfo, List<RefNode> nodes) {
+    }
+
+    record RefNode(String name, TargetNode target) {
+    }
+
+    record TargetNode(String oid) {
+    }
+
+    /**
+     * Pagination state of a GraphQL connection.
+     *
+     * @param hasNextPage whether there are further items
+     * @param endCursor   the cursor of the last returned item
+     */
+    record PageInfo(boolean hasNextPage, String endCursor) {
+
+        String nextCursor() {
+            return hasNextPage ? endCursor : null;
+        }
+    }
+}
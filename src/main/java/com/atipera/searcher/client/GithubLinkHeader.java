@@ -0,0 +1,80 @@
+package com.atipera.searcher.client;
+
+import okhttp3.HttpUrl;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.regex.Pattern;
+
+/**
+ * Represents the pagination links of a GitHub API response.
+ * GitHub advertises further pages in the {@code Link} header, e.g.
+ * {@code <https://api.github.com/user/repos?page=2>; rel="next", <https://api.github.com/user/repos?page=5>; rel="last"}.
+ */
+public final class GithubLinkHeader {
+
+    private static final Pattern LINK_PATTERN = Pattern.compile("<([^>]+)>\\s*;\\s*rel=\"([^\"]+)\"");
+    private static final GithubLinkHeader EMPTY = new GithubLinkHeader(Map.of());
+
+    private final Map<String, String> linksByRelation;
+
+    private GithubLinkHeader(Map<String, String> linksByRelation) {
+        this.linksByRelation = linksByRelation;
+    }
+
+    /**
+     * Parses the value of a {@code Link} header.
+     *
+     * @param header the header value, may be {@code null} when the response has a single page
+     * @return the parsed links, empty if the header is absent or malformed
+     */
+    public static GithubLinkHeader parse(String header) {
+        if (header == null || header.isBlank()) {
+            return EMPTY;
+        }
+        var linksByRelation = new HashMap<String, String>();
+        var matcher = LINK_PATTERN.matcher(header);
+        while (matcher.find()) {
+            linksByRelation.put(matcher.group(2), matcher.group(1));
+        }
+        return new GithubLinkHeader(Map.copyOf(linksByRelation));
+    }
+
+    /**
+     * Returns the URL of the next page, if there is one.
+     *
+     * @return the next page URL
+     */
+    public Optional<HttpUrl> next() {
+        return link("next");
+    }
+
+    /**
+     * Returns the URL of the last page, if GitHub disclosed it.
+     *
+     * @return the last page URL
+     */
+    public Optional<HttpUrl> last() {
+        return link("last");
+    }
+
+    /**
+     * Returns the number of the last page, read from the {@code page} query parameter of the last page URL.
+     *
+     * @return the last page number, empty if it is not known
+     */
+    public OptionalInt lastPage() {
+        return last()
+                .map(url -> url.queryParameter("page"))
+                .filter(page -> !page.isEmpty() && page.chars().allMatch(Character::isDigit))
+                .map(page -> OptionalInt.of(Integer.parseInt(page)))
+                .orElse(OptionalInt.empty());
+    }
+
+    private Optional<HttpUrl> link(String relation) {
+        return Optional.ofNullable(linksByRelation.get(relation))
+                .map(HttpUrl::parse);
+    }
+}
@@ -0,0 +1,18 @@
+package com.atipera.searcher.client;
+
+/**
+ * Tells the first page of a paginated GitHub listing apart from the pages following it.
+ * Requests for listing pages are tagged with it, so policies can treat a listing that is already
+ * under way differently from one that is about to start.
+ */
+public enum GithubListingPage {
+    /**
+     * The first page, requested without a {@code page} parameter.
+     */
+    FIRST,
+
+    /**
+     * A page reached through the pagination links of an earlier page.
+     */
+    FOLLOWING
+}
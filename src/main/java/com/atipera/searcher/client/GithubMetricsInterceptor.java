@@ -0,0 +1,135 @@
+package com.atipera.searcher.client;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+import org.springframework.boot.actuate.metrics.http.Outcome;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * OkHttp interceptor recording metrics of every outbound call to the GitHub API.
+ * Calls are tagged by the {@link GithubEndpoint} attached to the request, the response status and its outcome.
+ * Records:
+ * <ul>
+ *     <li>{@code github.client.requests} - the time until the response headers are received</li>
+ *     <li>{@code github.client.response.size} - the number of body bytes read from the response</li>
+ *     <li>{@code github.client.requests.in.flight} - the number of calls currently awaiting a response</li>
+ * </ul>
+ */
+@Component
+public class GithubMetricsInterceptor implements Interceptor {
+
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger inFlightRequests;
+
+    /**
+     * Constructs a new GithubMetricsInterceptor.
+     *
+     * @param meterRegistry the registry the metrics are published to
+     */
+    public GithubMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.inFlightRequests = meterRegistry.gauge("github.client.requests.in.flight", new AtomicInteger());
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        var endpoint = endpointTag(chain);
+        var sample = Timer.start(meterRegistry);
+        inFlightRequests.incrementAndGet();
+        try {
+            var response = chain.proceed(chain.request());
+            sample.stop(requestTimer(endpoint, String.valueOf(response.code()),
+                    Outcome.forStatus(response.code()).name()));
+            return response.newBuilder()
+                    .body(new CountingResponseBody(response.body(), responseSizeSummary(endpoint)))
+                    .build();
+        } catch (IOException | RuntimeException e) {
+            sample.stop(requestTimer(endpoint, "IO_ERROR", Outcome.UNKNOWN.name()));
+            throw e;
+        } finally {
+            inFlightRequests.decrementAndGet();
+        }
+    }
+
+    private String endpointTag(Chain chain) {
+        var endpoint = chain.request().tag(GithubEndpoint.class);
+        return endpoint == null ? "UNKNOWN" : endpoint.name();
+    }
+
+    private Timer requestTimer(String endpoint, String status, String outcome) {
+        return Timer.builder("github.client.requests")
+                .description("Outbound calls to the GitHub API")
+                .tags(Tags.of("endpoint", endpoint, "status", status, "outcome", outcome))
+                .register(meterRegistry);
+    }
+
+    private DistributionSummary responseSizeSummary(String endpoint) {
+        return DistributionSummary.builder("github.client.response.size")
+                .description("Body size of GitHub API responses")
+                .baseUnit("bytes")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Response body counting the bytes read from it and recording the total once it is closed.
+     */
+    private static final class CountingResponseBody extends ResponseBody {
+        private final ResponseBody delegate;
+        private final BufferedSource source;
+
+        CountingResponseBody(ResponseBody delegate, DistributionSummary responseSize) {
+            this.delegate = delegate;
+            this.source = Okio.buffer(new ForwardingSource(delegate.source()) {
+                private long bytesRead;
+                private boolean recorded;
+
+                @Override
+                public long read(Buffer sink, long byteCount) throws IOException {
+                    var read = super.read(sink, byteCount);
+                    if (read > 0) {
+                        bytesRead += read;
+                    }
+                    return read;
+                }
+
+                @Override
+                public void close() throws IOException {
+                    if (!recorded) {
+                        recorded = true;
+                        responseSize.record(bytesRead);
+                    }
+                    super.close();
+                }
+            });
+        }
+
+        @Override
+        public MediaType contentType() {
+            return delegate.contentType();
+        }
+
+        @Override
+        public long contentLength() {
+            return delegate.contentLength();
+        }
+
+        @Override
+        public BufferedSource source() {
+            return source;
+        }
+    }
+}
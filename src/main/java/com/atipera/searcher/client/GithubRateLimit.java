@@ -0,0 +1,87 @@
+package com.atipera.searcher.client;
+
+import okhttp3.Response;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Represents the rate limit budget reported by GitHub in the {@code X-RateLimit-*} response headers.
+ *
+ * @param limit     the number of requests allowed in the current window
+ * @param remaining the number of requests left in the current window
+ * @param resetAt   the moment the current window ends and the budget is restored
+ */
+public record GithubRateLimit(int limit, int remaining, Instant resetAt) {
+
+    /**
+     * A budget that has not been observed yet.
+     */
+    public static final GithubRateLimit UNKNOWN = new GithubRateLimit(0, 0, Instant.EPOCH);
+
+    /**
+     * Reads the rate limit budget from the headers of a GitHub API response.
+     *
+     * @param response the response to read
+     * @return the reported budget, empty if the headers are missing or malformed
+     */
+    public static Optional<GithubRateLimit> fromHeaders(Response response) {
+        try {
+            var limit = response.header("X-RateLimit-Limit");
+            var remaining = response.header("X-RateLimit-Remaining");
+            var reset = response.header("X-RateLimit-Reset");
+            if (limit == null || remaining == null || reset == null) {
+                return Optional.empty();
+            }
+            return Optional.of(new GithubRateLimit(Integer.parseInt(limit), Integer.parseInt(remaining),
+                    Instant.ofEpochSecond(Long.parseLong(reset))));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Checks whether the budget applies at the given moment.
+     *
+     * @param now the current moment
+     * @return {@code true} if the budget has been observed and its window has not ended yet
+     */
+    public boolean isActive(Instant now) {
+        return limit > 0 && resetAt.isAfter(now);
+    }
+
+    /**
+     * Returns the time left until the budget is restored.
+     *
+     * @param now the current moment
+     * @return the time until the reset, never negative
+     */
+    public Duration untilReset(Instant now) {
+        return resetAt.isAfter(now) ? Duration.between(now, resetAt) : Duration.ZERO;
+    }
+
+    /**
+     * Returns the budget left after one more request has been sent.
+     *
+     * @return the consumed budget
+     */
+    public GithubRateLimit consume() {
+        return new GithubRateLimit(limit, Math.max(0, remaining - 1), resetAt);
+    }
+
+    /**
+     * Merges a freshly reported budget into this one.
+     * Reports of the same window can arrive out of order, so the lower remaining count wins;
+     * a report of a later window replaces this budget, and a report of an earlier one is ignored.
+     *
+     * @param reported the budget reported by a response
+     * @return the merged budget
+     */
+    public GithubRateLimit merge(GithubRateLimit reported) {
+        if (reported.resetAt.equals(resetAt)) {
+            return new GithubRateLimit(reported.limit, Math.min(remaining, reported.remaining), resetAt);
+        }
+        return reported.resetAt.isAfter(resetAt) ? reported : this;
+    }
+}
@@ -0,0 +1,32 @@
+package com.atipera.searcher.client;
+
+/**
+ * Keeps track of the GitHub rate limit budget the {@link GithubRateLimitScheduler} spends.
+ * Implementations decide whether the budget is accounted for by this node only or shared with other nodes
+ * calling GitHub with the same credentials.
+ */
+public interface GithubRateLimitBudget {
+
+    /**
+     * Returns the currently tracked budget.
+     *
+     * @return the budget, {@link GithubRateLimit#UNKNOWN} before the first report
+     */
+    GithubRateLimit current();
+
+    /**
+     * Spends one request of the current window, unless no more than {@code required} requests are left.
+     * Checking and spending is one atomic step, so concurrent calls cannot spend below the requirement together.
+     *
+     * @param required the number of requests that have to be left for the request to be spent
+     * @return {@code true} if the request was spent, {@code false} if too few requests are left
+     */
+    boolean tryConsume(double required);
+
+    /**
+     * Merges a budget reported by a GitHub response into the tracked one, see {@link GithubRateLimit#merge}.
+     *
+     * @param reported the reported budget
+     */
+    void merge(GithubRateLimit reported);
+}
@@ -0,0 +1,221 @@
+package com.atipera.searcher.client;
+
+import com.atipera.searcher.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Interceptor;
+import okhttp3.Response;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * OkHttp interceptor scheduling outbound GitHub calls against the shared rate limit budget.
+ * The budget is tracked from the {@code X-RateLimit-*} headers of every response and spent locally
+ * as calls are sent, so concurrent calls do not all rely on the same stale count.
+ * <ul>
+ *     <li>The last {@code github.rate-limit.search-reserve} share of the limit is kept for
+ *     branch listings and the following pages of repository listings, so searches already in flight
+ *     can finish before new ones start.</li>
+ *     <li>Once the budget drops below {@code github.rate-limit.throttle-threshold} of the limit,
+ *     calls are spaced evenly over the time left until the reset.</li>
+ *     <li>A call that would have to wait longer than {@code github.rate-limit.max-wait}, or for
+ *     which no budget is left, fails fast with a {@link RateLimitExceededException} carrying the
+ *     time until the reset, wrapped in a {@link RejectedCallException}.</li>
+ * </ul>
+ * GraphQL calls are passed through untouched, because GitHub accounts for them in a separate budget.
+ * The budget is kept by a {@link GithubRateLimitBudget}, which may share it with other nodes.
+ */
+@Component
+@Slf4j
+public class GithubRateLimitScheduler implements Interceptor {
+
+    private static final InheritableThreadLocal<AtomicLong> SPENT_CALLS = new InheritableThreadLocal<>();
+
+    private final double searchReserve;
+    private final double throttleThreshold;
+    private final Duration maxWait;
+    private final Clock clock;
+    private final GithubRateLimitBudget budget;
+
+    private Instant nextSlot = Instant.EPOCH;
+
+    /**
+     * Constructs a new GithubRateLimitScheduler.
+     *
+     * @param searchReserve     the share of the limit reserved for searches already in flight
+     * @param throttleThreshold the share of the limit below which calls are paced
+     * @param maxWait           the longest time a call may be delayed before it fails fast
+     * @param budget            the budget the calls are accounted for in
+     * @param meterRegistry     the registry the remaining budget is published to
+     */
+    @Autowired
+    public GithubRateLimitScheduler(@Value("${github.rate-limit.search-reserve}") double searchReserve,
+                                    @Value("${github.rate-limit.throttle-threshold}") double throttleThreshold,
+                                    @Value("${github.rate-limit.max-wait}") Duration maxWait,
+                                    GithubRateLimitBudget budget,
+                                    MeterRegistry meterRegistry) {
+        this(searchReserve, throttleThreshold, maxWait, Clock.systemUTC(), budget);
+        Gauge.builder("github.rate-limit.remaining", this, scheduler -> scheduler.currentRateLimit().remaining())
+                .description("Remaining GitHub API rate limit budget")
+                .register(meterRegistry);
+    }
+
+    GithubRateLimitScheduler(double searchReserve, double throttleThreshold, Duration maxWait, Clock clock) {
+        this(searchReserve, throttleThreshold, maxWait, clock, new LocalGithubRateLimitBudget());
+    }
+
+    GithubRateLimitScheduler(double searchReserve, double throttleThreshold, Duration maxWait, Clock clock,
+                             GithubRateLimitBudget budget) {
+        this.searchReserve = searchReserve;
+        this.throttleThreshold = throttleThreshold;
+        this.maxWait = maxWait;
+        this.clock = clock;
+        this.budget = budget;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        var endpoint = chain.request().tag(GithubEndpoint.class);
+        if (endpoint == GithubEndpoint.GRAPHQL) {
+            return chain.proceed(chain.request());
+        }
+        Duration delay;
+        try {
+            delay = reserve(endpoint, chain.request().tag(GithubListingPage.class));
+        } catch (RateLimitExceededException e) {
+            throw new RejectedCallException(e);
+        }
+        if (delay.isPositive()) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for rate limit budget");
+            }
+        }
+        var response = chain.proceed(chain.request());
+        GithubRateLimit.fromHeaders(response).ifPresent(this::update);
+        return response;
+    }
+
+    /**
+     * Returns the currently tracked rate limit budget.
+     *
+     * @return the budget, {@link GithubRateLimit#UNKNOWN} before the first response
+     */
+    public GithubRateLimit currentRateLimit() {
+        return budget.current();
+    }
+
+    /**
+     * Reserves budget for the first page of a listing and computes how long the call has to wait before it is sent.
+     *
+     * @param endpoint the endpoint about to be called, may be {@code null} if unknown
+     * @return the delay to apply before sending the call
+     * @throws RateLimitExceededException if the call cannot be sent before the budget is restored
+     */
+    Duration reserve(GithubEndpoint endpoint) {
+        return reserve(endpoint, GithubListingPage.FIRST);
+    }
+
+    /**
+     * Reserves budget for one call and computes how long the call has to wait before it is sent.
+     * Only first pages of repository listings, which start a new search, are held back by the search reserve.
+     * The budget is checked and spent in one step by {@link GithubRateLimitBudget#tryConsume}, so concurrent calls
+     * cannot overdraw the reserve; only the pacing slot is taken under the lock of the scheduler, so a budget shared
+     * over the network does not serialize the calls.
+     *
+     * @param endpoint the endpoint about to be called, may be {@code null} if unknown
+     * @param page     the page of the listing about to be requested, may be {@code null} if unknown
+     * @return the delay to apply before sending the call
+     * @throws RateLimitExceededException if the call cannot be sent before the budget is restored
+     */
+    Duration reserve(GithubEndpoint endpoint, GithubListingPage page) {
+        var now = clock.instant();
+        var rateLimit = budget.current();
+        if (!rateLimit.isActive(now)) {
+            return Duration.ZERO;
+        }
+        var untilReset = rateLimit.untilReset(now);
+        var startsSearch = endpoint != GithubEndpoint.REPOSITORY_BRANCHES && page != GithubListingPage.FOLLOWING;
+        var required = startsSearch ? rateLimit.limit() * searchReserve : 0;
+        if (rateLimit.remaining() <= required) {
+            throw reject(endpoint, rateLimit, untilReset);
+        }
+        var delay = rateLimit.remaining() <= rateLimit.limit() * throttleThreshold
+                ? takeSlot(now, rateLimit)
+                : Duration.ZERO;
+        if (!budget.tryConsume(required)) {
+            throw reject(endpoint, budget.current(), untilReset);
+        }
+        var spentCalls = SPENT_CALLS.get();
+        if (spentCalls != null) {
+            spentCalls.incrementAndGet();
+        }
+        return delay;
+    }
+
+    /**
+     * Runs a task and counts the calls it spends from the budget, including the calls of the threads it starts.
+     * Calls of other tasks running at the same time, on this node or others, are not counted.
+     *
+     * @param spentCalls the counter the calls are added to, also if the task fails
+     * @param task       the task to run
+     */
+    public void countSpentCalls(AtomicLong spentCalls, Runnable task) {
+        var outer = SPENT_CALLS.get();
+        SPENT_CALLS.set(spentCalls);
+        try {
+            task.run();
+        } finally {
+            if (outer == null) {
+                SPENT_CALLS.remove();
+            } else {
+                SPENT_CALLS.set(outer);
+            }
+        }
+    }
+
+    private static RateLimitExceededException reject(GithubEndpoint endpoint, GithubRateLimit rateLimit,
+                                                     Duration untilReset) {
+        log.warn("Rejecting {} call, {} requests left until {}", endpoint, rateLimit.remaining(), rateLimit.resetAt());
+        return new RateLimitExceededException(untilReset);
+    }
+
+    /**
+     * Takes the next slot of the calls spaced evenly over the time left until the reset.
+     *
+     * @param now       the current moment
+     * @param rateLimit the tracked budget
+     * @return the delay until the slot
+     * @throws RateLimitExceededException if the slot is further away than the maximum wait
+     */
+    private synchronized Duration takeSlot(Instant now, GithubRateLimit rateLimit) {
+        var untilReset = rateLimit.untilReset(now);
+        var slot = nextSlot.isAfter(now) ? nextSlot : now;
+        var delay = Duration.between(now, slot);
+        if (delay.compareTo(maxWait) > 0) {
+            throw new RateLimitExceededException(untilReset);
+        }
+        nextSlot = slot.plus(untilReset.dividedBy(rateLimit.remaining()));
+        return delay;
+    }
+
+    /**
+     * Merges the budget reported by a response into the tracked one.
+     *
+     * @param reported the reported budget
+     */
+    void update(GithubRateLimit reported) {
+        budget.merge(reported);
+    }
+}
@@ -0,0 +1,15 @@
+package com.atipera.searcher.client;
+
+import com.atipera.searcher.dto.github.BranchResponse;
+import com.atipera.searcher.dto.github.RepositoryResponse;
+
+import java.util.List;
+
+/**
+ * A repository together with all of its branches, as fetched in bulk from the GitHub GraphQL API.
+ *
+ * @param repository the repository
+ * @param branches   the branches of the repository
+ */
+public record GithubRepositoryBranches(RepositoryResponse repository, List<BranchResponse> branches) {
+}
@@ -0,0 +1,99 @@
+package com.atipera.searcher.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Interceptor;
+import okhttp3.Response;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * OkHttp interceptor retrying GitHub API calls that failed transiently.
+ * Calls ending with a 5xx response or an I/O error such as a timeout are retried up to
+ * {@code github.api.retry.max-attempts} attempts in total, waiting a random time between zero and an exponentially
+ * growing backoff, starting at {@code initial-backoff} and capped at {@code max-backoff}, before each retry.
+ * Client error responses, including 404 and rate limited responses, are never retried, and neither are cancelled
+ * calls or calls refused by other interceptors. The call timeout bounds all attempts together.
+ * Retries are counted by {@code github.client.retries}, tagged by endpoint and the reason of the retry.
+ */
+@Component
+@Slf4j
+public class GithubRetryInterceptor implements Interceptor {
+
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    /**
+     * Constructs a new GithubRetryInterceptor.
+     *
+     * @param maxAttempts    the number of attempts per call, including the first one
+     * @param initialBackoff the backoff before the first retry
+     * @param maxBackoff     the upper bound of the backoff
+     * @param meterRegistry  the registry the retries are counted in
+     */
+    public GithubRetryInterceptor(@Value("${github.api.retry.max-attempts}") int maxAttempts,
+                                  @Value("${github.api.retry.initial-backoff}") Duration initialBackoff,
+                                  @Value("${github.api.retry.max-backoff}") Duration maxBackoff,
+                                  MeterRegistry meterRegistry) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        var endpoint = chain.request().tag(GithubEndpoint.class);
+        for (int attempt = 1; ; attempt++) {
+            String reason;
+            try {
+                var response = chain.proceed(chain.request());
+                if (response.code() < 500 || attempt >= maxAttempts) {
+                    return response;
+                }
+                reason = String.valueOf(response.code());
+                response.close();
+            } catch (RejectedCallException e) {
+                throw e;
+            } catch (IOException e) {
+                if (attempt >= maxAttempts || chain.call().isCanceled()) {
+                    throw e;
+                }
+                reason = "IO_ERROR";
+            }
+            meterRegistry.counter("github.client.retries",
+                    "endpoint", endpoint == null ? "UNKNOWN" : endpoint.name(), "reason", reason).increment();
+            var backoff = backoff(attempt);
+            log.debug("Retrying {} call to {} after {} in {}", endpoint, chain.request().url(), reason, backoff);
+            sleep(backoff);
+        }
+    }
+
+    /**
+     * Draws the backoff before a retry, using full jitter.
+     *
+     * @param attempt the number of the failed attempt, starting at one
+     * @return a random backoff between zero and the exponential backoff of the attempt
+     */
+    Duration backoff(int attempt) {
+        var exponential = initialBackoff.toMillis() << Math.min(attempt - 1, 20);
+        var bound = Math.min(maxBackoff.toMillis(), exponential);
+        return Duration.ofMillis(bound <= 0 ? 0 : ThreadLocalRandom.current().nextLong(bound + 1));
+    }
+
+    private static void sleep(Duration backoff) throws InterruptedIOException {
+        try {
+            Thread.sleep(backoff);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while backing off before a retry");
+        }
+    }
+}
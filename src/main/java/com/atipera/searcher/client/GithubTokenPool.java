@@ -0,0 +1,225 @@
+package com.atipera.searcher.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Interceptor;
+import okhttp3.Response;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * OkHttp interceptor authenticating GitHub calls with a pool of tokens configured in {@code github.api.tokens}.
+ * Every token has a rate limit budget of its own, separately for the REST and the GraphQL API, so the pool
+ * multiplies the budget by the number of tokens.
+ * <ul>
+ *     <li>The budget of every token is tracked from the {@code X-RateLimit-*} headers of its responses and spent
+ *     locally as calls are sent. A token not heard from in the current window is assumed to have a full budget.</li>
+ *     <li>Every call is sent with the token with the most remaining budget.</li>
+ *     <li>A call rejected because its token is exhausted or revoked is sent again with the next best token,
+ *     until every token was tried. A revoked token is not used again.</li>
+ *     <li>The {@code X-RateLimit-*} headers of REST responses are replaced with the budget of the whole pool,
+ *     so the {@link GithubRateLimitScheduler} paces calls against the sum of all budgets.</li>
+ * </ul>
+ * Without tokens, calls are passed through unauthenticated.
+ */
+@Component
+@Slf4j
+public class GithubTokenPool implements Interceptor {
+
+    private static final int ASSUMED_LIMIT = 5000;
+
+    private final List<Token> tokens;
+    private final Clock clock;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Constructs a new GithubTokenPool.
+     *
+     * @param tokens        the GitHub tokens, blank entries are ignored
+     * @param meterRegistry the registry the budgets of the tokens are published to
+     */
+    @Autowired
+    public GithubTokenPool(@Value("${github.api.tokens}") List<String> tokens, MeterRegistry meterRegistry) {
+        this(tokens, Clock.systemUTC(), meterRegistry);
+        for (int i = 0; i < this.tokens.size(); i++) {
+            var token = this.tokens.get(i);
+            Gauge.builder("github.api.tokens.remaining", this, pool -> pool.remaining(token))
+                    .description("Remaining REST rate limit budget of a pooled GitHub token")
+                    .tag("token", String.valueOf(i))
+                    .register(meterRegistry);
+        }
+    }
+
+    GithubTokenPool(List<String> tokens, Clock clock, MeterRegistry meterRegistry) {
+        this.tokens = tokens.stream()
+                .map(String::strip)
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .map(Token::new)
+                .toList();
+        this.clock = clock;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        if (tokens.isEmpty()) {
+            return chain.proceed(chain.request());
+        }
+        var endpoint = chain.request().tag(GithubEndpoint.class);
+        var tried = new HashSet<Token>();
+        while (true) {
+            var token = acquire(endpoint, tried);
+            var response = chain.proceed(chain.request().newBuilder()
+                    .header("Authorization", "Bearer " + token.value)
+                    .build());
+            var rejected = onResponse(token, endpoint, response);
+            if (!rejected || tried.size() == tokens.size()) {
+                return withPoolRateLimit(endpoint, response);
+            }
+            log.warn("GitHub token {} was rejected with {}, failing over", tokens.indexOf(token), response.code());
+            meterRegistry.counter("github.api.tokens.failovers").increment();
+            response.close();
+        }
+    }
+
+    /**
+     * Picks the token with the most remaining budget among those not tried yet and spends one request of it.
+     *
+     * @param endpoint the endpoint about to be called, may be {@code null} if unknown
+     * @param tried    the tokens already tried for the call, the picked one is added
+     * @return the picked token
+     */
+    synchronized Token acquire(GithubEndpoint endpoint, Set<Token> tried) {
+        var now = clock.instant();
+        Token best = null;
+        for (var token : tokens) {
+            if (!tried.contains(token) && (best == null || rank(token, endpoint, now) > rank(best, endpoint, now))) {
+                best = token;
+            }
+        }
+        tried.add(best);
+        best.budget(endpoint).consume(now);
+        return best;
+    }
+
+    /**
+     * Returns the budget of the whole pool for the given endpoint.
+     *
+     * @param endpoint the endpoint, may be {@code null} if unknown
+     * @return the summed budget, {@link GithubRateLimit#UNKNOWN} before the first response
+     */
+    synchronized GithubRateLimit poolRateLimit(GithubEndpoint endpoint) {
+        var now = clock.instant();
+        var limit = 0;
+        var remaining = 0;
+        Instant resetAt = null;
+        for (var token : tokens) {
+            var budget = token.budget(endpoint);
+            limit += budget.limit(now);
+            remaining += token.revoked ? 0 : budget.remaining(now);
+            if (budget.reported.isActive(now) && (resetAt == null || budget.reported.resetAt().isBefore(resetAt))) {
+                resetAt = budget.reported.resetAt();
+            }
+        }
+        return resetAt == null ? GithubRateLimit.UNKNOWN : new GithubRateLimit(limit, remaining, resetAt);
+    }
+
+    /**
+     * Records the budget reported by a response and checks whether the call was rejected because of its token.
+     *
+     * @param token    the token the call was sent with
+     * @param endpoint the called endpoint, may be {@code null} if unknown
+     * @param response the response
+     * @return {@code true} if the token is exhausted or revoked, so the call may be sent with another one
+     */
+    private synchronized boolean onResponse(Token token, GithubEndpoint endpoint, Response response) {
+        var reported = GithubRateLimit.fromHeaders(response);
+        reported.ifPresent(rateLimit -> token.budget(endpoint).merge(rateLimit));
+        if (response.code() == 401) {
+            log.error("GitHub token {} is not valid and is no longer used", tokens.indexOf(token));
+            token.revoked = true;
+            return true;
+        }
+        return (response.code() == 403 || response.code() == 429)
+                && reported.map(rateLimit -> rateLimit.remaining() == 0).orElse(false);
+    }
+
+    private Response withPoolRateLimit(GithubEndpoint endpoint, Response response) {
+        if (endpoint == GithubEndpoint.GRAPHQL || GithubRateLimit.fromHeaders(response).isEmpty()) {
+            return response;
+        }
+        var poolRateLimit = poolRateLimit(endpoint);
+        return response.newBuilder()
+                .header("X-RateLimit-Limit", String.valueOf(poolRateLimit.limit()))
+                .header("X-RateLimit-Remaining", String.valueOf(poolRateLimit.remaining()))
+                .header("X-RateLimit-Reset", String.valueOf(poolRateLimit.resetAt().getEpochSecond()))
+                .build();
+    }
+
+    private synchronized long remaining(Token token) {
+        return token.budget(GithubEndpoint.USER_REPOSITORIES).remaining(clock.instant());
+    }
+
+    private static long rank(Token token, GithubEndpoint endpoint, Instant now) {
+        return token.revoked ? -1 : token.budget(endpoint).remaining(now);
+    }
+
+    /**
+     * A pooled token with its REST and GraphQL budgets.
+     */
+    static final class Token {
+
+        private final String value;
+        private final Budget restBudget = new Budget();
+        private final Budget graphqlBudget = new Budget();
+        private boolean revoked;
+
+        private Token(String value) {
+            this.value = value;
+        }
+
+        private Budget budget(GithubEndpoint endpoint) {
+            return endpoint == GithubEndpoint.GRAPHQL ? graphqlBudget : restBudget;
+        }
+    }
+
+    /**
+     * The budget of a token for one API, with the calls sent before GitHub reported it.
+     */
+    private static final class Budget {
+
+        private GithubRateLimit reported = GithubRateLimit.UNKNOWN;
+        private int unreportedCalls;
+
+        int limit(Instant now) {
+            return reported.isActive(now) ? reported.limit() : ASSUMED_LIMIT;
+        }
+
+        int remaining(Instant now) {
+            return reported.isActive(now) ? reported.remaining() : Math.max(0, ASSUMED_LIMIT - unreportedCalls);
+        }
+
+        void consume(Instant now) {
+            if (reported.isActive(now)) {
+                reported = reported.consume();
+            } else {
+                unreportedCalls++;
+            }
+        }
+
+        void merge(GithubRateLimit rateLimit) {
+            reported = reported.merge(rateLimit);
+            unreportedCalls = 0;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.atipera.searcher.client;
+
+/**
+ * Implementation of {@link GithubRateLimitBudget} accounting for the calls of this node only.
+ */
+public class LocalGithubRateLimitBudget implements GithubRateLimitBudget {
+
+    private GithubRateLimit rateLimit = GithubRateLimit.UNKNOWN;
+
+    @Override
+    public synchronized GithubRateLimit current() {
+        return rateLimit;
+    }
+
+    @Override
+    public synchronized boolean tryConsume(double required) {
+        if (rateLimit.remaining() <= required) {
+            return false;
+        }
+        rateLimit = rateLimit.consume();
+        return true;
+    }
+
+    @Override
+    public synchronized void merge(GithubRateLimit reported) {
+        rateLimit = rateLimit.merge(reported);
+    }
+}
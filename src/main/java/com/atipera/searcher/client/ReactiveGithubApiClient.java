@@ -0,0 +1,173 @@
+package com.atipera.searcher.client;
+
+import com.atipera.searcher.client.GithubApiClient.GithubPage;
+import com.atipera.searcher.dto.github.BranchResponse;
+import com.atipera.searcher.dto.github.RepositoryResponse;
+import com.atipera.searcher.exception.ProcessingFailedException;
+import com.atipera.searcher.exception.UserNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Response;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Non-blocking counterpart of {@link GithubApiClient}.
+ * Calls are enqueued on the OkHttp dispatcher instead of executed on the calling thread,
+ * so no thread is parked while GitHub answers. Request building, response caching and error
+ * handling are shared with {@link GithubApiClient}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveGithubApiClient {
+
+    private final GithubApiClient githubApiClient;
+    private final OkHttpClient okHttpClient;
+
+    /**
+     * Fetches all public repositories for a given GitHub username, following the pagination links.
+     *
+     * @param username the GitHub username
+     * @return Flux of {@link RepositoryResponse}, in page order
+     */
+    public Flux<RepositoryResponse> fetchUserRepositories(String username) {
+        return fetchAllPages(githubApiClient.userRepositoriesUrl(username), GithubEndpoint.USER_REPOSITORIES,
+                GithubApiClient.REPOSITORY_LIST_TYPE, "Failed to process repositories information");
+    }
+
+    /**
+     * Fetches branches for a given repository and username, following the pagination links.
+     *
+     * @param repositoryName the name of the repository
+     * @param username       the GitHub username
+     * @return Flux of {@link BranchResponse}, in page order
+     */
+    public Flux<BranchResponse> fetchRepositoryBranches(String repositoryName, String username) {
+        return fetchAllPages(githubApiClient.repositoryBranchesUrl(repositoryName, username),
+                GithubEndpoint.REPOSITORY_BRANCHES, GithubApiClient.BRANCH_LIST_TYPE,
+                "Failed to process branches information");
+    }
+
+    /**
+     * Fetches a single branch of a given repository and username with one call, without listing the other branches.
+     *
+     * @param repositoryName the name of the repository
+     * @param branchName     the name of the branch
+     * @param username       the GitHub username
+     * @return Flux of the {@link BranchResponse}, empty if the branch does not exist
+     */
+    public Flux<BranchResponse> fetchRepositoryBranch(String repositoryName, String branchName, String username) {
+        return this.<BranchResponse>fetchPage(githubApiClient.repositoryBranchUrl(repositoryName, branchName, username),
+                        GithubEndpoint.REPOSITORY_BRANCHES, GithubApiClient.BRANCH_TYPE,
+                        "Failed to process branches information")
+                .flatMapIterable(GithubPage::items)
+                .onErrorResume(UserNotFoundException.class, e -> Flux.empty());
+    }
+
+    /**
+     * Fetches every page of a paginated GitHub listing.
+     * When the first page discloses the last page number, the remaining pages are requested concurrently,
+     * otherwise the {@code next} links are followed one by one.
+     * Pagination links are checked with {@link GithubApiClient#checkPageLink} before they are followed.
+     *
+     * @param firstPageUrl   the URL of the first page of the listing
+     * @param endpoint       the endpoint the listing belongs to
+     * @param type           the type of a single page of items
+     * @param failureMessage the message of the {@link ProcessingFailedException} raised on I/O failures
+     * @param <T>            the type of the listed items
+     * @return the items of all pages, in page order
+     */
+    private <T> Flux<T> fetchAllPages(HttpUrl firstPageUrl, GithubEndpoint endpoint, Type type,
+                                      String failureMessage) {
+        return this.<T>fetchPage(firstPageUrl, endpoint, type, failureMessage)
+                .flatMapMany(firstPage -> {
+                    var lastPage = firstPage.links().lastPage();
+                    if (lastPage.isPresent()) {
+                        var lastPageUrl = firstPage.links().last().orElseThrow();
+                        var remainingPages = checkPageLink(firstPageUrl, lastPageUrl, lastPage.getAsInt(), endpoint,
+                                failureMessage)
+                                .thenMany(Flux.range(2, Math.max(0, lastPage.getAsInt() - 1)))
+                                .flatMapSequential(page -> this.<T>fetchPage(GithubApiClient.pageUrl(lastPageUrl, page),
+                                        endpoint, type, failureMessage), githubApiClient.pageFetchParallelism());
+                        return Flux.concat(Mono.just(firstPage), remainingPages);
+                    }
+                    var pageNumber = new AtomicInteger(1);
+                    return Mono.just(firstPage)
+                            .expand(page -> Mono.justOrEmpty(page.links().next())
+                                    .flatMap(next -> checkPageLink(firstPageUrl, next, pageNumber.incrementAndGet(),
+                                            endpoint, failureMessage)
+                                            .then(this.<T>fetchPage(next, endpoint, type, failureMessage))));
+                })
+                .concatMapIterable(GithubPage::items);
+    }
+
+    private Mono<Void> checkPageLink(HttpUrl firstPageUrl, HttpUrl link, int page, GithubEndpoint endpoint,
+                                     String failureMessage) {
+        try {
+            GithubApiClient.checkPageLink(firstPageUrl, link, page);
+            return Mono.empty();
+        } catch (IOException e) {
+            log.error("Failed to process {} page {}: {}", endpoint, link, e.getMessage());
+            return Mono.error(new ProcessingFailedException(failureMessage));
+        }
+    }
+
+    /**
+     * Fetches and deserializes a single page of a GitHub listing, going through the response cache.
+     * Cancelling the subscription cancels the underlying call.
+     *
+     * @param url            the URL of the page
+     * @param endpoint       the endpoint the page belongs to
+     * @param type           the type of the page items
+     * @param failureMessage the message of the {@link ProcessingFailedException} raised on I/O failures
+     * @param <T>            the type of the listed items
+     * @return the page items together with its pagination links
+     */
+    private <T> Mono<GithubPage<T>> fetchPage(HttpUrl url, GithubEndpoint endpoint, Type type,
+                                              String failureMessage) {
+        return Mono.defer(() -> {
+            var cachedPage = githubApiClient.cachedPage(url);
+            var now = Instant.now();
+            if (githubApiClient.isFresh(cachedPage, endpoint, now)) {
+                return Mono.just(GithubPage.<T>of(cachedPage.get()));
+            }
+            return Mono.create(sink -> {
+                var call = okHttpClient.newCall(githubApiClient.pageRequest(url, endpoint, cachedPage));
+                sink.onCancel(call::cancel);
+                call.enqueue(new Callback() {
+                    @Override
+                    public void onResponse(Call call, Response response) {
+                        try (response) {
+                            sink.success(githubApiClient.<T>readPage(response, url, endpoint, type, cachedPage, now));
+                        } catch (IOException e) {
+                            onFailure(call, e);
+                        } catch (RuntimeException e) {
+                            sink.error(e);
+                        }
+                    }
+
+                    @Override
+                    public void onFailure(Call call, IOException e) {
+                        if (e instanceof RejectedCallException rejected) {
+                            sink.error(rejected.getCause());
+                            return;
+                        }
+                        log.error("Failed to process {} page {}: {}", endpoint, url, e.getMessage());
+                        sink.error(new ProcessingFailedException(failureMessage));
+                    }
+                });
+            });
+        });
+    }
+}
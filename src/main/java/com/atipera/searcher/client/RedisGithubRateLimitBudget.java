@@ -0,0 +1,197 @@
+package com.atipera.searcher.client;
+
+import lombok.extern.slf4j.Slf4j;
+import redis.clients.jedis.UnifiedJedis;
+import redis.clients.jedis.exceptions.JedisException;
+import redis.clients.jedis.params.SetParams;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Implementation of {@link GithubRateLimitBudget} sharing the budget with every node using the same Redis key prefix.
+ * The remaining count of every rate limit window is kept in a Redis counter, which every node decrements
+ * for each call it sends and lowers to the count GitHub reports, so a node sees the calls of all others
+ * and replicas do not overdraw the budget they share.
+ * <ul>
+ *     <li>A node learns about a window from the first response it gets in it; until then it does not
+ *     throttle, like a single node before its first response.</li>
+ *     <li>A request is spent by decrementing the counter, and given back if that left fewer requests than
+ *     required, so concurrent calls of all nodes cannot spend below the requirement together.</li>
+ *     <li>If Redis cannot be reached, the budget is accounted for locally until it is back.</li>
+ *     <li>No lock is held while Redis is called; the budget of this node is kept in an atomic reference and
+ *     lowered to the shared count once Redis answers.</li>
+ * </ul>
+ * Nodes sharing a key prefix are expected to share the GitHub budget, i.e. call GitHub with the same credentials.
+ */
+@Slf4j
+public class RedisGithubRateLimitBudget implements GithubRateLimitBudget {
+
+    private static final Duration KEY_GRACE_PERIOD = Duration.ofMinutes(1);
+
+    private final UnifiedJedis jedis;
+    private final String keyPrefix;
+    private final Clock clock;
+
+    private final AtomicReference<GithubRateLimit> rateLimit = new AtomicReference<>(GithubRateLimit.UNKNOWN);
+
+    /**
+     * Constructs a new RedisGithubRateLimitBudget.
+     *
+     * @param jedis     the Redis client
+     * @param keyPrefix the prefix of the keys the budget is kept under
+     */
+    public RedisGithubRateLimitBudget(UnifiedJedis jedis, String keyPrefix) {
+        this(jedis, keyPrefix, Clock.systemUTC());
+    }
+
+    RedisGithubRateLimitBudget(UnifiedJedis jedis, String keyPrefix, Clock clock) {
+        this.jedis = jedis;
+        this.keyPrefix = keyPrefix;
+        this.clock = clock;
+    }
+
+    @Override
+    public GithubRateLimit current() {
+        return rateLimit.get();
+    }
+
+    @Override
+    public boolean tryConsume(double required) {
+        var window = rateLimit.get();
+        if (!window.isActive(clock.instant())) {
+            rateLimit.updateAndGet(GithubRateLimit::consume);
+            return true;
+        }
+        if (window.remaining() <= required) {
+            return false;
+        }
+        long sharedRemaining;
+        try {
+            sharedRemaining = consumeShared(window);
+        } catch (JedisException e) {
+            log.warn("Failed to spend the shared rate limit budget: {}", e.getMessage());
+            return tryConsumeLocally(required);
+        }
+        if (sharedRemaining + 1 <= required) {
+            var restored = restoreShared(window).orElse(sharedRemaining);
+            rateLimit.updateAndGet(current -> lowerTo(current, window, restored));
+            return false;
+        }
+        rateLimit.updateAndGet(current -> lowerTo(current.consume(), window, sharedRemaining));
+        return true;
+    }
+
+    @Override
+    public void merge(GithubRateLimit reported) {
+        var merged = rateLimit.get().merge(reported);
+        if (!merged.resetAt().equals(reported.resetAt()) || !reported.isActive(clock.instant())) {
+            rateLimit.updateAndGet(current -> current.merge(reported));
+            return;
+        }
+        long sharedRemaining;
+        try {
+            sharedRemaining = mergeShared(reported);
+        } catch (JedisException | NumberFormatException e) {
+            log.warn("Failed to merge the shared rate limit budget: {}", e.getMessage());
+            rateLimit.updateAndGet(current -> current.merge(reported));
+            return;
+        }
+        rateLimit.updateAndGet(current -> lowerTo(current.merge(reported), reported, sharedRemaining));
+    }
+
+    /**
+     * Spends one request of the shared counter of a window.
+     * A missing counter, e.g. one evicted by Redis, is seeded with what this node knows before it is decremented;
+     * a used up counter is never seeded again.
+     *
+     * @param window the window the request is spent in
+     * @return the shared remaining count, negative once the counter is used up
+     */
+    private long consumeShared(GithubRateLimit window) {
+        var key = key(window);
+        try (var pipeline = jedis.pipelined()) {
+            pipeline.set(key, String.valueOf(window.remaining()), expiry(window).nx());
+            var sharedRemaining = pipeline.decr(key);
+            pipeline.sync();
+            return sharedRemaining.get();
+        }
+    }
+
+    /**
+     * Gives back a request spent from the shared counter of a window beyond the requirement.
+     *
+     * @param window the window the request was spent in
+     * @return the shared remaining count, empty if it could not be given back
+     */
+    private OptionalLong restoreShared(GithubRateLimit window) {
+        try {
+            return OptionalLong.of(jedis.incr(key(window)));
+        } catch (JedisException e) {
+            log.warn("Failed to give back the shared rate limit budget: {}", e.getMessage());
+            return OptionalLong.empty();
+        }
+    }
+
+    /**
+     * Spends one request of the budget of this node only, used while Redis is down.
+     *
+     * @param required the number of requests that have to be left for the request to be spent
+     * @return {@code true} if the request was spent
+     */
+    private boolean tryConsumeLocally(double required) {
+        while (true) {
+            var current = rateLimit.get();
+            if (current.remaining() <= required) {
+                return false;
+            }
+            if (rateLimit.compareAndSet(current, current.consume())) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Lowers the shared counter of a window to the count reported by GitHub, seeding it if it does not exist.
+     *
+     * @param reported the reported budget
+     * @return the shared remaining count
+     */
+    private long mergeShared(GithubRateLimit reported) {
+        var key = key(reported);
+        if (jedis.set(key, String.valueOf(reported.remaining()), expiry(reported).nx()) != null) {
+            return reported.remaining();
+        }
+        var sharedRemaining = Long.parseLong(jedis.get(key));
+        if (sharedRemaining > reported.remaining()) {
+            sharedRemaining = jedis.decrBy(key, sharedRemaining - reported.remaining());
+        }
+        return sharedRemaining;
+    }
+
+    private String key(GithubRateLimit window) {
+        return keyPrefix + "rate-limit:" + window.resetAt().getEpochSecond();
+    }
+
+    private SetParams expiry(GithubRateLimit window) {
+        return SetParams.setParams().px(window.untilReset(clock.instant()).plus(KEY_GRACE_PERIOD).toMillis());
+    }
+
+    /**
+     * Lowers the remaining count of a budget to the shared one, if the budget still tracks the same window.
+     *
+     * @param rateLimit       the budget
+     * @param window          the window the shared count belongs to
+     * @param sharedRemaining the shared remaining count, clamped at zero
+     * @return the lowered budget
+     */
+    private static GithubRateLimit lowerTo(GithubRateLimit rateLimit, GithubRateLimit window, long sharedRemaining) {
+        if (!rateLimit.resetAt().equals(window.resetAt())) {
+            return rateLimit;
+        }
+        var remaining = Math.max(0, Math.min(rateLimit.remaining(), sharedRemaining));
+        return new GithubRateLimit(rateLimit.limit(), (int) remaining, rateLimit.resetAt());
+    }
+}
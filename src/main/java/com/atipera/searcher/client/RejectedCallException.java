@@ -0,0 +1,25 @@
+package com.atipera.searcher.client;
+
+import java.io.IOException;
+
+/**
+ * Signals that an OkHttp interceptor refused to send a call to the GitHub API.
+ * OkHttp only delivers {@link IOException}s to asynchronous callbacks, so interceptors wrap
+ * the application exception describing the refusal, and the clients rethrow it unwrapped.
+ */
+public class RejectedCallException extends IOException {
+
+    /**
+     * Constructs a new RejectedCallException.
+     *
+     * @param cause the application exception describing why the call was refused
+     */
+    public RejectedCallException(RuntimeException cause) {
+        super(cause.getMessage(), cause);
+    }
+
+    @Override
+    public synchronized RuntimeException getCause() {
+        return (RuntimeException) super.getCause();
+    }
+}
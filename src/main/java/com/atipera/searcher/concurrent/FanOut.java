@@ -0,0 +1,130 @@
+package com.atipera.searcher.concurrent;
+
+import com.atipera.searcher.exception.ProcessingFailedException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+
+/**
+ * Utility for running independent blocking calls concurrently on virtual threads.
+ * Results are delivered in the order of the input items, and the first failure
+ * cancels all sibling tasks that are still running or waiting for a permit.
+ */
+public final class FanOut {
+
+    private FanOut() {
+    }
+
+    /**
+     * Applies the mapper to every item concurrently, with at most {@code parallelism} calls in flight.
+     * A parallelism of one or less runs the mapper sequentially on the calling thread.
+     *
+     * @param items       the items to process
+     * @param parallelism the maximum number of concurrent mapper invocations
+     * @param mapper      the function applied to each item
+     * @param <T>         the type of the input items
+     * @param <R>         the type of the results
+     * @return the mapped results, in the same order as the input items
+     * @throws RuntimeException          the first exception thrown by the mapper, rethrown as is
+     * @throws ProcessingFailedException if the calling thread is interrupted while waiting for results
+     */
+    public static <T, R> List<R> map(List<T> items, int parallelism, Function<? super T, ? extends R> mapper) {
+        var results = new ArrayList<R>(items.size());
+        forEachOrdered(items, parallelism, mapper, results::add);
+        return Collections.unmodifiableList(results);
+    }
+
+    /**
+     * Applies the mapper to every item concurrently, with at most {@code parallelism} calls in flight,
+     * and hands each result to the consumer as soon as all results before it are available.
+     * The consumer is always invoked on the calling thread, in the order of the input items,
+     * and a result is released once it has been consumed.
+     * A parallelism of one or less runs the mapper sequentially on the calling thread.
+     *
+     * @param items       the items to process
+     * @param parallelism the maximum number of concurrent mapper invocations
+     * @param mapper      the function applied to each item
+     * @param consumer    the consumer of the results
+     * @param <T>         the type of the input items
+     * @param <R>         the type of the results
+     * @throws RuntimeException          the first exception thrown by the mapper or the consumer, rethrown as is
+     * @throws ProcessingFailedException if the calling thread is interrupted while waiting for results
+     */
+    public static <T, R> void forEachOrdered(List<T> items, int parallelism, Function<? super T, ? extends R> mapper,
+                                             Consumer<? super R> consumer) {
+        if (parallelism <= 1 || items.size() <= 1) {
+            items.forEach(item -> consumer.accept(mapper.apply(item)));
+            return;
+        }
+        var permits = new Semaphore(parallelism);
+        var results = new Object[items.size()];
+        var completed = new boolean[items.size()];
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var completionService = new ExecutorCompletionService<Integer>(executor);
+            var futures = new ArrayList<Future<Integer>>(items.size());
+            for (int i = 0; i < items.size(); i++) {
+                int index = i;
+                futures.add(completionService.submit(() -> {
+                    permits.acquire();
+                    try {
+                        results[index] = mapper.apply(items.get(index));
+                        return index;
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+            var nextIndex = new int[]{0};
+            awaitAll(completionService, futures, index -> {
+                completed[index] = true;
+                while (nextIndex[0] < results.length && completed[nextIndex[0]]) {
+                    @SuppressWarnings("unchecked")
+                    var result = (R) results[nextIndex[0]];
+                    results[nextIndex[0]++] = null;
+                    consumer.accept(result);
+                }
+            });
+        }
+    }
+
+    /**
+     * Waits for every submitted task in completion order, cancelling the remaining ones on the first failure.
+     *
+     * @param completionService the completion service the tasks were submitted to
+     * @param futures           all submitted tasks
+     * @param onCompleted       the callback invoked on the calling thread with the index of every completed task
+     */
+    private static void awaitAll(ExecutorCompletionService<Integer> completionService,
+                                 List<Future<Integer>> futures, IntConsumer onCompleted) {
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                onCompleted.accept(completionService.take().get());
+            }
+        } catch (RuntimeException | Error e) {
+            futures.forEach(future -> future.cancel(true));
+            throw e;
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new ProcessingFailedException("Failed to process concurrent requests");
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new ProcessingFailedException("Interrupted while waiting for concurrent requests");
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.atipera.searcher.concurrent;
+
+import com.atipera.searcher.exception.ProcessingFailedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Deduplicates concurrent executions of the same computation.
+ * The first caller for a key starts the computation on a virtual thread of its own; every caller, the first
+ * one included, waits for it and receives the same result, or the same exception. Nothing is kept once
+ * the computation completes, so later callers start a fresh one.
+ * A caller interrupted while waiting stops waiting without affecting the others; the computation is only
+ * interrupted once no caller waits for it anymore, and callers arriving after that start a fresh one.
+ *
+ * @param <K> the type of the keys identifying a computation
+ * @param <V> the type of the computed values
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, Flight> inFlight = new ConcurrentHashMap<>();
+    private final Counter executedCalls;
+    private final Counter coalescedCalls;
+
+    /**
+     * Constructs a new SingleFlight publishing its metrics under the given name.
+     *
+     * @param name          the value of the {@code name} tag of the published metrics
+     * @param meterRegistry the registry the metrics are published to
+     */
+    public SingleFlight(String name, MeterRegistry meterRegistry) {
+        this.executedCalls = meterRegistry.counter("github.single.flight.calls", "name", name, "result", "executed");
+        this.coalescedCalls = meterRegistry.counter("github.single.flight.calls", "name", name, "result", "coalesced");
+    }
+
+    /**
+     * Runs the computation for the key, or joins the one already in flight.
+     *
+     * @param key      the key identifying the computation
+     * @param supplier the computation to run if none is in flight for the key
+     * @return the computed value
+     * @throws RuntimeException          the exception thrown by the computation, rethrown as is
+     * @throws ProcessingFailedException if the calling thread is interrupted while waiting
+     */
+    public V execute(K key, Supplier<V> supplier) {
+        while (true) {
+            var flight = new Flight();
+            var existing = inFlight.putIfAbsent(key, flight);
+            if (existing == null) {
+                executedCalls.increment();
+                flight.start(key, supplier);
+                return flight.await();
+            }
+            if (existing.join()) {
+                coalescedCalls.increment();
+                return existing.await();
+            }
+            inFlight.remove(key, existing);
+        }
+    }
+
+    /**
+     * A computation in flight together with the number of callers waiting for it.
+     * The flight is removed from the in-flight map before its result is published,
+     * so a caller that received the result and asks again starts a fresh computation.
+     */
+    private final class Flight {
+
+        private final CompletableFuture<V> future = new CompletableFuture<>();
+        private Thread runner;
+        private int waiters = 1;
+        private boolean abandoned;
+
+        private synchronized void start(K key, Supplier<V> supplier) {
+            runner = Thread.ofVirtual().name("single-flight").unstarted(() -> {
+                V value;
+                try {
+                    value = supplier.get();
+                } catch (RuntimeException | Error e) {
+                    inFlight.remove(key, this);
+                    future.completeExceptionally(e);
+                    return;
+                }
+                inFlight.remove(key, this);
+                future.complete(value);
+            });
+            runner.start();
+        }
+
+        private synchronized boolean join() {
+            if (abandoned) {
+                return false;
+            }
+            waiters++;
+            return true;
+        }
+
+        private synchronized void leave() {
+            if (--waiters == 0 && !future.isDone()) {
+                abandoned = true;
+                runner.interrupt();
+            }
+        }
+
+        private V await() {
+            try {
+                return future.get();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                if (e.getCause() instanceof Error error) {
+                    throw error;
+                }
+                throw new ProcessingFailedException("Failed to process coalesced request");
+            } catch (InterruptedException e) {
+                leave();
+                Thread.currentThread().interrupt();
+                throw new ProcessingFailedException("Interrupted while waiting for coalesced request");
+            }
+        }
+    }
+}
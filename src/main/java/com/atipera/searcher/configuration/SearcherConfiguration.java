@@ -1,24 +1,155 @@
 package com.atipera.searcher.configuration;
 
+import com.atipera.searcher.cache.GithubResponseCache;
+import com.atipera.searcher.cache.InMemoryGithubResponseCache;
+import com.atipera.searcher.cache.MappedFileGithubResponseCache;
+import com.atipera.searcher.cache.RedisGithubResponseCache;
+import com.atipera.searcher.cache.TieredGithubResponseCache;
+import com.atipera.searcher.client.GithubCircuitBreaker;
+import com.atipera.searcher.client.GithubConcurrencyLimiter;
+import com.atipera.searcher.client.GithubMetricsInterceptor;
+import com.atipera.searcher.client.GithubRateLimitBudget;
+import com.atipera.searcher.client.GithubRateLimitScheduler;
+import com.atipera.searcher.client.GithubRetryInterceptor;
+import com.atipera.searcher.client.GithubTokenPool;
+import com.atipera.searcher.client.LocalGithubRateLimitBudget;
+import com.atipera.searcher.client.RedisGithubRateLimitBudget;
+import com.atipera.searcher.concurrent.SingleFlight;
+import com.atipera.searcher.dto.github.BranchResponse;
+import com.atipera.searcher.dto.github.RepositoryDetails;
+import com.atipera.searcher.service.HotUserSearchCache;
+import com.atipera.searcher.service.RepositoryBranchSnapshots;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
 import com.google.gson.Gson;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.okhttp3.OkHttpConnectionPoolMetrics;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
 import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+import redis.clients.jedis.JedisPooled;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Configuration class for searcher application.
  */
 @Configuration
+@Slf4j
 public class SearcherConfiguration {
 
+    private static final String REDIS_BACKEND = "redis";
+
     /**
      * Creates and configures an OkHttpClient bean for making HTTP requests.
+     * All calls go to the GitHub API host, so the dispatcher's per-host limit effectively caps
+     * the number of concurrent calls. HTTP/2 lets those calls share a few multiplexed connections.
+     * Interceptors run from the outside in: transient failures are retried, each attempt passes the circuit breaker,
+     * waits for rate limit budget, is authenticated with the pooled token with the most budget left
+     * and then waits for a slot of the adaptive concurrency limit.
      *
+     * @param githubRetryInterceptor   the interceptor retrying transient failures with backoff
+     * @param githubCircuitBreaker     the interceptor shedding calls while GitHub keeps failing
+     * @param githubRateLimitScheduler the interceptor scheduling outbound calls against the rate limit budget
+     * @param githubTokenPool          the interceptor authenticating calls with the pooled GitHub tokens
+     * @param githubConcurrencyLimiter the interceptor adapting the number of concurrent calls
+     * @param githubMetricsInterceptor the interceptor recording metrics of outbound calls
+     * @param githubConnectionPool     the pool of connections to the GitHub API
+     * @param githubDispatcher         the dispatcher of asynchronous calls
+     * @param connectTimeout           the timeout for establishing a connection
+     * @param readTimeout              the timeout between two reads of a response
+     * @param callTimeout              the timeout of a whole call, including time spent waiting for rate limit budget
+     * @param http2Enabled             whether HTTP/2 is negotiated with the GitHub API
      * @return OkHttpClient instance for use in the application
      */
     @Bean
-    public OkHttpClient okHttpClient() {
-        return new OkHttpClient();
+    public OkHttpClient okHttpClient(GithubRetryInterceptor githubRetryInterceptor,
+                                     GithubCircuitBreaker githubCircuitBreaker,
+                                     GithubRateLimitScheduler githubRateLimitScheduler,
+                                     GithubTokenPool githubTokenPool,
+                                     GithubConcurrencyLimiter githubConcurrencyLimiter,
+                                     GithubMetricsInterceptor githubMetricsInterceptor,
+                                     ConnectionPool githubConnectionPool,
+                                     Dispatcher githubDispatcher,
+                                     @Value("${github.api.http.connect-timeout}") Duration connectTimeout,
+                                     @Value("${github.api.http.read-timeout}") Duration readTimeout,
+                                     @Value("${github.api.http.call-timeout}") Duration callTimeout,
+                                     @Value("${github.api.http.http2-enabled}") boolean http2Enabled) {
+        return new OkHttpClient.Builder()
+                .connectionPool(githubConnectionPool)
+                .dispatcher(githubDispatcher)
+                .protocols(http2Enabled ? List.of(Protocol.HTTP_2, Protocol.HTTP_1_1) : List.of(Protocol.HTTP_1_1))
+                .connectTimeout(connectTimeout)
+                .readTimeout(readTimeout)
+                .callTimeout(callTimeout)
+                .addInterceptor(githubRetryInterceptor)
+                .addInterceptor(githubCircuitBreaker)
+                .addInterceptor(githubRateLimitScheduler)
+                .addInterceptor(githubTokenPool)
+                .addInterceptor(githubConcurrencyLimiter)
+                .addInterceptor(githubMetricsInterceptor)
+                .build();
+    }
+
+    /**
+     * Creates the pool of connections to the GitHub API and publishes its utilization.
+     *
+     * @param maxIdleConnections the maximum number of idle connections kept open
+     * @param keepAlive          how long an idle connection is kept open
+     * @param meterRegistry      the registry the pool metrics are published to
+     * @return ConnectionPool instance shared by all GitHub calls
+     */
+    @Bean
+    public ConnectionPool githubConnectionPool(@Value("${github.api.http.max-idle-connections}") int maxIdleConnections,
+                                               @Value("${github.api.http.keep-alive}") Duration keepAlive,
+                                               MeterRegistry meterRegistry) {
+        var connectionPool = new ConnectionPool(maxIdleConnections, keepAlive.toMillis(), TimeUnit.MILLISECONDS);
+        new OkHttpConnectionPoolMetrics(connectionPool, "github.client.pool", Tags.empty(), maxIdleConnections)
+                .bindTo(meterRegistry);
+        return connectionPool;
+    }
+
+    /**
+     * Creates the dispatcher running asynchronous GitHub calls on virtual threads and publishes its queue.
+     *
+     * @param maxRequests        the maximum number of concurrently running asynchronous calls
+     * @param maxRequestsPerHost the maximum number of concurrently running asynchronous calls to a single host
+     * @param meterRegistry      the registry the dispatcher metrics are published to
+     * @return Dispatcher instance used by the OkHttpClient
+     */
+    @Bean
+    public Dispatcher githubDispatcher(@Value("${github.api.http.max-requests}") int maxRequests,
+                                       @Value("${github.api.http.max-requests-per-host}") int maxRequestsPerHost,
+                                       MeterRegistry meterRegistry) {
+        var dispatcher = new Dispatcher(Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("github-dispatcher-", 0).factory()));
+        dispatcher.setMaxRequests(maxRequests);
+        dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+        Gauge.builder("github.client.dispatcher.calls", dispatcher, Dispatcher::runningCallsCount)
+                .description("Asynchronous GitHub calls by dispatcher state")
+                .tag("state", "running")
+                .register(meterRegistry);
+        Gauge.builder("github.client.dispatcher.calls", dispatcher, Dispatcher::queuedCallsCount)
+                .description("Asynchronous GitHub calls by dispatcher state")
+                .tag("state", "queued")
+                .register(meterRegistry);
+        return dispatcher;
     }
 
     /**
@@ -30,4 +161,153 @@ public class SearcherConfiguration {
     public Gson gson() {
         return new Gson();
     }
+
+    /**
+     * Registers the Blackbird module with the ObjectMapper writing controller responses.
+     * Blackbird replaces reflective accessor calls with generated lambdas, which lowers the CPU cost
+     * of serializing large {@link RepositoryDetails} lists.
+     *
+     * @return Module instance picked up by Spring Boot's Jackson auto-configuration
+     */
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    /**
+     * Creates the cache of GitHub API responses.
+     * With the {@code redis} backend, pages are shared by all nodes through Redis, behind a small near-cache
+     * whose pages are dropped whenever another node writes them. Otherwise, unless disabled, pages are also
+     * persisted in a memory-mapped file, so a restarted node can revalidate them with {@code If-None-Match}
+     * instead of downloading every listing again. If the file cannot be used, for instance because another
+     * instance on the same host holds it, pages are only kept in memory.
+     *
+     * @param maximumSize     the maximum number of cached pages kept in memory
+     * @param retention       how long a page is kept for revalidation after it was last written
+     * @param backend         {@code local} or {@code redis}
+     * @param diskEnabled     whether pages are persisted on disk by the local backend
+     * @param diskPath        the file the pages are persisted in
+     * @param diskSize        the size of the file
+     * @param nearMaximumSize the maximum number of pages kept in the near-cache of the redis backend
+     * @param nearRetention   how long the near-cache keeps a page, bounding how long a missed invalidation lasts
+     * @param redisKeyPrefix  the prefix of the Redis keys shared by the nodes
+     * @param githubRedis     the Redis client, available with the redis backend
+     * @param meterRegistry   the registry the Redis cache metrics are published to
+     * @return GithubResponseCache instance used by the GitHub API client
+     */
+    @Bean
+    public GithubResponseCache githubResponseCache(@Value("${github.cache.maximum-size}") long maximumSize,
+                                                   @Value("${github.cache.retention}") Duration retention,
+                                                   @Value("${github.cache.backend}") String backend,
+                                                   @Value("${github.cache.disk.enabled}") boolean diskEnabled,
+                                                   @Value("${github.cache.disk.path}") Path diskPath,
+                                                   @Value("${github.cache.disk.size}") DataSize diskSize,
+                                                   @Value("${github.cache.near.maximum-size}") long nearMaximumSize,
+                                                   @Value("${github.cache.near.retention}") Duration nearRetention,
+                                                   @Value("${github.cache.redis.key-prefix}") String redisKeyPrefix,
+                                                   ObjectProvider<JedisPooled> githubRedis,
+                                                   MeterRegistry meterRegistry) {
+        if (REDIS_BACKEND.equals(backend)) {
+            var nearCache = new InMemoryGithubResponseCache(nearMaximumSize, nearRetention);
+            return new TieredGithubResponseCache(nearCache, new RedisGithubResponseCache(githubRedis.getObject(),
+                    redisKeyPrefix, retention, nearCache::invalidate, meterRegistry));
+        }
+        var inMemoryCache = new InMemoryGithubResponseCache(maximumSize, retention);
+        if (!diskEnabled) {
+            return inMemoryCache;
+        }
+        try {
+            return new TieredGithubResponseCache(inMemoryCache,
+                    new MappedFileGithubResponseCache(diskPath, Math.toIntExact(diskSize.toBytes()), retention));
+        } catch (IOException e) {
+            log.warn("Response cache file {} is not available, keeping pages in memory only: {}", diskPath,
+                    e.getMessage());
+            return inMemoryCache;
+        }
+    }
+
+    /**
+     * Creates the budget the GitHub rate limit is accounted for in.
+     * With the {@code redis} backend the budget is shared by all nodes,
+     * otherwise every node accounts for its own calls.
+     *
+     * @param backend        {@code local} or {@code redis}
+     * @param redisKeyPrefix the prefix of the Redis keys shared by the nodes
+     * @param githubRedis    the Redis client, available with the redis backend
+     * @return GithubRateLimitBudget instance used by the rate limit scheduler
+     */
+    @Bean
+    public GithubRateLimitBudget githubRateLimitBudget(@Value("${github.cache.backend}") String backend,
+                                                       @Value("${github.cache.redis.key-prefix}") String redisKeyPrefix,
+                                                       ObjectProvider<JedisPooled> githubRedis) {
+        if (REDIS_BACKEND.equals(backend)) {
+            return new RedisGithubRateLimitBudget(githubRedis.getObject(), redisKeyPrefix);
+        }
+        return new LocalGithubRateLimitBudget();
+    }
+
+    /**
+     * Creates the pooled Redis client shared by the redis cache backend and the shared rate limit budget.
+     *
+     * @param url the URL of the Redis server, e.g. {@code redis://localhost:6379}
+     * @return JedisPooled instance, closed on shutdown
+     */
+    @Bean
+    @ConditionalOnProperty(name = "github.cache.backend", havingValue = REDIS_BACKEND)
+    public JedisPooled githubRedis(@Value("${github.cache.redis.url}") URI url) {
+        return new JedisPooled(url);
+    }
+
+    /**
+     * Creates the store of branch snapshots used to skip branch listings of repositories not pushed to since.
+     *
+     * @param maximumSize the maximum number of remembered repositories
+     * @param retention   how long a snapshot is kept after it was last written
+     * @return RepositoryBranchSnapshots instance used by the search services
+     */
+    @Bean
+    public RepositoryBranchSnapshots repositoryBranchSnapshots(
+            @Value("${github.search.branch-snapshots.maximum-size}") long maximumSize,
+            @Value("${github.search.branch-snapshots.retention}") Duration retention) {
+        return new RepositoryBranchSnapshots(maximumSize, retention);
+    }
+
+    /**
+     * Creates the cache of search results of hot users.
+     *
+     * @param usernames    the usernames that are always hot
+     * @param learnedCount the number of most requested usernames that are hot in addition
+     * @param refreshAfter the age after which a result is due for a refresh
+     * @param maxStale     the age after which a result is no longer served
+     * @return HotUserSearchCache instance used by the search service
+     */
+    @Bean
+    public HotUserSearchCache hotUserSearchCache(@Value("${github.search.hot-users.usernames}") List<String> usernames,
+                                                 @Value("${github.search.hot-users.learned-count}") int learnedCount,
+                                                 @Value("${github.search.hot-users.refresh-after}") Duration refreshAfter,
+                                                 @Value("${github.search.hot-users.max-stale}") Duration maxStale) {
+        return new HotUserSearchCache(usernames, learnedCount, refreshAfter, maxStale);
+    }
+
+    /**
+     * Creates the deduplicator of concurrent searches for the same user.
+     *
+     * @param meterRegistry the registry the coalescing metrics are published to
+     * @return SingleFlight instance used by the search service
+     */
+    @Bean
+    public SingleFlight<String, List<RepositoryDetails>> searchSingleFlight(MeterRegistry meterRegistry) {
+        return new SingleFlight<>("search", meterRegistry);
+    }
+
+    /**
+     * Creates the deduplicator of concurrent branch listings of the same repository.
+     *
+     * @param meterRegistry the registry the coalescing metrics are published to
+     * @return SingleFlight instance used by the GitHub API client
+     */
+    @Bean
+    public SingleFlight<String, List<BranchResponse>> branchesSingleFlight(MeterRegistry meterRegistry) {
+        return new SingleFlight<>("branches", meterRegistry);
+    }
 }
@@ -0,0 +1,38 @@
+package com.atipera.searcher.controller;
+
+import com.atipera.searcher.dto.batch.BatchSearchRequest;
+import com.atipera.searcher.dto.batch.BatchSearchResult;
+import com.atipera.searcher.service.GithubBatchSearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+/**
+ * Controller for searching the repositories of many GitHub users in one request.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/github/search")
+public class GithubBatchSearchController {
+
+    private final GithubBatchSearchService githubBatchSearchService;
+
+    /**
+     * Streams the search results of every requested user as newline-delimited JSON.
+     * Each line holds either the repositories of one user or the error the user's search failed with.
+     *
+     * @param batchSearchRequest the usernames to search
+     * @return ResponseEntity containing a ResponseBodyEmitter writing one {@link BatchSearchResult} per line
+     */
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ResponseBodyEmitter> searchUsers(@RequestBody BatchSearchRequest batchSearchRequest) {
+        return NdjsonResponses.<BatchSearchResult>stream(consumer ->
+                githubBatchSearchService.searchUsers(batchSearchRequest.getUsernames(), consumer));
+    }
+}
@@ -2,33 +2,89 @@ package com.atipera.searcher.controller;
 
 import com.atipera.searcher.dto.github.RepositoryDetails;
 import com.atipera.searcher.service.GithubSearchService;
+import com.atipera.searcher.service.SearchPage;
+import com.atipera.searcher.service.SearchQuery;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.time.Duration;
 import java.util.List;
 
 /**
  * Controller for handling GitHub repository search operations.
+ * Active unless {@code github.search.pipeline} selects the {@link ReactiveGithubSearchController}.
  */
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/github/search")
+@ConditionalOnProperty(name = "github.search.pipeline", havingValue = "blocking", matchIfMissing = true)
 public class GithubSearchController {
 
     private final GithubSearchService githubSearchService;
 
+    @Value("${github.search.cache-control.max-age}")
+    private Duration cacheMaxAge;
+
     /**
      * Retrieves details of all repositories for a specified GitHub username.
      *
-     * @param username the GitHub username
+     * The optional parameters narrow the search down before any branch is fetched: {@code nameFilter} keeps
+     * repositories whose name contains it, {@code sort} orders them by {@code name}, {@code pushed} or
+     * {@code updated}, {@code limit} and {@code cursor} paginate them, {@code branches} selects {@code all},
+     * the {@code default} or {@code none} of the branches and {@code fields} the returned fields.
+     * A page followed by another one carries a {@code Link} header with {@code rel="next"}.
+     *
+     * The response carries an {@code ETag} derived from the result, so a client sending it back in {@code If-None-Match}
+     * gets a {@code 304 Not Modified} without a body while nothing changed.
+     *
+     * @param username   the GitHub username
+     * @param fields     comma-separated fields of {@link RepositoryDetails} to return, all fields if absent
+     * @param branches   {@code all}, {@code default} or {@code none}, all branches if absent
+     * @param nameFilter the case-insensitive substring the repository names have to contain
+     * @param sort       {@code name}, {@code pushed} or {@code updated}, the order of the listing if absent
+     * @param limit      the maximum number of repositories, all repositories if absent
+     * @param cursor     the cursor of the page to return, taken from the {@code Link} header of the previous page
      * @return ResponseEntity containing a list of {@link RepositoryDetails}
      */
     @GetMapping(value = "/{username}", produces = "application/json")
-    public ResponseEntity<List<RepositoryDetails>> getRepositoriesDetails(@PathVariable String username) {
-        return ResponseEntity.ok(githubSearchService.processNonForkedUserRepositories(username));
+    public ResponseEntity<List<RepositoryDetails>> getRepositoriesDetails(
+            @PathVariable String username,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String branches,
+            @RequestParam(required = false) String nameFilter,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor) {
+        var query = SearchQuery.parse(fields, branches, nameFilter, sort, limit, cursor);
+        var searchPage = query.isAll()
+                ? new SearchPage(githubSearchService.processNonForkedUserRepositories(username), null)
+                : githubSearchService.queryNonForkedUserRepositories(username, query);
+        return SearchPageResponses.ok(searchPage, cacheMaxAge, ServletUriComponentsBuilder.fromCurrentRequest());
+    }
+
+    /**
+     * Streams details of all repositories for a specified GitHub username as newline-delimited JSON.
+     * Each {@link RepositoryDetails} is written as soon as its branches are fetched, so the first
+     * repositories reach the client before the whole account is processed.
+     * The search runs on a virtual thread; failures before the first repository is written are
+     * reported like for {@link #getRepositoriesDetails}.
+     *
+     * @param username the GitHub username
+     * @return ResponseEntity containing a ResponseBodyEmitter writing one {@link RepositoryDetails} per line
+     */
+    @GetMapping(value = "/{username}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ResponseBodyEmitter> streamRepositoriesDetails(@PathVariable String username) {
+        return NdjsonResponses.<RepositoryDetails>stream(consumer ->
+                githubSearchService.streamNonForkedUserRepositories(username, consumer));
     }
 }
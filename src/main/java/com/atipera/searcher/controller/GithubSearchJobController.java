@@ -0,0 +1,60 @@
+package com.atipera.searcher.controller;
+
+import com.atipera.searcher.dto.job.SearchJobResponse;
+import com.atipera.searcher.service.GithubSearchJobService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Controller for searching the repositories of GitHub users in background jobs,
+ * for accounts too large to be searched within a request.
+ */
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/github/search")
+public class GithubSearchJobController {
+
+    private final GithubSearchJobService githubSearchJobService;
+
+    /**
+     * Starts a background search of the repositories of a user and returns without waiting for it.
+     * The response carries a {@code Location} header pointing to the job.
+     *
+     * @param username             the GitHub username
+     * @param uriComponentsBuilder the builder of the job location, relative to the current request
+     * @return ResponseEntity with HTTP status 202 containing the {@link SearchJobResponse} of the queued job
+     */
+    @PostMapping(value = "/{username}/jobs", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<SearchJobResponse> submitSearchJob(@PathVariable String username,
+                                                             UriComponentsBuilder uriComponentsBuilder) {
+        var searchJob = githubSearchJobService.submit(username);
+        var location = uriComponentsBuilder.path("/github/search/{username}/jobs/{jobId}")
+                .buildAndExpand(username, searchJob.getId())
+                .toUri();
+        return ResponseEntity.accepted()
+                .location(location)
+                .body(searchJob);
+    }
+
+    /**
+     * Retrieves the progress of a background search, and its result once it is finished.
+     *
+     * @param username the GitHub username
+     * @param jobId    the job id returned when the job was started
+     * @return ResponseEntity containing the {@link SearchJobResponse} of the job
+     */
+    @GetMapping(value = "/{username}/jobs/{jobId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<SearchJobResponse> getSearchJob(@PathVariable String username, @PathVariable String jobId) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(githubSearchJobService.get(username, jobId));
+    }
+}
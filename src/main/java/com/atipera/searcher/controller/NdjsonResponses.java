@@ -0,0 +1,52 @@
+package com.atipera.searcher.controller;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Helper for streaming the results of blocking searches as newline-delimited JSON.
+ */
+final class NdjsonResponses {
+
+    private NdjsonResponses() {
+    }
+
+    /**
+     * Runs the producer on a virtual thread and writes every item it emits as one JSON line.
+     * The stream is not subject to the servlet async timeout; it ends when the producer returns.
+     * Failures before the first line is written are reported through the regular exception handlers,
+     * and a client disconnecting makes the next emission fail, which aborts the producer.
+     *
+     * @param producer the search, handed the consumer of the items to write
+     * @param <T>      the type of the streamed items
+     * @return ResponseEntity containing a ResponseBodyEmitter writing one item per line
+     */
+    static <T> ResponseEntity<ResponseBodyEmitter> stream(Consumer<Consumer<T>> producer) {
+        var emitter = new ResponseBodyEmitter(0L);
+        Thread.ofVirtual().start(() -> {
+            try {
+                producer.accept(item -> sendLine(emitter, item));
+                emitter.complete();
+            } catch (RuntimeException e) {
+                emitter.completeWithError(e instanceof UncheckedIOException ? e.getCause() : e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(emitter);
+    }
+
+    private static void sendLine(ResponseBodyEmitter emitter, Object item) {
+        try {
+            emitter.send(item, MediaType.APPLICATION_JSON);
+            emitter.send("\n", MediaType.TEXT_PLAIN);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.atipera.searcher.controller;
+
+import com.atipera.searcher.dto.github.RepositoryDetails;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Computes entity tags for search results.
+ * The tag is a SHA-256 digest over the repository names, owners, branch names and branch head SHAs,
+ * so it changes whenever anything visible in the response changes, without serializing the response.
+ * It is sent as a weak validator, because the same tag covers both the plain and the gzip-encoded body
+ * and Tomcat does not compress responses carrying a strong one; {@code If-None-Match} uses weak comparison anyway.
+ */
+final class RepositoryDetailsETag {
+
+    private static final int TAG_LENGTH = 32;
+
+    private RepositoryDetailsETag() {
+    }
+
+    /**
+     * Computes the entity tag of a search result.
+     *
+     * @param repositoryDetails the search result
+     * @return the weak entity tag
+     */
+    static String of(List<RepositoryDetails> repositoryDetails) {
+        var digest = sha256();
+        for (var repository : repositoryDetails) {
+            update(digest, repository.repositoryName());
+            update(digest, repository.ownerLogin());
+            if (repository.branches() != null) {
+                for (var branch : repository.branches()) {
+                    update(digest, branch.name());
+                    update(digest, branch.commitSha() == null ? null : branch.commitSha().toString());
+                }
+            }
+            digest.update((byte) '\n');
+        }
+        return "W/\"" + HexFormat.of().formatHex(digest.digest()).substring(0, TAG_LENGTH) + "\"";
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        if (value != null) {
+            digest.update(value.getBytes(StandardCharsets.UTF_8));
+        }
+        digest.update((byte) 0);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
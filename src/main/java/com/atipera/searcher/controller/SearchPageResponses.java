@@ -0,0 +1,45 @@
+package com.atipera.searcher.controller;
+
+import com.atipera.searcher.dto.github.RepositoryDetails;
+import com.atipera.searcher.service.SearchPage;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Helper for building the responses of JSON searches, shared by the blocking and the reactive controller.
+ */
+final class SearchPageResponses {
+
+    private SearchPageResponses() {
+    }
+
+    /**
+     * Builds the response for a page of search results.
+     * The response carries an {@code ETag} and a {@code Cache-Control} header, and a {@code Link} header
+     * pointing to the next page if there is one.
+     *
+     * @param searchPage the page of search results
+     * @param maxAge     the time clients may reuse the response without revalidating it
+     * @param requestUri the URI of the current request, the next page link is derived from
+     * @return ResponseEntity containing the list of {@link RepositoryDetails} on the page
+     */
+    static ResponseEntity<List<RepositoryDetails>> ok(SearchPage searchPage, Duration maxAge,
+                                                      UriComponentsBuilder requestUri) {
+        var response = ResponseEntity.ok()
+                .eTag(RepositoryDetailsETag.of(searchPage.repositoryDetails()))
+                .cacheControl(CacheControl.maxAge(maxAge).mustRevalidate());
+        if (searchPage.nextCursor() != null) {
+            var next = requestUri.cloneBuilder()
+                    .replaceQueryParam("cursor", searchPage.nextCursor())
+                    .build()
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(searchPage.repositoryDetails());
+    }
+}
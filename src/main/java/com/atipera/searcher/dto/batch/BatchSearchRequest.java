@@ -0,0 +1,18 @@
+package com.atipera.searcher.dto.batch;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Represents a request to search the repositories of many GitHub users at once.
+ * This class includes the list of usernames to search.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class BatchSearchRequest {
+    private List<String> usernames;
+}
@@ -0,0 +1,24 @@
+package com.atipera.searcher.dto.batch;
+
+import com.atipera.searcher.dto.error.ErrorResponse;
+import com.atipera.searcher.dto.github.RepositoryDetails;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Represents the outcome of the search of a single user within a batch.
+ * This class includes the username and either the user's repositories or the error the search failed with.
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchSearchResult {
+    private String username;
+    private List<RepositoryDetails> repositories;
+    private ErrorResponse error;
+}
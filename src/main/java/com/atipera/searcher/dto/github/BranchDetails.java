@@ -1,17 +1,14 @@
 package com.atipera.searcher.dto.github;
 
-import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Getter;
 
 /**
  * Represents a branch within a GitHub repository.
- * This class includes the branch's name and the SHA of its latest commit.
+ * This model includes the branch's name and the SHA of its latest commit.
+ *
+ * @param name      the name of the branch
+ * @param commitSha the SHA of the latest commit on the branch, serialized as its string form
  */
-@Getter
 @Builder
-@AllArgsConstructor
-public class BranchDetails {
-    private String name;
-    private String commitSha;
+public record BranchDetails(String name, CommitSha commitSha) {
 }
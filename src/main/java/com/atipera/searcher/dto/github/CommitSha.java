@@ -0,0 +1,99 @@
+package com.atipera.searcher.dto.github;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.HexFormat;
+
+/**
+ * Represents the SHA of a commit in a compact form.
+ * A SHA-1 written as 40 lower case hex digits, as GitHub returns it, is kept as its 20 bytes in two longs and
+ * an int and is only hex-encoded again when it is serialized; any other value is kept as the given string.
+ * Instances are equal if they represent the same string.
+ */
+public final class CommitSha {
+
+    private static final HexFormat HEX_FORMAT = HexFormat.of();
+    private static final int HEX_LENGTH = 40;
+
+    private final long high;
+    private final long middle;
+    private final int low;
+    private final String value;
+
+    private CommitSha(long high, long middle, int low, String value) {
+        this.high = high;
+        this.middle = middle;
+        this.low = low;
+        this.value = value;
+    }
+
+    /**
+     * Creates a CommitSha from its string form.
+     *
+     * @param sha the SHA, may be {@code null}
+     * @return the CommitSha, {@code null} if the SHA is {@code null}
+     */
+    @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+    public static CommitSha of(String sha) {
+        if (sha == null) {
+            return null;
+        }
+        if (!isLowerCaseHex(sha)) {
+            return new CommitSha(0, 0, 0, sha);
+        }
+        return new CommitSha(HEX_FORMAT.fromHexDigitsToLong(sha, 0, 16),
+                HEX_FORMAT.fromHexDigitsToLong(sha, 16, 32),
+                HEX_FORMAT.fromHexDigits(sha, 32, HEX_LENGTH),
+                null);
+    }
+
+    private static boolean isLowerCaseHex(String sha) {
+        if (sha.length() != HEX_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < HEX_LENGTH; i++) {
+            var c = sha.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the SHA in its string form.
+     *
+     * @return the SHA as 40 lower case hex digits, or as it was given if it had another form
+     */
+    @JsonValue
+    @Override
+    public String toString() {
+        if (value != null) {
+            return value;
+        }
+        return HEX_FORMAT.toHexDigits(high) + HEX_FORMAT.toHexDigits(middle) + HEX_FORMAT.toHexDigits(low);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CommitSha other)) {
+            return false;
+        }
+        if (value != null || other.value != null) {
+            return value != null && value.equals(other.value);
+        }
+        return high == other.high && middle == other.middle && low == other.low;
+    }
+
+    @Override
+    public int hashCode() {
+        if (value != null) {
+            return value.hashCode();
+        }
+        return Long.hashCode(high) * 961 + Long.hashCode(middle) * 31 + low;
+    }
+}
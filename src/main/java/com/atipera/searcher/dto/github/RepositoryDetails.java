@@ -1,18 +1,20 @@
 package com.atipera.searcher.dto.github;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Builder;
-import lombok.Getter;
 
 import java.util.List;
 
 /**
  * Represents the details of a GitHub repository.
  * This model includes the repository's name, the login of the owner, and a list of its branches.
+ * Fields left out by the {@code fields} parameter of a search are {@code null} and omitted from the response.
+ *
+ * @param repositoryName the name of the repository
+ * @param ownerLogin     the login of the repository's owner
+ * @param branches       the branches of the repository
  */
-@Getter
 @Builder
-public class RepositoryDetails {
-    private String repositoryName;
-    private String ownerLogin;
-    private List<BranchDetails> branches;
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record RepositoryDetails(String repositoryName, String ownerLogin, List<BranchDetails> branches) {
 }
@@ -7,7 +7,8 @@ import lombok.Setter;
 
 /**
  * Represents the response structure for a GitHub repository.
- * This class includes the repository's name, whether it is forked, and the owner.
+ * This class includes the repository's name, whether it is forked, the owner, the name of the default branch,
+ * and the times of the last push and of the last update, as ISO-8601 timestamps.
  */
 @Getter
 @Setter
@@ -17,4 +18,10 @@ public class RepositoryResponse {
     @SerializedName("fork")
     private boolean isForked;
     private OwnerResponse owner;
+    @SerializedName("default_branch")
+    private String defaultBranch;
+    @SerializedName("pushed_at")
+    private String pushedAt;
+    @SerializedName("updated_at")
+    private String updatedAt;
 }
@@ -0,0 +1,30 @@
+package com.atipera.searcher.dto.job;
+
+import com.atipera.searcher.dto.error.ErrorResponse;
+import com.atipera.searcher.dto.github.RepositoryDetails;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Represents the state of a background search job.
+ * This class includes the job id, the searched username, the status and progress of the search,
+ * and once it is finished either the user's repositories or the error the search failed with.
+ * The total number of repositories is known once the repository listing is complete.
+ */
+@Getter
+@Builder
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SearchJobResponse {
+    private String id;
+    private String username;
+    private SearchJobStatus status;
+    private int repositoriesDone;
+    private Integer repositoriesTotal;
+    private List<RepositoryDetails> repositories;
+    private ErrorResponse error;
+}
@@ -0,0 +1,11 @@
+package com.atipera.searcher.dto.job;
+
+/**
+ * Represents the stage a background search job is in.
+ */
+public enum SearchJobStatus {
+    QUEUED,
+    RUNNING,
+    SUCCEEDED,
+    FAILED
+}
@@ -1,7 +1,9 @@
 package com.atipera.searcher.exception;
 
 import com.atipera.searcher.dto.error.ErrorResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.HttpMediaTypeNotAcceptableException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -10,6 +12,7 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 /**
  * Provides global exception handling across the whole application.
  * This class intercepts exceptions thrown by any controller and returns an appropriate HTTP response.
+ * Error bodies are always written as JSON, also when the client asked for a streamed response.
  */
 @ControllerAdvice
 public class ExceptionControllerAdvice {
@@ -24,7 +27,46 @@ public class ExceptionControllerAdvice {
     @ExceptionHandler(UserNotFoundException.class)
     public ResponseEntity<ErrorResponse> handleUsernameNotFoundException(UserNotFoundException e) {
         var errorResponse = new ErrorResponse(HttpStatus.NOT_FOUND.value(), e.getMessage());
-        return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
+        return errorResponse(errorResponse, new HttpHeaders(), HttpStatus.NOT_FOUND);
+    }
+
+    /**
+     * Handles exceptions of type {@link JobNotFoundException}.
+     * Constructs a response entity with HTTP status 404 (Not Found) and a custom error message.
+     *
+     * @param e the caught {@link JobNotFoundException}
+     * @return a {@link ResponseEntity} with an {@link ErrorResponse} body and HTTP status 404
+     */
+    @ExceptionHandler(JobNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleJobNotFoundException(JobNotFoundException e) {
+        var errorResponse = new ErrorResponse(HttpStatus.NOT_FOUND.value(), e.getMessage());
+        return errorResponse(errorResponse, new HttpHeaders(), HttpStatus.NOT_FOUND);
+    }
+
+    /**
+     * Handles exceptions of type {@link JobQueueFullException}.
+     * Constructs a response entity with HTTP status 503 (Service Unavailable) and a custom error message.
+     *
+     * @param e the caught {@link JobQueueFullException}
+     * @return a {@link ResponseEntity} with an {@link ErrorResponse} body and HTTP status 503
+     */
+    @ExceptionHandler(JobQueueFullException.class)
+    public ResponseEntity<ErrorResponse> handleJobQueueFullException(JobQueueFullException e) {
+        var errorResponse = new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE.value(), e.getMessage());
+        return errorResponse(errorResponse, new HttpHeaders(), HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    /**
+     * Handles exceptions of type {@link InvalidRequestException}.
+     * Constructs a response entity with HTTP status 400 (Bad Request) and a custom error message.
+     *
+     * @param e the caught {@link InvalidRequestException}
+     * @return a {@link ResponseEntity} with an {@link ErrorResponse} body and HTTP status 400
+     */
+    @ExceptionHandler(InvalidRequestException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidRequestException(InvalidRequestException e) {
+        var errorResponse = new ErrorResponse(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+        return errorResponse(errorResponse, new HttpHeaders(), HttpStatus.BAD_REQUEST);
     }
 
     /**
@@ -37,12 +79,30 @@ public class ExceptionControllerAdvice {
     @ExceptionHandler({ProcessingFailedException.class, FetchFailedException.class})
     public ResponseEntity<ErrorResponse> handleProcessingFailedException(Exception e) {
         var errorResponse = new ErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR.value(), e.getMessage());
-        return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
+        return errorResponse(errorResponse, new HttpHeaders(), HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    /**
+     * Handles exceptions of type {@link GithubUnavailableException}.
+     * Constructs a response entity with HTTP status 503 (Service Unavailable) and a custom error message.
+     * When the time until calls are let through again is known, it is sent in the {@code Retry-After} header.
+     *
+     * @param e the caught {@link GithubUnavailableException}
+     * @return a {@link ResponseEntity} with an {@link ErrorResponse} body and HTTP status 503
+     */
+    @ExceptionHandler(GithubUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleGithubUnavailableException(GithubUnavailableException e) {
+        var errorResponse = new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE.value(), e.getMessage());
+        var headers = new HttpHeaders();
+        e.getRetryAfter().ifPresent(retryAfter ->
+                headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, retryAfter.toSeconds()))));
+        return errorResponse(errorResponse, headers, HttpStatus.SERVICE_UNAVAILABLE);
     }
 
     /**
      * Handles exceptions of type {@link RateLimitExceededException}.
      * Constructs a response entity with HTTP status 403 (Forbidden) and a custom error message.
+     * When the time until the rate limit resets is known, it is sent in the {@code Retry-After} header.
      *
      * @param e the caught {@link RateLimitExceededException}
      * @return a {@link ResponseEntity} with an {@link ErrorResponse} body and HTTP status 403
@@ -50,7 +110,10 @@ public class ExceptionControllerAdvice {
     @ExceptionHandler(RateLimitExceededException.class)
     public ResponseEntity<ErrorResponse> handleRateLimitExceededException(RateLimitExceededException e) {
         var errorResponse = new ErrorResponse(HttpStatus.FORBIDDEN.value(), e.getMessage());
-        return new ResponseEntity<>(errorResponse, HttpStatus.FORBIDDEN);
+        var headers = new HttpHeaders();
+        e.getRetryAfter().ifPresent(retryAfter ->
+                headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, retryAfter.toSeconds()))));
+        return errorResponse(errorResponse, headers, HttpStatus.FORBIDDEN);
     }
 
     /**
@@ -64,7 +127,13 @@ public class ExceptionControllerAdvice {
     public ResponseEntity<ErrorResponse> handleHttpMediaTypeNotAcceptableException(
             HttpMediaTypeNotAcceptableException e) {
         var errorResponse = new ErrorResponse(HttpStatus.NOT_ACCEPTABLE.value(), e.getMessage());
-        return new ResponseEntity<>(errorResponse, HttpStatus.NOT_ACCEPTABLE);
+        return errorResponse(errorResponse, new HttpHeaders(), HttpStatus.NOT_ACCEPTABLE);
+    }
+
+    private static ResponseEntity<ErrorResponse> errorResponse(ErrorResponse errorResponse, HttpHeaders headers,
+                                                               HttpStatus status) {
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return new ResponseEntity<>(errorResponse, headers, status);
     }
 
 }
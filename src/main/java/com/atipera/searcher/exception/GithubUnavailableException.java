@@ -0,0 +1,31 @@
+package com.atipera.searcher.exception;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Custom exception class to indicate calls to the GitHub API are being shed because it is failing or overloaded.
+ */
+public class GithubUnavailableException extends RuntimeException {
+    private final Duration retryAfter;
+
+    /**
+     * Constructs a new GithubUnavailableException with a default error message
+     * and the time after which the request may be retried.
+     *
+     * @param retryAfter the time until calls are let through again, may be {@code null} if unknown
+     */
+    public GithubUnavailableException(Duration retryAfter) {
+        super("GitHub API is temporarily unavailable");
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Returns the time after which the request may be retried.
+     *
+     * @return the time until calls are let through again, empty if unknown
+     */
+    public Optional<Duration> getRetryAfter() {
+        return Optional.ofNullable(retryAfter);
+    }
+}
@@ -0,0 +1,16 @@
+package com.atipera.searcher.exception;
+
+/**
+ * Custom exception class to indicate the request sent by the client is invalid.
+ */
+public class InvalidRequestException extends RuntimeException {
+
+    /**
+     * Constructs a new InvalidRequestException with the given error message.
+     *
+     * @param message the description of what is wrong with the request
+     */
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
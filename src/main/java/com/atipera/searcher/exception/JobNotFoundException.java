@@ -0,0 +1,13 @@
+package com.atipera.searcher.exception;
+
+/**
+ * Custom exception class to indicate the requested search job does not exist or its result is no longer retained.
+ */
+public class JobNotFoundException extends RuntimeException {
+    /**
+     * Constructs a new JobNotFoundException with a default error message.
+     */
+    public JobNotFoundException() {
+        super("Search job not found");
+    }
+}
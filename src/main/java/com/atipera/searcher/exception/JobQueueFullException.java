@@ -0,0 +1,13 @@
+package com.atipera.searcher.exception;
+
+/**
+ * Custom exception class to indicate a search job was rejected because the job queue is full.
+ */
+public class JobQueueFullException extends RuntimeException {
+    /**
+     * Constructs a new JobQueueFullException with a default error message.
+     */
+    public JobQueueFullException() {
+        super("Too many search jobs are pending, try again later");
+    }
+}
@@ -1,13 +1,38 @@
 package com.atipera.searcher.exception;
 
+import java.time.Duration;
+import java.util.Optional;
+
 /**
  * Custom exception class to indicate the API rate limit has been exceeded.
  */
 public class RateLimitExceededException extends RuntimeException {
+    private final Duration retryAfter;
+
     /**
      * Constructs a new RateLimitExceededException with a default error message.
      */
     public RateLimitExceededException() {
+        this(null);
+    }
+
+    /**
+     * Constructs a new RateLimitExceededException with a default error message
+     * and the time after which the request may be retried.
+     *
+     * @param retryAfter the time until the rate limit resets, may be {@code null} if unknown
+     */
+    public RateLimitExceededException(Duration retryAfter) {
         super("API rate limit exceeded");
+        this.retryAfter = retryAfter;
+    }
+
+    /**
+     * Returns the time after which the request may be retried.
+     *
+     * @return the time until the rate limit resets, empty if unknown
+     */
+    public Optional<Duration> getRetryAfter() {
+        return Optional.ofNullable(retryAfter);
     }
 }
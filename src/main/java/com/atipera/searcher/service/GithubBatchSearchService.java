@@ -0,0 +1,76 @@
+package com.atipera.searcher.service;
+
+import com.atipera.searcher.concurrent.FanOut;
+import com.atipera.searcher.dto.batch.BatchSearchResult;
+import com.atipera.searcher.exception.InvalidRequestException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Service class for searching the repositories of many GitHub users in one request.
+ * Usernames differing only in case are searched once, at most {@code github.search.batch.parallelism}
+ * users are searched at the same time, and the search of every user goes through
+ * {@link GithubSearchService}, so users searched by concurrent batches or requests share one search.
+ */
+@Service
+@RequiredArgsConstructor
+public class GithubBatchSearchService {
+
+    private final GithubSearchService githubSearchService;
+
+    @Value("${github.search.batch.parallelism}")
+    private int batchParallelism;
+
+    @Value("${github.search.batch.max-usernames}")
+    private int maxUsernames;
+
+    /**
+     * Searches the non-forked repositories of every given user.
+     * A failed search is reported in the result of its user and does not abort the batch.
+     * Results are handed to the consumer on the calling thread, in the order of the usernames.
+     *
+     * @param usernames the GitHub usernames
+     * @param consumer  the consumer of the per-user results
+     * @throws InvalidRequestException if there are no usernames, too many of them, or a blank one
+     */
+    public void searchUsers(List<String> usernames, Consumer<BatchSearchResult> consumer) {
+        FanOut.forEachOrdered(distinctUsernames(usernames), batchParallelism, this::searchUser, consumer);
+    }
+
+    private List<String> distinctUsernames(List<String> usernames) {
+        if (usernames == null || usernames.isEmpty()) {
+            throw new InvalidRequestException("At least one username is required");
+        }
+        if (usernames.size() > maxUsernames) {
+            throw new InvalidRequestException("At most " + maxUsernames + " usernames are allowed");
+        }
+        var distinctUsernames = new LinkedHashMap<String, String>();
+        for (var username : usernames) {
+            if (username == null || username.isBlank()) {
+                throw new InvalidRequestException("Usernames must not be blank");
+            }
+            distinctUsernames.putIfAbsent(username.toLowerCase(Locale.ROOT), username);
+        }
+        return List.copyOf(distinctUsernames.values());
+    }
+
+    private BatchSearchResult searchUser(String username) {
+        try {
+            return BatchSearchResult.builder()
+                    .username(username)
+                    .repositories(githubSearchService.processNonForkedUserRepositories(username))
+                    .build();
+        } catch (RuntimeException e) {
+            return BatchSearchResult.builder()
+                    .username(username)
+                    .error(SearchErrors.describe(username, e))
+                    .build();
+        }
+    }
+}
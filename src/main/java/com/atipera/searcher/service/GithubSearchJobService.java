@@ -0,0 +1,233 @@
+package com.atipera.searcher.service;
+
+import com.atipera.searcher.dto.error.ErrorResponse;
+import com.atipera.searcher.dto.github.RepositoryDetails;
+import com.atipera.searcher.dto.job.SearchJobResponse;
+import com.atipera.searcher.dto.job.SearchJobStatus;
+import com.atipera.searcher.exception.JobNotFoundException;
+import com.atipera.searcher.exception.JobQueueFullException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service class for searching the repositories of GitHub users in the background, for accounts too large
+ * to be searched within a request.
+ * <ul>
+ *     <li>Jobs are run by {@code github.search.jobs.workers} workers; at most {@code github.search.jobs.queue-capacity}
+ *     jobs wait for a worker, and further jobs are rejected with a {@link JobQueueFullException}.</li>
+ *     <li>A running job streams the search through {@link GithubSearchService}, so its progress is reported
+ *     as the number of repositories done out of the total once the repository listing is complete.</li>
+ *     <li>A finished job, with its result or error, is kept for {@code github.search.jobs.retention}.
+ *     Finished jobs together keep at most {@code github.search.jobs.max-retained-repositories} repositories,
+ *     each job counting as one more; beyond that, finished jobs are dropped early. Queued and running jobs
+ *     are never dropped, their number is bounded by the workers and the queue.</li>
+ * </ul>
+ */
+@Service
+@Slf4j
+public class GithubSearchJobService implements Closeable {
+
+    private final GithubSearchService githubSearchService;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolExecutor executor;
+    private final Cache<String, SearchJob> jobs;
+
+    /**
+     * Constructs a new GithubSearchJobService.
+     *
+     * @param githubSearchService     the service the searches are run with
+     * @param workers                 the number of jobs run at the same time
+     * @param queueCapacity           the number of jobs that may wait for a worker
+     * @param retention               how long a finished job is kept
+     * @param maxRetainedRepositories the number of repositories finished jobs may keep together
+     * @param meterRegistry           the registry the job metrics are published to
+     */
+    @Autowired
+    public GithubSearchJobService(GithubSearchService githubSearchService,
+                                  @Value("${github.search.jobs.workers}") int workers,
+                                  @Value("${github.search.jobs.queue-capacity}") int queueCapacity,
+                                  @Value("${github.search.jobs.retention}") Duration retention,
+                                  @Value("${github.search.jobs.max-retained-repositories}") long maxRetainedRepositories,
+                                  MeterRegistry meterRegistry) {
+        this(githubSearchService, workers, queueCapacity, retention, maxRetainedRepositories, meterRegistry,
+                Ticker.systemTicker());
+    }
+
+    GithubSearchJobService(GithubSearchService githubSearchService, int workers, int queueCapacity,
+                           Duration retention, long maxRetainedRepositories, MeterRegistry meterRegistry,
+                           Ticker ticker) {
+        this.githubSearchService = githubSearchService;
+        this.meterRegistry = meterRegistry;
+        BlockingQueue<Runnable> queue = queueCapacity > 0 ? new ArrayBlockingQueue<>(queueCapacity)
+                : new SynchronousQueue<>();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS, queue,
+                Thread.ofVirtual().name("search-job-", 0).factory());
+        this.jobs = Caffeine.newBuilder()
+                .expireAfter(new FinishedJobExpiry(retention))
+                .maximumWeight(maxRetainedRepositories)
+                .weigher((String id, SearchJob job) -> job.retainedWeight())
+                .ticker(ticker)
+                .build();
+        Gauge.builder("github.search.jobs.queued", executor, pool -> pool.getQueue().size())
+                .description("Number of search jobs waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("github.search.jobs.running", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Number of search jobs being run")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts a background search of the non-forked repositories of a user.
+     *
+     * @param username the GitHub username
+     * @return the state of the queued job
+     * @throws JobQueueFullException if no more jobs may wait for a worker
+     */
+    public SearchJobResponse submit(String username) {
+        var job = new SearchJob(UUID.randomUUID().toString(), username);
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.invalidate(job.id);
+            meterRegistry.counter("github.search.jobs", "outcome", "rejected").increment();
+            throw new JobQueueFullException();
+        }
+        return job.toResponse();
+    }
+
+    /**
+     * Returns the state of a job.
+     *
+     * @param username the GitHub username the job was started for
+     * @param jobId    the job id
+     * @return the state of the job, with its result once it is finished
+     * @throws JobNotFoundException if there is no such job for the user, or it is no longer kept
+     */
+    public SearchJobResponse get(String username, String jobId) {
+        var job = jobs.getIfPresent(jobId);
+        if (job == null || !job.username.toLowerCase(Locale.ROOT).equals(username.toLowerCase(Locale.ROOT))) {
+            throw new JobNotFoundException();
+        }
+        return job.toResponse();
+    }
+
+    private void run(SearchJob job) {
+        job.status = SearchJobStatus.RUNNING;
+        var outcome = "failed";
+        try {
+            var repositories = new ArrayList<RepositoryDetails>();
+            githubSearchService.streamNonForkedUserRepositories(job.username, total -> job.repositoriesTotal = total,
+                    repositoryDetails -> {
+                        repositories.add(repositoryDetails);
+                        job.repositoriesDone++;
+                    });
+            job.repositories = List.copyOf(repositories);
+            job.status = SearchJobStatus.SUCCEEDED;
+            outcome = "succeeded";
+        } catch (RuntimeException e) {
+            job.error = SearchErrors.describe(job.username, e);
+            job.status = SearchJobStatus.FAILED;
+        } finally {
+            jobs.asMap().replace(job.id, job);
+            meterRegistry.counter("github.search.jobs", "outcome", outcome).increment();
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * A search job; its state is written by the worker running it only.
+     */
+    private static final class SearchJob {
+
+        private final String id;
+        private final String username;
+        private volatile SearchJobStatus status = SearchJobStatus.QUEUED;
+        private volatile int repositoriesDone;
+        private volatile Integer repositoriesTotal;
+        private volatile List<RepositoryDetails> repositories;
+        private volatile ErrorResponse error;
+
+        private SearchJob(String id, String username) {
+            this.id = id;
+            this.username = username;
+        }
+
+        private boolean isFinished() {
+            return status == SearchJobStatus.SUCCEEDED || status == SearchJobStatus.FAILED;
+        }
+
+        /**
+         * Returns the weight of the job in the jobs cache: zero until it is finished, so it cannot be dropped,
+         * then one more than the number of repositories it keeps.
+         *
+         * @return the weight
+         */
+        private int retainedWeight() {
+            if (!isFinished()) {
+                return 0;
+            }
+            return 1 + (repositories == null ? 0 : repositories.size());
+        }
+
+        private SearchJobResponse toResponse() {
+            var currentStatus = status;
+            return SearchJobResponse.builder()
+                    .id(id)
+                    .username(username)
+                    .status(currentStatus)
+                    .repositoriesDone(repositoriesDone)
+                    .repositoriesTotal(repositoriesTotal)
+                    .repositories(currentStatus == SearchJobStatus.SUCCEEDED ? repositories : null)
+                    .error(currentStatus == SearchJobStatus.FAILED ? error : null)
+                    .build();
+        }
+    }
+
+    /**
+     * Keeps jobs until they are finished, and finished jobs for the retention period.
+     * A job is written again once it is finished, which starts its retention.
+     */
+    private record FinishedJobExpiry(Duration retention) implements Expiry<String, SearchJob> {
+
+        @Override
+        public long expireAfterCreate(String id, SearchJob job, long currentTime) {
+            return job.isFinished() ? retention.toNanos() : Long.MAX_VALUE;
+        }
+
+        @Override
+        public long expireAfterUpdate(String id, SearchJob job, long currentTime, long currentDuration) {
+            return job.isFinished() ? retention.toNanos() : currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String id, SearchJob job, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,39 +1,284 @@
 package com.atipera.searcher.service;
 
 import com.atipera.searcher.client.GithubApiClient;
+import com.atipera.searcher.client.GithubGraphqlClient;
+import com.atipera.searcher.client.GithubRepositoryBranches;
+import com.atipera.searcher.concurrent.FanOut;
+import com.atipera.searcher.concurrent.SingleFlight;
 import com.atipera.searcher.dto.github.BranchDetails;
 import com.atipera.searcher.dto.github.BranchResponse;
 import com.atipera.searcher.dto.github.RepositoryDetails;
 import com.atipera.searcher.dto.github.RepositoryResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 
 /**
  * Service class for searching GitHub repositories and processing their details.
- * Utilizes the {@link GithubApiClient} to fetch repository and branch information from GitHub.
+ * Utilizes the {@link GithubApiClient} to fetch repository and branch information from GitHub,
+ * or the {@link GithubGraphqlClient} when {@code github.api.backend} is set to {@code graphql}.
  */
 @Service
 @RequiredArgsConstructor
 public class GithubSearchService {
 
+    private static final String GRAPHQL_BACKEND = "graphql";
+
     private final GithubApiClient githubApiClient;
+    private final GithubGraphqlClient githubGraphqlClient;
+    private final RepositoryDetailsMapper repositoryDetailsMapper;
+    private final MeterRegistry meterRegistry;
+    private final SingleFlight<String, List<RepositoryDetails>> searchSingleFlight;
+    private final RepositoryBranchSnapshots repositoryBranchSnapshots;
+    private final HotUserSearchCache hotUserSearchCache;
+
+    @Value("${github.search.branch-fetch.parallelism}")
+    private int branchFetchParallelism;
+
+    @Value("${github.api.backend}")
+    private String apiBackend;
 
     /**
      * Retrieves and processes all non-forked repositories for a specified GitHub user.
      * This method filters out forked repositories and constructs detailed representations
      * of the remaining repositories, including their names and owners.
+     * Branches of the remaining repositories are fetched concurrently on virtual threads,
+     * with at most {@code github.search.branch-fetch.parallelism} calls in flight, except for repositories
+     * not pushed to since their branches were last fetched, which reuse the {@link RepositoryBranchSnapshots}.
+     * Concurrent searches for the same user share a single computation and its result.
+     * Results of hot users are served from the {@link HotUserSearchCache}; a result due for a refresh is still
+     * served while the {@link HotUserRefresher} replaces it in the background, within the share of the rate limit
+     * granted to refreshes, so hot users do not wait for GitHub.
+     * Records the number of repositories, the branch fetch fan-out and the total duration of the search.
      *
      * @param username the GitHub username
      * @return A list of {@link RepositoryDetails} excluding forked repositories
      */
     public List<RepositoryDetails> processNonForkedUserRepositories(String username) {
-        var repositoryResponseList = githubApiClient.fetchUserRepositories(username);
-        return repositoryResponseList.stream()
+        var key = username.toLowerCase(Locale.ROOT);
+        hotUserSearchCache.recordRequest(key);
+        var cachedSearch = hotUserSearchCache.get(key);
+        if (cachedSearch.isPresent()) {
+            var stale = hotUserSearchCache.needsRefresh(cachedSearch.get());
+            if (stale) {
+                hotUserSearchCache.requestRefresh(key);
+            }
+            meterRegistry.counter("github.search.hot-users.hits", "freshness", stale ? "stale" : "fresh").increment();
+            return cachedSearch.get().repositoryDetails();
+        }
+        return search(username);
+    }
+
+    /**
+     * Retrieves the page of non-forked repositories of a user selected by a {@link SearchQuery}.
+     * Repositories are filtered, sorted and paginated before any branch is fetched, so branch listings
+     * are only requested for the repositories on the page, and not at all when the query leaves branches out;
+     * such a search takes the repository listing calls only.
+     * Narrowed searches are neither coalesced nor kept for hot users; the same metrics as for a regular search
+     * are recorded.
+     *
+     * @param username the GitHub username
+     * @param query    the query selecting the repositories, branches and fields
+     * @return the selected page of {@link RepositoryDetails}
+     */
+    public SearchPage queryNonForkedUserRepositories(String username, SearchQuery query) {
+        var sample = Timer.start(meterRegistry);
+        var outcome = "error";
+        try {
+            var searchPage = isGraphqlBackend()
+                    ? queryNonForkedUserRepositoriesWithBranches(username, query)
+                    : queryNonForkedUserRepositoriesWithBranchFetches(username, query);
+            outcome = "success";
+            return searchPage;
+        } finally {
+            sample.stop(meterRegistry.timer("github.search.duration", "outcome", outcome));
+        }
+    }
+
+    /**
+     * Selects the page of a query from the repository listing and fetches the branches of the selected
+     * repositories only.
+     *
+     * @param username the GitHub username
+     * @param query    the query selecting the repositories, branches and fields
+     * @return the selected page of {@link RepositoryDetails}
+     */
+    private SearchPage queryNonForkedUserRepositoriesWithBranchFetches(String username, SearchQuery query) {
+        var repositories = fetchNonForkedUserRepositories(username);
+        var selectedRepositories = query.select(repositories);
+        List<RepositoryDetails> repositoryDetails;
+        if (query.branches() == SearchQuery.BranchSelection.NONE) {
+            meterRegistry.summary("github.search.branch.fetches").record(0);
+            repositoryDetails = selectedRepositories.stream()
+                    .map(repository -> repositoryDetailsMapper.toRepositoryDetails(repository, List.of()))
+                    .toList();
+        } else {
+            recordBranchFetches(selectedRepositories);
+            repositoryDetails = FanOut.map(selectedRepositories, branchFetchParallelism, repository ->
+                    repositoryDetailsMapper.toRepositoryDetails(repository,
+                            query.selectBranches(repository, fetchSelectedBranches(repository, query))));
+        }
+        return new SearchPage(repositoryDetails.stream().map(query::project).toList(),
+                query.nextCursor(query.countMatching(repositories)).orElse(null));
+    }
+
+    /**
+     * Selects the page of a query from the GraphQL search, which returns the branches with the repositories
+     * and so costs the same number of calls whichever repositories are selected.
+     *
+     * @param username the GitHub username
+     * @param query    the query selecting the repositories, branches and fields
+     * @return the selected page of {@link RepositoryDetails}
+     */
+    private SearchPage queryNonForkedUserRepositoriesWithBranches(String username, SearchQuery query) {
+        var repositories = githubGraphqlClient.fetchNonForkedRepositoriesWithBranches(username);
+        meterRegistry.summary("github.search.repositories").record(repositories.size());
+        var branchesByRepository = new IdentityHashMap<RepositoryResponse, List<BranchResponse>>();
+        repositories.forEach(repository -> branchesByRepository.put(repository.repository(), repository.branches()));
+        var repositoryResponses = repositories.stream()
+                .map(GithubRepositoryBranches::repository)
+                .toList();
+        var repositoryDetails = query.select(repositoryResponses).stream()
+                .map(repository -> repositoryDetailsMapper.toRepositoryDetails(repository, query.selectBranches(
+                        repository, branchesByRepository.get(repository).stream()
+                                .map(repositoryDetailsMapper::toBranchDetails)
+                                .toList())))
+                .map(query::project)
+                .toList();
+        return new SearchPage(repositoryDetails,
+                query.nextCursor(query.countMatching(repositoryResponses)).orElse(null));
+    }
+
+    /**
+     * Searches the repositories of a user bypassing the kept results, and keeps the new result if the user is hot.
+     * Used to refresh the results of hot users ahead of their requests.
+     *
+     * @param username the GitHub username
+     * @return A list of {@link RepositoryDetails} excluding forked repositories
+     */
+    public List<RepositoryDetails> refreshNonForkedUserRepositories(String username) {
+        return search(username);
+    }
+
+    private List<RepositoryDetails> search(String username) {
+        var key = username.toLowerCase(Locale.ROOT);
+        var sample = Timer.start(meterRegistry);
+        var outcome = "error";
+        try {
+            var repositoryDetails = searchSingleFlight.execute(key, () -> {
+                var result = searchNonForkedUserRepositories(username);
+                hotUserSearchCache.put(key, result);
+                return result;
+            });
+            outcome = "success";
+            return repositoryDetails;
+        } finally {
+            sample.stop(meterRegistry.timer("github.search.duration", "outcome", outcome));
+        }
+    }
+
+    /**
+     * Streams the details of all non-forked repositories for a specified GitHub user.
+     * Each {@link RepositoryDetails} is handed to the consumer as soon as the branches of the repository
+     * and of all repositories listed before it are fetched, so the details of the whole account are never
+     * held at once. The consumer is invoked on the calling thread, in the order of the repository listing.
+     * Streamed searches are not coalesced; the same metrics as for a regular search are recorded.
+     *
+     * @param username the GitHub username
+     * @param consumer the consumer of the repository details
+     */
+    public void streamNonForkedUserRepositories(String username, Consumer<RepositoryDetails> consumer) {
+        streamNonForkedUserRepositories(username, total -> {
+        }, consumer);
+    }
+
+    /**
+     * Streams the details of all non-forked repositories for a specified GitHub user, like
+     * {@link #streamNonForkedUserRepositories(String, Consumer)}, and reports the number of repositories
+     * once the repository listing is complete, before the details of the first repository are handed over.
+     *
+     * @param username the GitHub username
+     * @param onListed the callback receiving the number of non-forked repositories
+     * @param consumer the consumer of the repository details
+     */
+    public void streamNonForkedUserRepositories(String username, IntConsumer onListed,
+                                                Consumer<RepositoryDetails> consumer) {
+        var sample = Timer.start(meterRegistry);
+        var outcome = "error";
+        try {
+            if (isGraphqlBackend()) {
+                var repositoryDetails = fetchNonForkedUserRepositoriesWithBranches(username);
+                onListed.accept(repositoryDetails.size());
+                repositoryDetails.forEach(consumer);
+            } else {
+                var repositories = fetchNonForkedUserRepositories(username);
+                onListed.accept(repositories.size());
+                recordBranchFetches(repositories);
+                FanOut.forEachOrdered(repositories, branchFetchParallelism, this::createRepositoryDetailsFromResponse,
+                        consumer);
+            }
+            outcome = "success";
+        } finally {
+            sample.stop(meterRegistry.timer("github.search.duration", "outcome", outcome));
+        }
+    }
+
+    private List<RepositoryDetails> searchNonForkedUserRepositories(String username) {
+        if (isGraphqlBackend()) {
+            return fetchNonForkedUserRepositoriesWithBranches(username);
+        }
+        var repositories = fetchNonForkedUserRepositories(username);
+        recordBranchFetches(repositories);
+        return FanOut.map(repositories, branchFetchParallelism, this::createRepositoryDetailsFromResponse);
+    }
+
+    /**
+     * Fetches all non-forked repositories of a user together with their branches from the GraphQL API,
+     * which takes one call per 100 repositories instead of a branch listing per repository.
+     *
+     * @param username the GitHub username
+     * @return A list of {@link RepositoryDetails} excluding forked repositories
+     */
+    private List<RepositoryDetails> fetchNonForkedUserRepositoriesWithBranches(String username) {
+        var repositories = githubGraphqlClient.fetchNonForkedRepositoriesWithBranches(username);
+        meterRegistry.summary("github.search.repositories").record(repositories.size());
+        return repositories.stream()
+                .map(repository -> repositoryDetailsMapper.toRepositoryDetails(repository.repository(),
+                        repository.branches().stream()
+                                .map(repositoryDetailsMapper::toBranchDetails)
+                                .toList()))
+                .toList();
+    }
+
+    private boolean isGraphqlBackend() {
+        return GRAPHQL_BACKEND.equals(apiBackend);
+    }
+
+    private List<RepositoryResponse> fetchNonForkedUserRepositories(String username) {
+        var nonForkedRepositories = githubApiClient.fetchUserRepositories(username).stream()
                 .filter(repository -> !repository.isForked())
-                .map(this::createRepositoryDetailsFromResponse)
                 .toList();
+        meterRegistry.summary("github.search.repositories").record(nonForkedRepositories.size());
+        return nonForkedRepositories;
+    }
+
+    /**
+     * Records how many of the given repositories need their branches fetched, i.e. have no current snapshot.
+     *
+     * @param repositories the repositories whose branches are about to be listed
+     */
+    private void recordBranchFetches(List<RepositoryResponse> repositories) {
+        meterRegistry.summary("github.search.branch.fetches").record(repositories.stream()
+                .filter(repository -> repositoryBranchSnapshots.branchesIfUnchanged(repository).isEmpty())
+                .count());
     }
 
     /**
@@ -48,39 +293,58 @@ public class GithubSearchService {
     private List<BranchDetails> processRepositoryBranches(String repositoryName, String username) {
         var branchResponseList = githubApiClient.fetchRepositoryBranches(repositoryName, username);
         return branchResponseList.stream()
-                .map(this::createBranchDetailsFromResponse)
+                .map(repositoryDetailsMapper::toBranchDetails)
                 .toList();
     }
 
-    /**
-     * Creates a {@link BranchDetails} instance from a branch response.
-     * This method extracts the branch name and latest commit SHA from the response,
-     * encapsulating them in a {@link BranchDetails} object.
-     *
-     * @param branchResponse the branch response to process
-     * @return a {@link BranchDetails} containing the branch's name and commit SHA
-     */
-    private BranchDetails createBranchDetailsFromResponse(BranchResponse branchResponse) {
-        return BranchDetails.builder()
-                .name(branchResponse.getName())
-                .commitSha(branchResponse.getCommit().getSha())
-                .build();
-    }
-
     /**
      * Creates a {@link RepositoryDetails} instance from a repository response.
      * This method processes the repository's branches and encapsulates the repository's
      * name, owner's login, and branches in a {@link RepositoryDetails} object.
+     * The branches are only fetched if the repository was pushed to since they were last fetched.
      *
      * @param repositoryResponse the repository response to process
      * @return a {@link RepositoryDetails} containing the repository's details
      */
     private RepositoryDetails createRepositoryDetailsFromResponse(RepositoryResponse repositoryResponse) {
-        return RepositoryDetails.builder()
-                .repositoryName(repositoryResponse.getName())
-                .ownerLogin(repositoryResponse.getOwner().getLogin())
-                .branches(processRepositoryBranches(repositoryResponse.getName(),
-                        repositoryResponse.getOwner().getLogin()))
-                .build();
+        return repositoryDetailsMapper.toRepositoryDetails(repositoryResponse,
+                fetchRepositoryBranches(repositoryResponse));
+    }
+
+    /**
+     * Returns the branches of a repository a query asks for. The default branch alone is fetched with a single
+     * call instead of the whole branch listing, unless the listing is known to be unchanged.
+     *
+     * @param repositoryResponse the repository
+     * @param query              the query selecting the branches
+     * @return the {@link BranchDetails} of the branches, to be narrowed by {@link SearchQuery#selectBranches}
+     */
+    private List<BranchDetails> fetchSelectedBranches(RepositoryResponse repositoryResponse, SearchQuery query) {
+        if (query.branches() != SearchQuery.BranchSelection.DEFAULT || repositoryResponse.getDefaultBranch() == null) {
+            return fetchRepositoryBranches(repositoryResponse);
+        }
+        return repositoryBranchSnapshots.branchesIfUnchanged(repositoryResponse)
+                .orElseGet(() -> githubApiClient.fetchRepositoryBranch(repositoryResponse.getName(),
+                                repositoryResponse.getDefaultBranch(), repositoryResponse.getOwner().getLogin())
+                        .stream()
+                        .map(repositoryDetailsMapper::toBranchDetails)
+                        .toList());
+    }
+
+    /**
+     * Returns the branches of a repository, fetching them only if the repository was pushed to
+     * since they were last fetched.
+     *
+     * @param repositoryResponse the repository
+     * @return the {@link BranchDetails} of all branches of the repository
+     */
+    private List<BranchDetails> fetchRepositoryBranches(RepositoryResponse repositoryResponse) {
+        return repositoryBranchSnapshots.branchesIfUnchanged(repositoryResponse)
+                .orElseGet(() -> {
+                    var fetchedBranches = processRepositoryBranches(repositoryResponse.getName(),
+                            repositoryResponse.getOwner().getLogin());
+                    repositoryBranchSnapshots.put(repositoryResponse, fetchedBranches);
+                    return fetchedBranches;
+                });
     }
 }
@@ -0,0 +1,147 @@
+package com.atipera.searcher.service;
+
+import com.atipera.searcher.client.GithubRateLimit;
+import com.atipera.searcher.client.GithubRateLimitScheduler;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Refreshes the search results of hot users in the background, so their requests are served from the
+ * {@link HotUserSearchCache} instead of waiting for GitHub.
+ * <ul>
+ *     <li>Every {@code github.search.hot-users.refresh-interval} the hot users are ranked again, and the ones
+ *     without a result or with a result due for a refresh are searched, spread evenly over the interval.</li>
+ *     <li>Refreshes of one interval may spend at most {@code github.search.hot-users.rate-limit-share} of the
+ *     hourly rate limit prorated to the interval. Only the calls the refreshes send themselves are counted, not
+ *     those of searches running meanwhile, and refreshes beyond the allowance are skipped until the next
+ *     interval.</li>
+ *     <li>Results served while due for a refresh are refreshed as soon as they are requested, within the
+ *     allowance of the current interval; requests for a user already waiting for such a refresh are dropped.</li>
+ * </ul>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class HotUserRefresher implements Closeable {
+
+    private static final Duration RATE_LIMIT_WINDOW = Duration.ofHours(1);
+
+    private final GithubSearchService githubSearchService;
+    private final HotUserSearchCache hotUserSearchCache;
+    private final GithubRateLimitScheduler githubRateLimitScheduler;
+    private final MeterRegistry meterRegistry;
+    private final ScheduledExecutorService executor =
+            Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("hot-user-refresher").factory());
+    private final Set<String> refreshesInFlight = ConcurrentHashMap.newKeySet();
+    private volatile AtomicLong allowance = new AtomicLong();
+
+    @Value("${github.search.hot-users.refresh-interval}")
+    private Duration refreshInterval;
+
+    @Value("${github.search.hot-users.rate-limit-share}")
+    private double rateLimitShare;
+
+    /**
+     * Starts the refresh cycles once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        hotUserSearchCache.onRefreshRequested(this::refreshSoon);
+        executor.scheduleAtFixedRate(this::refreshHotUsers, 0, refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Ranks the hot users and schedules the refreshes of this interval.
+     */
+    void refreshHotUsers() {
+        var allowance = new AtomicLong(refreshAllowance(githubRateLimitScheduler.currentRateLimit()));
+        this.allowance = allowance;
+        var usernames = hotUserSearchCache.rankHotUsers().stream()
+                .filter(hotUserSearchCache::needsRefresh)
+                .toList();
+        if (usernames.isEmpty()) {
+            return;
+        }
+        var spacing = refreshInterval.toMillis() / usernames.size();
+        for (int i = 0; i < usernames.size(); i++) {
+            var username = usernames.get(i);
+            executor.schedule(() -> refresh(username, allowance), i * spacing, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Schedules an immediate refresh of a result that was served while due for a refresh.
+     *
+     * @param username the username
+     */
+    void refreshSoon(String username) {
+        if (!refreshesInFlight.add(username)) {
+            return;
+        }
+        var allowance = this.allowance;
+        try {
+            executor.execute(() -> {
+                try {
+                    refresh(username, allowance);
+                } finally {
+                    refreshesInFlight.remove(username);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // the executor is shut down, so the result is no longer refreshed
+            refreshesInFlight.remove(username);
+        }
+    }
+
+    private void refresh(String username, AtomicLong allowance) {
+        if (allowance.get() <= 0) {
+            meterRegistry.counter("github.search.hot-users.refreshes", "outcome", "skipped").increment();
+            return;
+        }
+        var spentCalls = new AtomicLong();
+        var outcome = "error";
+        try {
+            githubRateLimitScheduler.countSpentCalls(spentCalls,
+                    () -> githubSearchService.refreshNonForkedUserRepositories(username));
+            outcome = "success";
+        } catch (RuntimeException e) {
+            log.warn("Failed to refresh search results of {}: {}", username, e.getMessage());
+        } finally {
+            allowance.addAndGet(-spentCalls.get());
+            meterRegistry.counter("github.search.hot-users.refreshes", "outcome", outcome).increment();
+        }
+    }
+
+    /**
+     * Computes how many calls the refreshes of one interval may spend.
+     *
+     * @param rateLimit the currently tracked budget
+     * @return the allowance, unbounded while the budget is unknown
+     */
+    long refreshAllowance(GithubRateLimit rateLimit) {
+        if (rateLimit.limit() <= 0) {
+            return Long.MAX_VALUE;
+        }
+        return (long) (rateLimit.limit() * rateLimitShare * refreshInterval.toMillis() / RATE_LIMIT_WINDOW.toMillis());
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
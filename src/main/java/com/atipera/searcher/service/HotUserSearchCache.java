@@ -0,0 +1,195 @@
+package com.atipera.searcher.service;
+
+import com.atipera.searcher.dto.github.RepositoryDetails;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the search results of hot users, the few usernames that make up most of the traffic.
+ * A user is hot if it is listed in {@code github.search.hot-users.usernames} or among the
+ * {@code github.search.hot-users.learned-count} most requested usernames at the last ranking.
+ * <ul>
+ *     <li>Requests are counted per username; every ranking halves the counts, so the learned set
+ *     follows shifts in traffic.</li>
+ *     <li>Results of hot users are served until they are {@code max-stale} old, and are due for a
+ *     refresh once they are {@code refresh-after} old. Serving a result due for a refresh requests one from
+ *     the listener registered with {@link #onRefreshRequested(Consumer)}.</li>
+ * </ul>
+ * Usernames are expected to be normalized to lower case by the caller.
+ */
+public class HotUserSearchCache {
+
+    private static final int MAXIMUM_TRACKED_USERS = 10_000;
+
+    private final Set<String> configuredUsernames;
+    private final int learnedCount;
+    private final Duration refreshAfter;
+    private final Clock clock;
+    private final Cache<String, AtomicLong> requestCounts;
+    private final Cache<String, CachedSearch> results;
+
+    private volatile Set<String> learnedUsernames = Set.of();
+    private volatile Consumer<String> refreshListener = username -> {
+    };
+
+    /**
+     * Constructs a new HotUserSearchCache.
+     *
+     * @param configuredUsernames the usernames that are always hot
+     * @param learnedCount        the number of most requested usernames that are hot in addition
+     * @param refreshAfter        the age after which a result is due for a refresh
+     * @param maxStale            the age after which a result is no longer served
+     */
+    public HotUserSearchCache(List<String> configuredUsernames, int learnedCount, Duration refreshAfter,
+                              Duration maxStale) {
+        this(configuredUsernames, learnedCount, refreshAfter, maxStale, Clock.systemUTC());
+    }
+
+    HotUserSearchCache(List<String> configuredUsernames, int learnedCount, Duration refreshAfter, Duration maxStale,
+                       Clock clock) {
+        this.configuredUsernames = configuredUsernames.stream()
+                .filter(username -> !username.isBlank())
+                .map(username -> username.strip().toLowerCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+        this.learnedCount = learnedCount;
+        this.refreshAfter = refreshAfter;
+        this.clock = clock;
+        this.requestCounts = Caffeine.newBuilder()
+                .maximumSize(learnedCount > 0 ? MAXIMUM_TRACKED_USERS : 0)
+                .build();
+        this.results = Caffeine.newBuilder()
+                .maximumSize(this.configuredUsernames.size() + learnedCount)
+                .expireAfterWrite(maxStale)
+                .build();
+    }
+
+    /**
+     * Counts a request for a username towards the ranking of learned hot users.
+     *
+     * @param username the requested username
+     */
+    public void recordRequest(String username) {
+        if (learnedCount > 0) {
+            requestCounts.get(username, key -> new AtomicLong()).incrementAndGet();
+        }
+    }
+
+    /**
+     * Ranks the requested usernames, replaces the learned hot users with the most requested ones
+     * and halves all request counts.
+     *
+     * @return all hot usernames, the configured ones first, followed by the learned ones by descending frequency
+     */
+    public Set<String> rankHotUsers() {
+        var counts = requestCounts.asMap();
+        learnedUsernames = counts.entrySet().stream()
+                .filter(entry -> !configuredUsernames.contains(entry.getKey()))
+                .sorted(Comparator.comparingLong((Map.Entry<String, AtomicLong> entry) -> entry.getValue().get())
+                        .reversed())
+                .limit(learnedCount)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        counts.forEach((username, count) -> {
+            if (count.updateAndGet(value -> value / 2) == 0) {
+                counts.remove(username, count);
+            }
+        });
+        var hotUsernames = new LinkedHashSet<>(configuredUsernames);
+        hotUsernames.addAll(learnedUsernames);
+        return hotUsernames;
+    }
+
+    /**
+     * Checks whether a username is hot.
+     *
+     * @param username the username
+     * @return {@code true} if its results are kept
+     */
+    public boolean isHot(String username) {
+        return configuredUsernames.contains(username) || learnedUsernames.contains(username);
+    }
+
+    /**
+     * Returns the kept result of a hot user, unless it is older than the maximum staleness.
+     *
+     * @param username the username
+     * @return the kept result
+     */
+    public Optional<CachedSearch> get(String username) {
+        return Optional.ofNullable(results.getIfPresent(username));
+    }
+
+    /**
+     * Keeps the result of a search if the user is hot.
+     *
+     * @param username          the username
+     * @param repositoryDetails the search result
+     */
+    public void put(String username, List<RepositoryDetails> repositoryDetails) {
+        if (isHot(username)) {
+            results.put(username, new CachedSearch(repositoryDetails, clock.instant()));
+        }
+    }
+
+    /**
+     * Checks whether the result of a user is missing or due for a refresh.
+     *
+     * @param username the username
+     * @return {@code true} if the user should be searched again
+     */
+    public boolean needsRefresh(String username) {
+        return get(username).map(this::needsRefresh).orElse(true);
+    }
+
+    /**
+     * Checks whether a kept result is due for a refresh.
+     *
+     * @param cachedSearch the kept result
+     * @return {@code true} if the result is at least {@code refresh-after} old
+     */
+    public boolean needsRefresh(CachedSearch cachedSearch) {
+        return !cachedSearch.fetchedAt().plus(refreshAfter).isAfter(clock.instant());
+    }
+
+    /**
+     * Registers the listener refreshing results that were served while due for a refresh.
+     *
+     * @param refreshListener the listener, called with the username on the thread serving the result
+     */
+    public void onRefreshRequested(Consumer<String> refreshListener) {
+        this.refreshListener = refreshListener;
+    }
+
+    /**
+     * Requests a refresh of a result that was served while due for one.
+     * Without a registered listener the request is dropped, and the result is refreshed by the next refresh cycle.
+     *
+     * @param username the username
+     */
+    public void requestRefresh(String username) {
+        refreshListener.accept(username);
+    }
+
+    /**
+     * A kept search result.
+     *
+     * @param repositoryDetails the search result
+     * @param fetchedAt         when the search completed
+     */
+    public record CachedSearch(List<RepositoryDetails> repositoryDetails, Instant fetchedAt) {
+    }
+}
@@ -0,0 +1,192 @@
+package com.atipera.searcher.service;
+
+import com.atipera.searcher.client.ReactiveGithubApiClient;
+import com.atipera.searcher.dto.github.BranchDetails;
+import com.atipera.searcher.dto.github.RepositoryDetails;
+import com.atipera.searcher.dto.github.RepositoryResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Non-blocking counterpart of {@link GithubSearchService}.
+ * Utilizes the {@link ReactiveGithubApiClient} to fetch repository and branch information from GitHub
+ * without holding a thread per outstanding call.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReactiveGithubSearchService {
+
+    private final ReactiveGithubApiClient reactiveGithubApiClient;
+    private final RepositoryDetailsMapper repositoryDetailsMapper;
+    private final MeterRegistry meterRegistry;
+    private final RepositoryBranchSnapshots repositoryBranchSnapshots;
+
+    @Value("${github.search.branch-fetch.parallelism}")
+    private int branchFetchParallelism;
+
+    /**
+     * Retrieves and processes all non-forked repositories for a specified GitHub user.
+     * Branches of the remaining repositories are requested concurrently, with at most
+     * {@code github.search.branch-fetch.parallelism} calls in flight, and the results keep
+     * the order of the repository listing.
+     * Records the same metrics as {@link GithubSearchService#processNonForkedUserRepositories(String)}.
+     *
+     * @param username the GitHub username
+     * @return Mono of the list of {@link RepositoryDetails} excluding forked repositories
+     */
+    public Mono<List<RepositoryDetails>> processNonForkedUserRepositories(String username) {
+        return Mono.defer(() -> {
+            var sample = Timer.start(meterRegistry);
+            return searchNonForkedUserRepositories(username)
+                    .collectList()
+                    .doOnSuccess(repositoryDetails -> sample.stop(searchTimer("success")))
+                    .doOnError(e -> sample.stop(searchTimer("error")));
+        });
+    }
+
+    /**
+     * Retrieves the page of non-forked repositories of a user selected by a {@link SearchQuery}.
+     * Repositories are filtered, sorted and paginated once the listing is complete and before any branch
+     * is fetched, so branch listings are only requested for the repositories on the page, and not at all
+     * when the query leaves branches out.
+     * Records the same metrics as {@link GithubSearchService#queryNonForkedUserRepositories(String, SearchQuery)}.
+     *
+     * @param username the GitHub username
+     * @param query    the query selecting the repositories, branches and fields
+     * @return Mono of the selected page of {@link RepositoryDetails}
+     */
+    public Mono<SearchPage> queryNonForkedUserRepositories(String username, SearchQuery query) {
+        return Mono.defer(() -> {
+            var sample = Timer.start(meterRegistry);
+            return reactiveGithubApiClient.fetchUserRepositories(username)
+                    .filter(repository -> !repository.isForked())
+                    .collectList()
+                    .flatMap(repositories -> selectPage(repositories, query))
+                    .doOnSuccess(searchPage -> sample.stop(searchTimer("success")))
+                    .doOnError(e -> sample.stop(searchTimer("error")));
+        });
+    }
+
+    /**
+     * Selects the page of a query from the non-forked repositories of a user and fetches the branches
+     * of the selected repositories, unless the query leaves them out.
+     *
+     * @param repositories the non-forked repositories, in the order of the listing
+     * @param query        the query selecting the repositories, branches and fields
+     * @return Mono of the selected page of {@link RepositoryDetails}
+     */
+    private Mono<SearchPage> selectPage(List<RepositoryResponse> repositories, SearchQuery query) {
+        meterRegistry.summary("github.search.repositories").record(repositories.size());
+        var selectedRepositories = query.select(repositories);
+        var withBranches = query.branches() != SearchQuery.BranchSelection.NONE;
+        meterRegistry.summary("github.search.branch.fetches").record(withBranches ? selectedRepositories.stream()
+                .filter(repository -> repositoryBranchSnapshots.branchesIfUnchanged(repository).isEmpty())
+                .count() : 0);
+        return Flux.fromIterable(selectedRepositories)
+                .flatMapSequential(repository -> (withBranches
+                                ? fetchSelectedBranches(repository, query)
+                                : Mono.just(List.<BranchDetails>of()))
+                                .map(branches -> query.project(repositoryDetailsMapper.toRepositoryDetails(
+                                        repository, query.selectBranches(repository, branches)))),
+                        Math.max(1, branchFetchParallelism))
+                .collectList()
+                .map(repositoryDetails -> new SearchPage(repositoryDetails,
+                        query.nextCursor(query.countMatching(repositories)).orElse(null)));
+    }
+
+    /**
+     * Streams the details of all non-forked repositories for a specified GitHub user.
+     * Each {@link RepositoryDetails} is emitted as soon as the branches of the repository and of all
+     * repositories listed before it are fetched, and demand from the subscriber bounds how far ahead
+     * branches are fetched. Records the same metrics as a regular search.
+     *
+     * @param username the GitHub username
+     * @return Flux of {@link RepositoryDetails} excluding forked repositories, in the order of the listing
+     */
+    public Flux<RepositoryDetails> streamNonForkedUserRepositories(String username) {
+        return Flux.defer(() -> {
+            var sample = Timer.start(meterRegistry);
+            return searchNonForkedUserRepositories(username)
+                    .doOnComplete(() -> sample.stop(searchTimer("success")))
+                    .doOnError(e -> sample.stop(searchTimer("error")));
+        });
+    }
+
+    private Flux<RepositoryDetails> searchNonForkedUserRepositories(String username) {
+        var repositoryCount = new AtomicInteger();
+        var branchFetchCount = new AtomicInteger();
+        return reactiveGithubApiClient.fetchUserRepositories(username)
+                .filter(repository -> !repository.isForked())
+                .doOnNext(repository -> {
+                    repositoryCount.incrementAndGet();
+                    if (repositoryBranchSnapshots.branchesIfUnchanged(repository).isEmpty()) {
+                        branchFetchCount.incrementAndGet();
+                    }
+                })
+                .doOnComplete(() -> {
+                    meterRegistry.summary("github.search.repositories").record(repositoryCount.get());
+                    meterRegistry.summary("github.search.branch.fetches").record(branchFetchCount.get());
+                })
+                .flatMapSequential(this::createRepositoryDetailsFromResponse, Math.max(1, branchFetchParallelism));
+    }
+
+    /**
+     * Creates a {@link RepositoryDetails} instance from a repository response, fetching its branches
+     * unless the repository was not pushed to since they were last fetched.
+     *
+     * @param repositoryResponse the repository response to process
+     * @return Mono of the {@link RepositoryDetails} containing the repository's details
+     */
+    private Mono<RepositoryDetails> createRepositoryDetailsFromResponse(RepositoryResponse repositoryResponse) {
+        return fetchRepositoryBranches(repositoryResponse)
+                .map(branches -> repositoryDetailsMapper.toRepositoryDetails(repositoryResponse, branches));
+    }
+
+    /**
+     * Returns the branches of a repository a query asks for. The default branch alone is fetched with a single
+     * call instead of the whole branch listing, unless the listing is known to be unchanged.
+     *
+     * @param repositoryResponse the repository
+     * @param query              the query selecting the branches
+     * @return Mono of the {@link BranchDetails} of the branches, to be narrowed by {@link SearchQuery#selectBranches}
+     */
+    private Mono<List<BranchDetails>> fetchSelectedBranches(RepositoryResponse repositoryResponse, SearchQuery query) {
+        if (query.branches() != SearchQuery.BranchSelection.DEFAULT || repositoryResponse.getDefaultBranch() == null) {
+            return fetchRepositoryBranches(repositoryResponse);
+        }
+        return Mono.justOrEmpty(repositoryBranchSnapshots.branchesIfUnchanged(repositoryResponse))
+                .switchIfEmpty(Mono.defer(() -> reactiveGithubApiClient.fetchRepositoryBranch(
+                                repositoryResponse.getName(), repositoryResponse.getDefaultBranch(),
+                                repositoryResponse.getOwner().getLogin())
+                        .map(repositoryDetailsMapper::toBranchDetails)
+                        .collectList()));
+    }
+
+    /**
+     * Returns the branches of a repository, fetching them only if the repository was pushed to
+     * since they were last fetched.
+     *
+     * @param repositoryResponse the repository
+     * @return Mono of the {@link BranchDetails} of all branches of the repository
+     */
+    private Mono<List<BranchDetails>> fetchRepositoryBranches(RepositoryResponse repositoryResponse) {
+        return Mono.justOrEmpty(repositoryBranchSnapshots.branchesIfUnchanged(repositoryResponse))
+                .switchIfEmpty(Mono.defer(() -> reactiveGithubApiClient.fetchRepositoryBranches(
+                                repositoryResponse.getName(), repositoryResponse.getOwner().getLogin())
+                        .map(repositoryDetailsMapper::toBranchDetails)
+                        .collectList()
+                        .doOnNext(branches -> repositoryBranchSnapshots.put(repositoryResponse, branches))));
+    }
+
+    private Timer searchTimer(String outcome) {
+        return meterRegistry.timer("github.search.duration", "outcome", outcome);
+    }
+}
@@ -0,0 +1,70 @@
+package com.atipera.searcher.service;
+
+import com.atipera.searcher.dto.github.BranchDetails;
+import com.atipera.searcher.dto.github.RepositoryResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Remembers the branches of searched repositories together with the push timestamp they were fetched at.
+ * GitHub moves {@code pushed_at} whenever a branch of the repository is pushed to, created or deleted,
+ * so as long as it has not moved, the remembered branches are still current and the branch listing can be skipped.
+ * Snapshots are bounded in number and dropped after the retention, which also bounds how long a change
+ * that does not move the timestamp can go unnoticed. Repositories without a push timestamp are never remembered.
+ */
+public class RepositoryBranchSnapshots {
+
+    private final Cache<String, Snapshot> cache;
+
+    /**
+     * Constructs a new RepositoryBranchSnapshots.
+     *
+     * @param maximumSize the maximum number of remembered repositories, {@code 0} disables the snapshots
+     * @param retention   how long a snapshot is kept after it was last written
+     */
+    public RepositoryBranchSnapshots(long maximumSize, Duration retention) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(retention)
+                .build();
+    }
+
+    /**
+     * Returns the remembered branches of a repository if it has not been pushed to since they were fetched.
+     *
+     * @param repository the repository as currently listed by GitHub
+     * @return the remembered branches, empty if they have to be fetched again
+     */
+    public Optional<List<BranchDetails>> branchesIfUnchanged(RepositoryResponse repository) {
+        if (repository.getPushedAt() == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(cache.getIfPresent(key(repository)))
+                .filter(snapshot -> snapshot.pushedAt().equals(repository.getPushedAt()))
+                .map(Snapshot::branches);
+    }
+
+    /**
+     * Remembers the branches fetched for a repository.
+     *
+     * @param repository the repository the branches were fetched for
+     * @param branches   the fetched branches
+     */
+    public void put(RepositoryResponse repository, List<BranchDetails> branches) {
+        if (repository.getPushedAt() != null) {
+            cache.put(key(repository), new Snapshot(repository.getPushedAt(), branches));
+        }
+    }
+
+    private static String key(RepositoryResponse repository) {
+        return (repository.getOwner().getLogin() + "/" + repository.getName()).toLowerCase(Locale.ROOT);
+    }
+
+    private record Snapshot(String pushedAt, List<BranchDetails> branches) {
+    }
+}
@@ -0,0 +1,57 @@
+package com.atipera.searcher.service;
+
+import com.atipera.searcher.dto.github.BranchDetails;
+import com.atipera.searcher.dto.github.BranchResponse;
+import com.atipera.searcher.dto.github.CommitSha;
+import com.atipera.searcher.dto.github.RepositoryDetails;
+import com.atipera.searcher.dto.github.RepositoryResponse;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Maps GitHub API responses to the details returned by the search endpoints.
+ * Shared by the blocking and the reactive search pipelines.
+ * Owner logins and branch names repeat across the repositories of an account and across accounts,
+ * so they are deduplicated, and commit SHAs are kept as {@link CommitSha}s; cached and in-flight results
+ * then hold one instance of every repeated value instead of a copy per repository and branch.
+ */
+@Component
+public class RepositoryDetailsMapper {
+
+    private static final int DEDUPLICATED_STRINGS = 4096;
+
+    private final StringDeduplicator stringDeduplicator = new StringDeduplicator(DEDUPLICATED_STRINGS);
+
+    /**
+     * Creates a {@link BranchDetails} instance from a branch response.
+     * This method extracts the branch name and latest commit SHA from the response,
+     * encapsulating them in a {@link BranchDetails} object.
+     *
+     * @param branchResponse the branch response to process
+     * @return a {@link BranchDetails} containing the branch's name and commit SHA
+     */
+    public BranchDetails toBranchDetails(BranchResponse branchResponse) {
+        return BranchDetails.builder()
+                .name(stringDeduplicator.deduplicate(branchResponse.getName()))
+                .commitSha(CommitSha.of(branchResponse.getCommit().getSha()))
+                .build();
+    }
+
+    /**
+     * Creates a {@link RepositoryDetails} instance from a repository response and its branches.
+     * This method encapsulates the repository's name, owner's login, and branches
+     * in a {@link RepositoryDetails} object.
+     *
+     * @param repositoryResponse the repository response to process
+     * @param branches           the details of the repository's branches
+     * @return a {@link RepositoryDetails} containing the repository's details
+     */
+    public RepositoryDetails toRepositoryDetails(RepositoryResponse repositoryResponse, List<BranchDetails> branches) {
+        return RepositoryDetails.builder()
+                .repositoryName(repositoryResponse.getName())
+                .ownerLogin(stringDeduplicator.deduplicate(repositoryResponse.getOwner().getLogin()))
+                .branches(branches)
+                .build();
+    }
+}
@@ -0,0 +1,45 @@
+package com.atipera.searcher.service;
+
+import com.atipera.searcher.dto.error.ErrorResponse;
+import com.atipera.searcher.exception.FetchFailedException;
+import com.atipera.searcher.exception.GithubUnavailableException;
+import com.atipera.searcher.exception.ProcessingFailedException;
+import com.atipera.searcher.exception.RateLimitExceededException;
+import com.atipera.searcher.exception.UserNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Describes failed searches that are reported in a response body instead of its status,
+ * the same way the single user endpoint reports them.
+ */
+@Slf4j
+final class SearchErrors {
+
+    private SearchErrors() {
+    }
+
+    /**
+     * Describes a failed search of a user.
+     *
+     * @param username the GitHub username
+     * @param e        the exception the search failed with
+     * @return the error reported for the user
+     */
+    static ErrorResponse describe(String username, RuntimeException e) {
+        if (e instanceof UserNotFoundException) {
+            return new ErrorResponse(HttpStatus.NOT_FOUND.value(), e.getMessage());
+        }
+        if (e instanceof RateLimitExceededException) {
+            return new ErrorResponse(HttpStatus.FORBIDDEN.value(), e.getMessage());
+        }
+        if (e instanceof GithubUnavailableException) {
+            return new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE.value(), e.getMessage());
+        }
+        if (e instanceof ProcessingFailedException || e instanceof FetchFailedException) {
+            return new ErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR.value(), e.getMessage());
+        }
+        log.error("Unexpected failure while searching user {}", username, e);
+        return new ErrorResponse(HttpStatus.INTERNAL_SERVER_ERROR.value(), "Failed to process search");
+    }
+}
@@ -0,0 +1,14 @@
+package com.atipera.searcher.service;
+
+import com.atipera.searcher.dto.github.RepositoryDetails;
+
+import java.util.List;
+
+/**
+ * Represents one page of a search narrowed down by a {@link SearchQuery}.
+ *
+ * @param repositoryDetails the details of the repositories on the page
+ * @param nextCursor        the cursor of the next page, {@code null} if this page is the last one
+ */
+public record SearchPage(List<RepositoryDetails> repositoryDetails, String nextCursor) {
+}
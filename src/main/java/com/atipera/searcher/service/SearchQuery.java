@@ -0,0 +1,258 @@
+package com.atipera.searcher.service;
+
+import com.atipera.searcher.dto.github.BranchDetails;
+import com.atipera.searcher.dto.github.RepositoryDetails;
+import com.atipera.searcher.dto.github.RepositoryResponse;
+import com.atipera.searcher.exception.InvalidRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Narrows a repository search down to what the client needs.
+ * Repositories are selected from the listing before any branch is fetched, so filtered out repositories,
+ * repositories beyond the requested page and searches without branches cost no branch calls.
+ *
+ * @param fields     the fields of {@link RepositoryDetails} included in the response
+ * @param branches   which branches of every repository are fetched and returned
+ * @param nameFilter a case-insensitive substring the repository names have to contain, {@code null} for all
+ * @param sort       the order of the repositories
+ * @param limit      the maximum number of repositories returned, {@code null} for all
+ * @param offset     the number of repositories skipped, decoded from the cursor
+ */
+public record SearchQuery(Set<Field> fields, BranchSelection branches, String nameFilter, Sort sort, Integer limit,
+                          int offset) {
+
+    /**
+     * The query returning every non-forked repository with all its branches, in the order of the listing.
+     */
+    public static final SearchQuery ALL = new SearchQuery(EnumSet.allOf(Field.class), BranchSelection.ALL, null,
+            Sort.LISTING, null, 0);
+
+    private static final int MAXIMUM_LIMIT = 1000;
+    private static final String CURSOR_PREFIX = "offset:";
+
+    /**
+     * The fields of {@link RepositoryDetails} a client can select.
+     */
+    public enum Field {
+        REPOSITORY_NAME("repositoryName"), OWNER_LOGIN("ownerLogin"), BRANCHES("branches");
+
+        private final String parameter;
+
+        Field(String parameter) {
+            this.parameter = parameter;
+        }
+    }
+
+    /**
+     * Which branches are fetched and returned.
+     */
+    public enum BranchSelection {
+        /**
+         * No branches, no branch calls are made.
+         */
+        NONE,
+        /**
+         * Only the default branch of every repository.
+         */
+        DEFAULT,
+        /**
+         * All branches.
+         */
+        ALL
+    }
+
+    /**
+     * The orders repositories can be returned in.
+     */
+    public enum Sort {
+        /**
+         * The order of the GitHub listing.
+         */
+        LISTING(null),
+        /**
+         * By name, ascending and case-insensitive.
+         */
+        NAME(Comparator.comparing(RepositoryResponse::getName, String.CASE_INSENSITIVE_ORDER)),
+        /**
+         * By the time of the last push, most recent first.
+         */
+        PUSHED(Comparator.comparing(RepositoryResponse::getPushedAt,
+                Comparator.nullsLast(Comparator.<String>reverseOrder()))),
+        /**
+         * By the time of the last update, most recent first.
+         */
+        UPDATED(Comparator.comparing(RepositoryResponse::getUpdatedAt,
+                Comparator.nullsLast(Comparator.<String>reverseOrder())));
+
+        private final Comparator<RepositoryResponse> comparator;
+
+        Sort(Comparator<RepositoryResponse> comparator) {
+            this.comparator = comparator;
+        }
+    }
+
+    /**
+     * Parses the query parameters of a search request.
+     *
+     * @param fields     comma-separated field names, {@code null} for all fields
+     * @param branches   {@code none}, {@code default} or {@code all}, {@code null} for all
+     * @param nameFilter the substring repository names have to contain, {@code null} for all repositories
+     * @param sort       {@code name}, {@code pushed} or {@code updated}, {@code null} for the order of the listing
+     * @param limit      the maximum number of repositories, {@code null} for all
+     * @param cursor     the cursor returned with the previous page, {@code null} for the first page
+     * @return the parsed query
+     * @throws InvalidRequestException if a parameter is not valid
+     */
+    public static SearchQuery parse(String fields, String branches, String nameFilter, String sort, Integer limit,
+                                    String cursor) {
+        var selectedFields = fields == null ? EnumSet.allOf(Field.class) : parseFields(fields);
+        var branchSelection = branches == null ? BranchSelection.ALL : parseEnum(BranchSelection.class, branches,
+                "branches");
+        if (!selectedFields.contains(Field.BRANCHES)) {
+            branchSelection = BranchSelection.NONE;
+        }
+        if (limit != null && (limit < 1 || limit > MAXIMUM_LIMIT)) {
+            throw new InvalidRequestException("limit must be between 1 and " + MAXIMUM_LIMIT);
+        }
+        return new SearchQuery(selectedFields, branchSelection,
+                nameFilter == null || nameFilter.isBlank() ? null : nameFilter.toLowerCase(Locale.ROOT),
+                sort == null ? Sort.LISTING : parseEnum(Sort.class, sort, "sort"),
+                limit, cursor == null ? 0 : decodeCursor(cursor));
+    }
+
+    /**
+     * Checks whether the query returns the full, unpaginated search result.
+     *
+     * @return {@code true} if the query is equivalent to {@link #ALL}
+     */
+    public boolean isAll() {
+        return equals(ALL);
+    }
+
+    /**
+     * Selects the repositories of the requested page from a user's non-forked repositories.
+     *
+     * @param repositories the non-forked repositories, in the order of the listing
+     * @return the selected repositories, in the requested order
+     */
+    public List<RepositoryResponse> select(List<RepositoryResponse> repositories) {
+        var selected = repositories.stream()
+                .filter(repository -> nameFilter == null
+                        || repository.getName().toLowerCase(Locale.ROOT).contains(nameFilter));
+        if (sort.comparator != null) {
+            selected = selected.sorted(sort.comparator);
+        }
+        return selected.skip(offset)
+                .limit(limit == null ? Long.MAX_VALUE : limit)
+                .toList();
+    }
+
+    /**
+     * Returns the cursor of the page following the one selected from the given number of matching repositories.
+     *
+     * @param matchingRepositories the number of repositories passing the name filter
+     * @return the cursor, empty if the selected page is the last one
+     */
+    public Optional<String> nextCursor(long matchingRepositories) {
+        if (limit == null || offset + limit >= matchingRepositories) {
+            return Optional.empty();
+        }
+        return Optional.of(Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + (offset + limit)).getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Counts the repositories passing the name filter.
+     *
+     * @param repositories the non-forked repositories
+     * @return the number of matching repositories
+     */
+    public long countMatching(List<RepositoryResponse> repositories) {
+        return nameFilter == null ? repositories.size() : repositories.stream()
+                .filter(repository -> repository.getName().toLowerCase(Locale.ROOT).contains(nameFilter))
+                .count();
+    }
+
+    /**
+     * Keeps the requested branches of a repository.
+     *
+     * @param repository the repository
+     * @param branches   all branches of the repository
+     * @return the branches to return
+     */
+    public List<BranchDetails> selectBranches(RepositoryResponse repository, List<BranchDetails> branches) {
+        return switch (this.branches) {
+            case NONE -> List.of();
+            case DEFAULT -> branches.stream()
+                    .filter(branch -> branch.name().equals(repository.getDefaultBranch()))
+                    .toList();
+            case ALL -> branches;
+        };
+    }
+
+    /**
+     * Drops the fields the client did not ask for; dropped fields are left out of the response.
+     *
+     * @param repositoryDetails the full details
+     * @return the projected details
+     */
+    public RepositoryDetails project(RepositoryDetails repositoryDetails) {
+        if (fields.size() == Field.values().length) {
+            return repositoryDetails;
+        }
+        return new RepositoryDetails(
+                fields.contains(Field.REPOSITORY_NAME) ? repositoryDetails.repositoryName() : null,
+                fields.contains(Field.OWNER_LOGIN) ? repositoryDetails.ownerLogin() : null,
+                fields.contains(Field.BRANCHES) ? repositoryDetails.branches() : null);
+    }
+
+    private static Set<Field> parseFields(String fields) {
+        var selectedFields = EnumSet.noneOf(Field.class);
+        for (var name : fields.split(",")) {
+            var field = Arrays.stream(Field.values())
+                    .filter(candidate -> candidate.parameter.equalsIgnoreCase(name.strip()))
+                    .findFirst()
+                    .orElseThrow(() -> new InvalidRequestException("fields must be a comma-separated list of "
+                            + Arrays.stream(Field.values())
+                            .map(candidate -> candidate.parameter)
+                            .collect(Collectors.joining(", "))));
+            selectedFields.add(field);
+        }
+        return selectedFields;
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String value, String parameter) {
+        try {
+            return Enum.valueOf(type, value.strip().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException(parameter + " must be one of " + Arrays.stream(type.getEnumConstants())
+                    .map(constant -> constant.name().toLowerCase(Locale.ROOT))
+                    .collect(Collectors.joining(", ")));
+        }
+    }
+
+    private static int decodeCursor(String cursor) {
+        try {
+            var decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (decoded.startsWith(CURSOR_PREFIX)) {
+                var offset = Integer.parseInt(decoded.substring(CURSOR_PREFIX.length()));
+                if (offset >= 0) {
+                    return offset;
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            // reported below
+        }
+        throw new InvalidRequestException("cursor is not valid");
+    }
+}
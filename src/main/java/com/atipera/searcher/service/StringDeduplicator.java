@@ -0,0 +1,47 @@
+package com.atipera.searcher.service;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Replaces equal strings with one shared instance, so values repeated across many results,
+ * such as owner logins and common branch names, are held once instead of once per occurrence.
+ * The table has a fixed number of slots and a string replaces the one in its slot, so rare values
+ * cost nothing but a slot and the table never grows; a value evicted from its slot is still correct,
+ * it is merely no longer shared with later occurrences.
+ */
+final class StringDeduplicator {
+
+    private final AtomicReferenceArray<String> table;
+    private final int mask;
+
+    /**
+     * Constructs a new StringDeduplicator.
+     *
+     * @param capacity the number of slots, rounded up to a power of two
+     */
+    StringDeduplicator(int capacity) {
+        var size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.table = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Returns the shared instance equal to the given string.
+     *
+     * @param value the string, may be {@code null}
+     * @return the shared instance, or the given string if none is shared yet
+     */
+    String deduplicate(String value) {
+        if (value == null) {
+            return null;
+        }
+        var hash = value.hashCode();
+        var index = (hash ^ (hash >>> 16)) & mask;
+        var shared = table.getAcquire(index);
+        if (value.equals(shared)) {
+            return shared;
+        }
+        table.setRelease(index, value);
+        return value;
+    }
+}
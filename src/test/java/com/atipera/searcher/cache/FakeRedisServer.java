@@ -0,0 +1,265 @@
+package com.atipera.searcher.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+/**
+ * Local stand-in for a Redis server speaking RESP2, covering the commands used by the Redis backed components:
+ * {@code GET}, {@code SET} with {@code NX} and {@code PX}, {@code DECR}, {@code DECRBY}, {@code INCR},
+ * {@code PUBLISH}, {@code SUBSCRIBE} and {@code UNSUBSCRIBE}. Every connection is served on its own virtual thread.
+ */
+public class FakeRedisServer implements Closeable {
+
+    private final ServerSocket serverSocket;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, Set<Connection>> subscribers = new ConcurrentHashMap<>();
+    private final Set<Socket> sockets = ConcurrentHashMap.newKeySet();
+
+    public FakeRedisServer() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread.ofVirtual().start(this::accept);
+    }
+
+    public URI uri() {
+        return URI.create("redis://localhost:" + serverSocket.getLocalPort());
+    }
+
+    public int subscriberCount(String channel) {
+        return subscribers.getOrDefault(channel, Set.of()).size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        for (var socket : sockets) {
+            socket.close();
+        }
+    }
+
+    private void accept() {
+        try {
+            while (true) {
+                var socket = serverSocket.accept();
+                sockets.add(socket);
+                Thread.ofVirtual().start(() -> serve(socket));
+            }
+        } catch (IOException e) {
+            // closed
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket) {
+            var input = new BufferedInputStream(socket.getInputStream());
+            var connection = new Connection(new BufferedOutputStream(socket.getOutputStream()));
+            try {
+                List<byte[]> command;
+                while ((command = readCommand(input)) != null) {
+                    execute(connection, command);
+                }
+            } finally {
+                subscribers.values().forEach(channelSubscribers -> channelSubscribers.remove(connection));
+            }
+        } catch (IOException e) {
+            // client disconnected
+        } finally {
+            sockets.remove(socket);
+        }
+    }
+
+    private void execute(Connection connection, List<byte[]> command) throws IOException {
+        var name = string(command.get(0)).toUpperCase(Locale.ROOT);
+        switch (name) {
+            case "GET" -> {
+                var entry = liveEntry(string(command.get(1)));
+                connection.reply(entry == null ? null : entry.value());
+            }
+            case "SET" -> set(connection, command);
+            case "DECR" -> connection.reply(decrement(string(command.get(1)), 1));
+            case "INCR" -> connection.reply(decrement(string(command.get(1)), -1));
+            case "DECRBY" -> connection.reply(decrement(string(command.get(1)),
+                    Long.parseLong(string(command.get(2)))));
+            case "PUBLISH" -> {
+                var channelSubscribers = subscribers.getOrDefault(string(command.get(1)), Set.of());
+                for (var subscriber : channelSubscribers) {
+                    subscriber.replyArray(bytes("message"), command.get(1), command.get(2));
+                }
+                connection.reply(channelSubscribers.size());
+            }
+            case "SUBSCRIBE" -> {
+                for (var channel : command.subList(1, command.size())) {
+                    subscribers.computeIfAbsent(string(channel), key -> new CopyOnWriteArraySet<>()).add(connection);
+                    connection.replyArray(bytes("subscribe"), channel, subscriptionCount(connection));
+                }
+            }
+            case "UNSUBSCRIBE" -> {
+                var channels = command.size() > 1
+                        ? command.subList(1, command.size()).stream().map(FakeRedisServer::string).toList()
+                        : subscribers.entrySet().stream()
+                        .filter(channelSubscribers -> channelSubscribers.getValue().contains(connection))
+                        .map(Map.Entry::getKey)
+                        .toList();
+                for (var channel : channels) {
+                    subscribers.getOrDefault(channel, Set.of()).remove(connection);
+                    connection.replyArray(bytes("unsubscribe"), bytes(channel), subscriptionCount(connection));
+                }
+            }
+            case "PING" -> connection.status("PONG");
+            case "CLIENT", "SELECT" -> connection.status("OK");
+            default -> connection.error("ERR unknown command '" + name + "'");
+        }
+    }
+
+    private void set(Connection connection, List<byte[]> command) throws IOException {
+        var key = string(command.get(1));
+        var onlyIfAbsent = false;
+        var expiresAt = Long.MAX_VALUE;
+        for (int i = 3; i < command.size(); i++) {
+            var option = string(command.get(i)).toUpperCase(Locale.ROOT);
+            if (option.equals("NX")) {
+                onlyIfAbsent = true;
+            } else if (option.equals("PX")) {
+                expiresAt = System.currentTimeMillis() + Long.parseLong(string(command.get(++i)));
+            }
+        }
+        synchronized (entries) {
+            if (onlyIfAbsent && liveEntry(key) != null) {
+                connection.reply((byte[]) null);
+                return;
+            }
+            entries.put(key, new Entry(command.get(2), expiresAt));
+        }
+        connection.status("OK");
+    }
+
+    private long decrement(String key, long amount) {
+        synchronized (entries) {
+            var entry = liveEntry(key);
+            var value = (entry == null ? 0 : Long.parseLong(string(entry.value()))) - amount;
+            var expiresAt = entry == null ? Long.MAX_VALUE : entry.expiresAt();
+            entries.put(key, new Entry(bytes(Long.toString(value)), expiresAt));
+            return value;
+        }
+    }
+
+    private Entry liveEntry(String key) {
+        var entry = entries.get(key);
+        if (entry != null && entry.expiresAt() <= System.currentTimeMillis()) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry;
+    }
+
+    private long subscriptionCount(Connection connection) {
+        return subscribers.values().stream()
+                .filter(channelSubscribers -> channelSubscribers.contains(connection))
+                .count();
+    }
+
+    private static List<byte[]> readCommand(InputStream input) throws IOException {
+        var header = readLine(input);
+        if (header == null) {
+            return null;
+        }
+        var count = Integer.parseInt(header.substring(1));
+        var command = new ArrayList<byte[]>(count);
+        for (int i = 0; i < count; i++) {
+            var length = Integer.parseInt(readLine(input).substring(1));
+            command.add(input.readNBytes(length));
+            input.readNBytes(2);
+        }
+        return command;
+    }
+
+    private static String readLine(InputStream input) throws IOException {
+        var line = new StringBuilder();
+        int next;
+        while ((next = input.read()) != '\r') {
+            if (next < 0) {
+                return null;
+            }
+            line.append((char) next);
+        }
+        input.read();
+        return line.toString();
+    }
+
+    private static String string(byte[] bytes) {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private record Entry(byte[] value, long expiresAt) {
+    }
+
+    private static final class Connection {
+
+        private final OutputStream output;
+
+        private Connection(OutputStream output) {
+            this.output = output;
+        }
+
+        synchronized void status(String status) throws IOException {
+            output.write(bytes("+" + status + "\r\n"));
+            output.flush();
+        }
+
+        synchronized void error(String message) throws IOException {
+            output.write(bytes("-" + message + "\r\n"));
+            output.flush();
+        }
+
+        synchronized void reply(long value) throws IOException {
+            output.write(bytes(":" + value + "\r\n"));
+            output.flush();
+        }
+
+        synchronized void reply(byte[] value) throws IOException {
+            writeBulk(value);
+            output.flush();
+        }
+
+        synchronized void replyArray(byte[] kind, byte[] channel, Object last) throws IOException {
+            output.write(bytes("*3\r\n"));
+            writeBulk(kind);
+            writeBulk(channel);
+            if (last instanceof Long count) {
+                output.write(bytes(":" + count + "\r\n"));
+            } else {
+                writeBulk((byte[]) last);
+            }
+            output.flush();
+        }
+
+        private void writeBulk(byte[] value) throws IOException {
+            if (value == null) {
+                output.write(bytes("$-1\r\n"));
+                return;
+            }
+            output.write(bytes("$" + value.length + "\r\n"));
+            output.write(value);
+            output.write(bytes("\r\n"));
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.atipera.searcher.cache;
+
+import com.atipera.searcher.client.GithubEndpoint;
+import com.atipera.searcher.dto.github.BranchResponse;
+import com.atipera.searcher.dto.github.CommitResponse;
+import com.atipera.searcher.dto.github.OwnerResponse;
+import com.atipera.searcher.dto.github.RepositoryResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MappedFileGithubResponseCacheTests {
+
+    private static final Instant NOW = Instant.parse("2024-06-01T12:00:00.123456789Z");
+    private static final Clock CLOCK = Clock.fixed(NOW, ZoneOffset.UTC);
+    private static final Duration RETENTION = Duration.ofHours(1);
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void testGetReturnsStoredRepositoryPage() throws Exception {
+        var repository = RepositoryResponse.builder()
+                .name("repo1")
+                .isForked(true)
+                .owner(OwnerResponse.builder().login("octocat").build())
+                .build();
+        var page = new CachedPage(GithubEndpoint.USER_REPOSITORIES, List.of(repository), "\"etag\"",
+                "<https://api.github.com/user/repos?page=2>; rel=\"next\"", NOW);
+
+        try (var cache = cache(1024)) {
+            cache.put("key", page);
+
+            var result = cache.get("key").orElseThrow();
+            var cachedRepository = (RepositoryResponse) result.items().get(0);
+            assertEquals(GithubEndpoint.USER_REPOSITORIES, result.endpoint());
+            assertEquals("\"etag\"", result.etag());
+            assertEquals(page.linkHeader(), result.linkHeader());
+            assertEquals(NOW, result.fetchedAt());
+            assertEquals("repo1", cachedRepository.getName());
+            assertEquals("octocat", cachedRepository.getOwner().getLogin());
+            assertTrue(cachedRepository.isForked());
+        }
+    }
+
+    @Test
+    void testGetReturnsLatestPageAfterReopening() throws Exception {
+        try (var cache = cache(1024)) {
+            cache.put("key", branchPage("main", null));
+            cache.put("key", branchPage("develop", "\"v2\""));
+            cache.put("other", branchPage("other", null));
+        }
+
+        try (var cache = cache(1024)) {
+            var result = cache.get("key").orElseThrow();
+            var branch = (BranchResponse) result.items().get(0);
+            assertEquals("develop", branch.getName());
+            assertEquals("sha-develop", branch.getCommit().getSha());
+            assertEquals("\"v2\"", result.etag());
+            assertNull(result.linkHeader());
+            assertTrue(cache.get("other").isPresent());
+            assertFalse(cache.get("missing").isPresent());
+        }
+    }
+
+    @Test
+    void testGetIgnoresExpiredPages() throws Exception {
+        try (var cache = cache(1024)) {
+            cache.put("key", new CachedPage(GithubEndpoint.REPOSITORY_BRANCHES, List.of(), null, null,
+                    NOW.minus(RETENTION)));
+
+            assertFalse(cache.get("key").isPresent());
+        }
+    }
+
+    @Test
+    void testPutCompactsFullFileKeepingLatestPages() throws Exception {
+        try (var cache = cache(512)) {
+            for (int i = 0; i < 50; i++) {
+                cache.put("key" + i % 3, branchPage("branch" + i, null));
+            }
+
+            assertEquals("branch48", ((BranchResponse) cache.get("key0").orElseThrow().items().get(0)).getName());
+            assertEquals("branch49", ((BranchResponse) cache.get("key1").orElseThrow().items().get(0)).getName());
+            assertEquals("branch47", ((BranchResponse) cache.get("key2").orElseThrow().items().get(0)).getName());
+        }
+
+        try (var cache = cache(512)) {
+            assertEquals("branch49", ((BranchResponse) cache.get("key1").orElseThrow().items().get(0)).getName());
+        }
+    }
+
+    @Test
+    void testPutEvictsOldestPagesWhenCompacting() throws Exception {
+        try (var cache = cache(512)) {
+            for (int i = 0; i < 20; i++) {
+                cache.put("key" + i, branchPage("branch" + i, null, NOW.minusSeconds(20 - i)));
+            }
+
+            assertTrue(cache.get("key19").isPresent());
+            assertFalse(cache.get("key0").isPresent());
+            assertTrue(Files.size(directory.resolve("cache.db")) <= 512);
+        }
+    }
+
+    @Test
+    void testConstructorRejectsFileInUse() throws Exception {
+        try (var cache = cache(1024)) {
+            cache.put("key", branchPage("main", null));
+
+            assertThrows(IOException.class, () -> cache(1024));
+            assertTrue(cache.get("key").isPresent());
+        }
+    }
+
+    private MappedFileGithubResponseCache cache(int capacity) throws Exception {
+        return new MappedFileGithubResponseCache(directory.resolve("cache.db"), capacity, RETENTION, CLOCK);
+    }
+
+    private static CachedPage branchPage(String name, String etag) {
+        return branchPage(name, etag, NOW);
+    }
+
+    private static CachedPage branchPage(String name, String etag, Instant fetchedAt) {
+        var branch = BranchResponse.builder()
+                .name(name)
+                .commit(CommitResponse.builder().sha("sha-" + name).build())
+                .build();
+        return new CachedPage(GithubEndpoint.REPOSITORY_BRANCHES, List.of(branch), etag, null, fetchedAt);
+    }
+}
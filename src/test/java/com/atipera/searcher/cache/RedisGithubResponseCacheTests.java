@@ -0,0 +1,101 @@
+package com.atipera.searcher.cache;
+
+import com.atipera.searcher.client.GithubEndpoint;
+import com.atipera.searcher.dto.github.BranchResponse;
+import com.atipera.searcher.dto.github.CommitResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import redis.clients.jedis.JedisPooled;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RedisGithubResponseCacheTests {
+
+    private static final Instant NOW = Instant.parse("2024-06-01T12:00:00Z");
+    private static final String INVALIDATION_CHANNEL = "test:invalidations";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private FakeRedisServer redisServer;
+    private JedisPooled jedis;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        redisServer = new FakeRedisServer();
+        jedis = new JedisPooled(redisServer.uri());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        jedis.close();
+        redisServer.close();
+    }
+
+    @Test
+    void testGetReturnsPageWrittenByAnotherNode() {
+        try (var writer = cache(key -> {
+        }); var reader = cache(key -> {
+        })) {
+            writer.put("key", branchPage("sha-1", NOW));
+
+            var result = reader.get("key").orElseThrow();
+            var branch = (BranchResponse) result.items().get(0);
+            assertEquals(GithubEndpoint.REPOSITORY_BRANCHES, result.endpoint());
+            assertEquals("\"etag\"", result.etag());
+            assertEquals(NOW, result.fetchedAt());
+            assertEquals("main", branch.getName());
+            assertEquals("sha-1", branch.getCommit().getSha());
+            assertTrue(reader.get("other-key").isEmpty());
+        }
+    }
+
+    @Test
+    void testPutInvalidatesNearCacheOfOtherNodes() throws Exception {
+        var nearCache = new InMemoryGithubResponseCache(100, Duration.ofMinutes(1));
+        try (var writer = cache(key -> {
+        }); var reader = new TieredGithubResponseCache(nearCache, cache(nearCache::invalidate))) {
+            awaitSubscribers(2);
+            writer.put("key", branchPage("sha-1", NOW));
+            assertEquals("sha-1", sha(reader.get("key").orElseThrow()));
+
+            writer.put("key", branchPage("sha-2", NOW.plusSeconds(60)));
+
+            var deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (meterRegistry.counter("github.cache.invalidations").count() < 2 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertTrue(nearCache.get("key").isEmpty());
+            assertEquals("sha-2", sha(reader.get("key").orElseThrow()));
+        }
+    }
+
+    private RedisGithubResponseCache cache(Consumer<String> invalidationListener) {
+        return new RedisGithubResponseCache(jedis, "test:", Duration.ofHours(1), invalidationListener, meterRegistry);
+    }
+
+    private void awaitSubscribers(int count) throws InterruptedException {
+        var deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (redisServer.subscriberCount(INVALIDATION_CHANNEL) < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static String sha(CachedPage page) {
+        return ((BranchResponse) page.items().get(0)).getCommit().getSha();
+    }
+
+    private static CachedPage branchPage(String sha, Instant fetchedAt) {
+        var branch = BranchResponse.builder()
+                .name("main")
+                .commit(CommitResponse.builder().sha(sha).build())
+                .build();
+        return new CachedPage(GithubEndpoint.REPOSITORY_BRANCHES, List.of(branch), "\"etag\"", null, fetchedAt);
+    }
+}
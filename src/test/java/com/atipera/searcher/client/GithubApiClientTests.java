@@ -1,5 +1,8 @@
 package com.atipera.searcher.client;
 
+import com.atipera.searcher.cache.CachedPage;
+import com.atipera.searcher.cache.GithubResponseCache;
+import com.atipera.searcher.concurrent.SingleFlight;
 import com.atipera.searcher.dto.github.BranchResponse;
 import com.atipera.searcher.dto.github.CommitResponse;
 import com.atipera.searcher.dto.github.OwnerResponse;
@@ -12,25 +15,37 @@ import com.google.gson.Gson;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
 import okhttp3.Call;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
 import okhttp3.ResponseBody;
 import org.junit.jupiter.api.BeforeEach;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.io.IOException;
+import java.io.StringReader;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -51,6 +66,15 @@ class GithubApiClientTests {
     @Mock
     private ResponseBody responseBody;
 
+    @Mock
+    private GithubResponseCache githubResponseCache;
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private SingleFlight<String, List<BranchResponse>> branchesSingleFlight = new SingleFlight<>("test", meterRegistry);
+
     @InjectMocks
     private GithubApiClient githubApiClient;
 
@@ -58,6 +82,8 @@ class GithubApiClientTests {
     void setUp() {
         ReflectionTestUtils.setField(githubApiClient, "githubUsersApiUrl", "https://api.github.com/users/");
         ReflectionTestUtils.setField(githubApiClient, "githubReposApiUrl", "https://api.github.com/repos/");
+        ReflectionTestUtils.setField(githubApiClient, "repositoriesTimeToLive", Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(githubApiClient, "branchesTimeToLive", Duration.ofMinutes(5));
     }
 
     @Test
@@ -88,15 +114,16 @@ class GithubApiClientTests {
         when(call.execute()).thenReturn(response);
         when(response.isSuccessful()).thenReturn(true);
         when(response.body()).thenReturn(responseBody);
-        when(responseBody.string()).thenReturn(repositoryArray.toString());
-        when(gson.fromJson(repositoryArray.toString(), type)).thenReturn(repositoryResponseList);
+        when(responseBody.charStream()).thenReturn(new StringReader(repositoryArray.toString()));
+        when(gson.fromJson(any(JsonReader.class), eq(type))).thenReturn(repositoryResponseList);
 
         var result = githubApiClient.fetchUserRepositories(username);
 
         assertEquals(repositoryResponseList, result);
         verify(response).isSuccessful();
         verify(okHttpClient).newCall(any(Request.class));
-        verify(gson).fromJson(responseBody.string(), type);
+        verify(gson).fromJson(any(JsonReader.class), eq(type));
+        verify(responseBody, never()).string();
     }
 
     @Test
@@ -173,8 +200,8 @@ class GithubApiClientTests {
         when(call.execute()).thenReturn(response);
         when(response.isSuccessful()).thenReturn(true);
         when(response.body()).thenReturn(responseBody);
-        when(responseBody.string()).thenReturn(branchArray.toString());
-        when(gson.fromJson(responseBody.string(), type)).thenReturn(branchResponseList);
+        when(responseBody.charStream()).thenReturn(new StringReader(branchArray.toString()));
+        when(gson.fromJson(any(JsonReader.class), eq(type))).thenReturn(branchResponseList);
 
 
         var result = githubApiClient.fetchRepositoryBranches(repositoryName, username);
@@ -182,7 +209,8 @@ class GithubApiClientTests {
         assertEquals(branchResponseList, result);
         verify(response).isSuccessful();
         verify(okHttpClient).newCall(any(Request.class));
-        verify(gson).fromJson(responseBody.string(), type);
+        verify(gson).fromJson(any(JsonReader.class), eq(type));
+        verify(responseBody, never()).string();
     }
 
 
@@ -203,4 +231,113 @@ class GithubApiClientTests {
         verify(okHttpClient).newCall(any(Request.class));
     }
 
+    @Test
+    void testFetchRepositoryBranchRequestsSingleBranch() throws IOException {
+        var branchResponse = BranchResponse.builder()
+                .name("feature/login")
+                .commit(CommitResponse.builder()
+                        .sha("1234")
+                        .build())
+                .build();
+
+        when(okHttpClient.newCall(any(Request.class))).thenReturn(call);
+        when(call.execute()).thenReturn(response);
+        when(response.isSuccessful()).thenReturn(true);
+        when(response.body()).thenReturn(responseBody);
+        when(responseBody.charStream()).thenReturn(new StringReader("{}"));
+        when(gson.fromJson(any(JsonReader.class), eq(BranchResponse.class))).thenReturn(branchResponse);
+
+        var result = githubApiClient.fetchRepositoryBranch("repo1", "feature/login", "username");
+
+        assertEquals(List.of(branchResponse), result);
+        verify(okHttpClient).newCall(argThat(request -> request.url().toString()
+                .equals("https://api.github.com/repos/username/repo1/branches/feature/login")));
+    }
+
+    @Test
+    void testFetchRepositoryBranchReturnsNothingForMissingBranch() throws IOException {
+        when(response.isSuccessful()).thenReturn(false);
+        when(response.code()).thenReturn(404);
+        when(okHttpClient.newCall(any(Request.class))).thenReturn(call);
+        when(call.execute()).thenReturn(response);
+
+        var result = githubApiClient.fetchRepositoryBranch("repo1", "main", "username");
+
+        assertEquals(List.of(), result);
+    }
+
+    @Test
+    void testFetchRepositoryBranchesReturnsFreshCachedPageWithoutRequest() {
+        var branchResponseList = List.of(BranchResponse.builder()
+                .name("main")
+                .commit(CommitResponse.builder().sha("1234").build())
+                .build());
+        var cachedPage = new CachedPage(GithubEndpoint.REPOSITORY_BRANCHES, branchResponseList,
+                "\"etag\"", null, Instant.now());
+
+        when(githubResponseCache.get(anyString())).thenReturn(Optional.of(cachedPage));
+
+        var result = githubApiClient.fetchRepositoryBranches("repo1", "username");
+
+        assertEquals(branchResponseList, result);
+        verify(okHttpClient, never()).newCall(any(Request.class));
+    }
+
+    @Test
+    void testFetchRepositoryBranchesRevalidatesStaleCachedPage() throws IOException {
+        var branchResponseList = List.of(BranchResponse.builder()
+                .name("main")
+                .commit(CommitResponse.builder().sha("1234").build())
+                .build());
+        var cachedPage = new CachedPage(GithubEndpoint.REPOSITORY_BRANCHES, branchResponseList,
+                "\"etag\"", null, Instant.now().minus(Duration.ofHours(1)));
+
+        when(githubResponseCache.get(anyString())).thenReturn(Optional.of(cachedPage));
+        when(okHttpClient.newCall(argThat(request -> "\"etag\"".equals(request.header("If-None-Match")))))
+                .thenReturn(call);
+        when(call.execute()).thenReturn(response);
+        when(response.code()).thenReturn(304);
+
+        var result = githubApiClient.fetchRepositoryBranches("repo1", "username");
+
+        assertEquals(branchResponseList, result);
+        verify(githubResponseCache).put(anyString(), argThat(page -> page.fetchedAt().isAfter(cachedPage.fetchedAt())));
+        verify(gson, never()).fromJson(any(JsonReader.class), eq(new TypeToken<List<BranchResponse>>() {
+        }.getType()));
+    }
+
+    @Test
+    void testFetchRepositoryBranchesRejectsNextLinkToAnotherHost() {
+        var cachedPage = new CachedPage(GithubEndpoint.REPOSITORY_BRANCHES, List.of(), "\"etag\"",
+                "<https://attacker.example/repos/username/repo1/branches?page=2>; rel=\"next\"", Instant.now());
+
+        when(githubResponseCache.get(anyString())).thenReturn(Optional.of(cachedPage));
+
+        assertThrows(ProcessingFailedException.class, () -> githubApiClient.fetchRepositoryBranches("repo1", "username"));
+        verify(githubResponseCache).get(anyString());
+        verify(okHttpClient, never()).newCall(any(Request.class));
+    }
+
+    @Test
+    void testFetchRepositoryBranchesStopsFollowingCyclingNextLinks() {
+        var cachedPage = new CachedPage(GithubEndpoint.REPOSITORY_BRANCHES, List.of(), "\"etag\"",
+                "<https://api.github.com/repos/username/repo1/branches?per_page=100>; rel=\"next\"", Instant.now());
+
+        when(githubResponseCache.get(anyString())).thenReturn(Optional.of(cachedPage));
+
+        assertThrows(ProcessingFailedException.class, () -> githubApiClient.fetchRepositoryBranches("repo1", "username"));
+        verify(githubResponseCache, times(GithubApiClient.MAX_PAGES)).get(anyString());
+    }
+
+    @Test
+    void testPageRequestTagsFollowingPages() {
+        var firstPageUrl = githubApiClient.userRepositoriesUrl("username");
+
+        var firstPage = githubApiClient.pageRequest(firstPageUrl, GithubEndpoint.USER_REPOSITORIES, Optional.empty());
+        var followingPage = githubApiClient.pageRequest(GithubApiClient.pageUrl(firstPageUrl, 2),
+                GithubEndpoint.USER_REPOSITORIES, Optional.empty());
+
+        assertEquals(GithubListingPage.FIRST, firstPage.tag(GithubListingPage.class));
+        assertEquals(GithubListingPage.FOLLOWING, followingPage.tag(GithubListingPage.class));
+    }
 }
@@ -0,0 +1,136 @@
+package com.atipera.searcher.client;
+
+import com.atipera.searcher.exception.GithubUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GithubCircuitBreakerTests {
+
+    private static final Instant NOW = Instant.parse("2024-06-01T12:00:00Z");
+
+    private final MutableClock clock = new MutableClock(NOW);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final GithubCircuitBreaker circuitBreaker = new GithubCircuitBreaker(0.5, 4, 10,
+            Duration.ofSeconds(30), 2, clock, meterRegistry);
+
+    @Test
+    void testCircuitStaysClosedBelowMinimumCalls() {
+        call(true);
+        call(true);
+        call(true);
+
+        assertEquals(GithubCircuitBreaker.State.CLOSED, circuitBreaker.currentState());
+    }
+
+    @Test
+    void testCircuitOpensAtFailureRateThresholdAndShedsCalls() {
+        call(false);
+        call(false);
+        call(true);
+        call(true);
+
+        assertEquals(GithubCircuitBreaker.State.OPEN, circuitBreaker.currentState());
+        var exception = assertThrows(GithubUnavailableException.class, circuitBreaker::acquirePermission);
+        assertEquals(Duration.ofSeconds(30), exception.getRetryAfter().orElseThrow());
+        assertEquals(1, meterRegistry.counter("github.client.circuit.transitions", "from", "CLOSED", "to", "OPEN")
+                .count());
+    }
+
+    @Test
+    void testCircuitClosesAfterSuccessfulProbes() {
+        open();
+        clock.advance(Duration.ofSeconds(30));
+
+        call(false);
+        assertEquals(GithubCircuitBreaker.State.HALF_OPEN, circuitBreaker.currentState());
+        call(false);
+
+        assertEquals(GithubCircuitBreaker.State.CLOSED, circuitBreaker.currentState());
+        assertDoesNotThrow(circuitBreaker::acquirePermission);
+    }
+
+    @Test
+    void testCircuitReopensOnFailedProbe() {
+        open();
+        clock.advance(Duration.ofSeconds(30));
+
+        call(true);
+
+        assertEquals(GithubCircuitBreaker.State.OPEN, circuitBreaker.currentState());
+    }
+
+    @Test
+    void testHalfOpenCircuitLimitsConcurrentProbes() {
+        open();
+        clock.advance(Duration.ofSeconds(30));
+
+        var probe = circuitBreaker.acquirePermission();
+        circuitBreaker.acquirePermission();
+
+        assertThrows(GithubUnavailableException.class, circuitBreaker::acquirePermission);
+        circuitBreaker.onIgnored(probe);
+        assertDoesNotThrow(circuitBreaker::acquirePermission);
+    }
+
+    @Test
+    void testCallAdmittedWhileClosedDoesNotReleaseProbeSlot() {
+        var admittedWhileClosed = circuitBreaker.acquirePermission();
+        open();
+        clock.advance(Duration.ofSeconds(30));
+        circuitBreaker.acquirePermission();
+        circuitBreaker.acquirePermission();
+
+        circuitBreaker.onIgnored(admittedWhileClosed);
+        circuitBreaker.onResult(admittedWhileClosed, false);
+
+        assertThrows(GithubUnavailableException.class, circuitBreaker::acquirePermission);
+        assertEquals(GithubCircuitBreaker.State.HALF_OPEN, circuitBreaker.currentState());
+    }
+
+    private void open() {
+        for (int i = 0; i < 4; i++) {
+            call(true);
+        }
+    }
+
+    private void call(boolean failed) {
+        circuitBreaker.onResult(circuitBreaker.acquirePermission(), failed);
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
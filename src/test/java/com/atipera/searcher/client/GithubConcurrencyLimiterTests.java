@@ -0,0 +1,46 @@
+package com.atipera.searcher.client;
+
+import com.atipera.searcher.exception.GithubUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.InterruptedIOException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GithubConcurrencyLimiterTests {
+
+    private final GithubConcurrencyLimiter limiter = new GithubConcurrencyLimiter(4, 2, 8, 0.5,
+            Duration.ofSeconds(1), Duration.ofMillis(10), new SimpleMeterRegistry());
+
+    @Test
+    void testCallsBeyondLimitFailFastAfterMaxWait() throws InterruptedIOException {
+        for (int i = 0; i < 4; i++) {
+            limiter.acquire();
+        }
+
+        assertThrows(GithubUnavailableException.class, limiter::acquire);
+        limiter.release(false);
+        assertDoesNotThrow(limiter::acquire);
+    }
+
+    @Test
+    void testLimitGrowsAdditivelyAndShrinksMultiplicatively() throws InterruptedIOException {
+        for (int i = 0; i < 5; i++) {
+            limiter.acquire();
+            limiter.release(false);
+        }
+        assertEquals(5, limiter.currentLimit());
+
+        limiter.acquire();
+        limiter.release(true);
+        assertEquals(2, limiter.currentLimit());
+
+        limiter.acquire();
+        limiter.release(true);
+        assertEquals(2, limiter.currentLimit());
+    }
+}
@@ -0,0 +1,50 @@
+package com.atipera.searcher.client;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GithubConnectionPrewarmerTests {
+
+    private final WireMockServer wireMockServer = new WireMockServer(options().dynamicPort());
+    private final OkHttpClient okHttpClient = new OkHttpClient.Builder()
+            .connectionPool(new ConnectionPool(5, 5, TimeUnit.MINUTES))
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        wireMockServer.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        okHttpClient.connectionPool().evictAll();
+        wireMockServer.stop();
+    }
+
+    @Test
+    void testPrewarmConnectionsOpensConnectionsForWarmConcurrentCalls() throws InterruptedException {
+        var prewarmer = new GithubConnectionPrewarmer(okHttpClient);
+        ReflectionTestUtils.setField(prewarmer, "githubUsersApiUrl", wireMockServer.baseUrl() + "/users/");
+        ReflectionTestUtils.setField(prewarmer, "githubReposApiUrl", wireMockServer.baseUrl() + "/repos/");
+        ReflectionTestUtils.setField(prewarmer, "warmConcurrentCalls", 2);
+
+        prewarmer.prewarmConnections();
+
+        var deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (okHttpClient.connectionPool().connectionCount() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(2, okHttpClient.connectionPool().connectionCount());
+    }
+}
@@ -0,0 +1,119 @@
+package com.atipera.searcher.client;
+
+import com.atipera.searcher.exception.RateLimitExceededException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GithubRateLimitSchedulerTests {
+
+    private static final Instant NOW = Instant.parse("2024-06-01T12:00:00Z");
+
+    private final GithubRateLimitScheduler scheduler = new GithubRateLimitScheduler(0.05, 0.1,
+            Duration.ofSeconds(5), Clock.fixed(NOW, ZoneOffset.UTC));
+
+    @Test
+    void testReserveWithUnknownBudgetDoesNotDelay() {
+        assertEquals(Duration.ZERO, scheduler.reserve(GithubEndpoint.USER_REPOSITORIES));
+    }
+
+    @Test
+    void testReserveSpendsBudgetLocally() {
+        scheduler.update(new GithubRateLimit(5000, 4000, NOW.plusSeconds(3600)));
+
+        scheduler.reserve(GithubEndpoint.USER_REPOSITORIES);
+        scheduler.reserve(GithubEndpoint.REPOSITORY_BRANCHES);
+
+        assertEquals(3998, scheduler.currentRateLimit().remaining());
+    }
+
+    @Test
+    void testUpdateKeepsLowestRemainingOfSameWindow() {
+        scheduler.update(new GithubRateLimit(5000, 100, NOW.plusSeconds(3600)));
+        scheduler.update(new GithubRateLimit(5000, 120, NOW.plusSeconds(3600)));
+
+        assertEquals(100, scheduler.currentRateLimit().remaining());
+
+        scheduler.update(new GithubRateLimit(5000, 5000, NOW.plusSeconds(7200)));
+
+        assertEquals(5000, scheduler.currentRateLimit().remaining());
+    }
+
+    @Test
+    void testConcurrentReservesNeverOverdrawSearchReserve() {
+        var unpaced = new GithubRateLimitScheduler(0.05, 0, Duration.ofSeconds(5), Clock.fixed(NOW, ZoneOffset.UTC));
+        unpaced.update(new GithubRateLimit(5000, 300, NOW.plusSeconds(3600)));
+        var admitted = new AtomicInteger();
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 200; i++) {
+                executor.submit(() -> {
+                    try {
+                        unpaced.reserve(GithubEndpoint.USER_REPOSITORIES);
+                        admitted.incrementAndGet();
+                    } catch (RateLimitExceededException e) {
+                        // the search reserve is reached
+                    }
+                });
+            }
+        }
+
+        assertEquals(50, admitted.get());
+        assertEquals(250, unpaced.currentRateLimit().remaining());
+    }
+
+    @Test
+    void testReserveKeepsBudgetForInFlightSearches() {
+        scheduler.update(new GithubRateLimit(5000, 200, NOW.plusSeconds(60)));
+
+        var thrown = assertThrows(RateLimitExceededException.class,
+                () -> scheduler.reserve(GithubEndpoint.USER_REPOSITORIES));
+
+        assertEquals(Duration.ofSeconds(60), thrown.getRetryAfter().orElseThrow());
+        assertEquals(Duration.ZERO, scheduler.reserve(GithubEndpoint.REPOSITORY_BRANCHES));
+        assertDoesNotThrow(() -> scheduler.reserve(GithubEndpoint.USER_REPOSITORIES, GithubListingPage.FOLLOWING));
+    }
+
+    @Test
+    void testReserveFailsFastWhenBudgetIsExhausted() {
+        scheduler.update(new GithubRateLimit(5000, 0, NOW.plusSeconds(120)));
+
+        var thrown = assertThrows(RateLimitExceededException.class,
+                () -> scheduler.reserve(GithubEndpoint.REPOSITORY_BRANCHES));
+
+        assertEquals(Duration.ofSeconds(120), thrown.getRetryAfter().orElseThrow());
+    }
+
+    @Test
+    void testReservePacesCallsWhenBudgetRunsLow() {
+        scheduler.update(new GithubRateLimit(5000, 10, NOW.plusSeconds(10)));
+
+        var first = scheduler.reserve(GithubEndpoint.REPOSITORY_BRANCHES);
+        var second = scheduler.reserve(GithubEndpoint.REPOSITORY_BRANCHES);
+        var third = scheduler.reserve(GithubEndpoint.REPOSITORY_BRANCHES);
+
+        assertEquals(Duration.ZERO, first);
+        assertEquals(Duration.ofSeconds(1), second);
+        assertTrue(third.compareTo(second) > 0);
+    }
+
+    @Test
+    void testReserveFailsFastWhenPacingExceedsMaxWait() {
+        scheduler.update(new GithubRateLimit(5000, 2, NOW.plusSeconds(60)));
+
+        scheduler.reserve(GithubEndpoint.REPOSITORY_BRANCHES);
+
+        assertThrows(RateLimitExceededException.class,
+                () -> scheduler.reserve(GithubEndpoint.REPOSITORY_BRANCHES));
+    }
+}
@@ -0,0 +1,116 @@
+package com.atipera.searcher.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GithubRetryInterceptorTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final GithubRetryInterceptor retryInterceptor = new GithubRetryInterceptor(3, Duration.ofMillis(1),
+            Duration.ofMillis(5), meterRegistry);
+    private final AtomicInteger attempts = new AtomicInteger();
+
+    @Test
+    void testServerErrorsAreRetriedUntilSuccess() throws IOException {
+        var client = client(chain -> response(chain, attempts.incrementAndGet() < 3 ? 502 : 200));
+
+        try (var response = client.newCall(request()).execute()) {
+            assertEquals(200, response.code());
+        }
+        assertEquals(3, attempts.get());
+        assertEquals(2, meterRegistry.counter("github.client.retries", "endpoint", "REPOSITORY_BRANCHES",
+                "reason", "502").count());
+    }
+
+    @Test
+    void testLastServerErrorIsReturnedOnceAttemptsAreExhausted() throws IOException {
+        var client = client(chain -> countedResponse(chain, 503));
+
+        try (var response = client.newCall(request()).execute()) {
+            assertEquals(503, response.code());
+        }
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    void testTimeoutsAreRetried() {
+        var client = client(chain -> {
+            attempts.incrementAndGet();
+            throw new SocketTimeoutException("timeout");
+        });
+
+        assertThrows(SocketTimeoutException.class, () -> client.newCall(request()).execute());
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    void testNotFoundAndRejectedCallsAreNotRetried() throws IOException {
+        var notFoundClient = client(chain -> countedResponse(chain, 404));
+        try (var response = notFoundClient.newCall(request()).execute()) {
+            assertEquals(404, response.code());
+        }
+        var rejectingClient = client(chain -> {
+            attempts.incrementAndGet();
+            throw new RejectedCallException(new IllegalStateException("rejected"));
+        });
+
+        assertThrows(RejectedCallException.class, () -> rejectingClient.newCall(request()).execute());
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    void testBackoffIsJitteredBelowCappedExponentialBound() {
+        var interceptor = new GithubRetryInterceptor(10, Duration.ofMillis(100), Duration.ofMillis(300),
+                meterRegistry);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(interceptor.backoff(1).toMillis() <= 100);
+            assertTrue(interceptor.backoff(2).toMillis() <= 200);
+            assertTrue(interceptor.backoff(8).toMillis() <= 300);
+        }
+    }
+
+    private OkHttpClient client(Interceptor server) {
+        return new OkHttpClient.Builder()
+                .addInterceptor(retryInterceptor)
+                .addInterceptor(server)
+                .build();
+    }
+
+    private static Request request() {
+        return new Request.Builder()
+                .url("https://api.github.com/repos/octocat/repo/branches")
+                .tag(GithubEndpoint.class, GithubEndpoint.REPOSITORY_BRANCHES)
+                .build();
+    }
+
+    private Response countedResponse(Interceptor.Chain chain, int code) {
+        attempts.incrementAndGet();
+        return response(chain, code);
+    }
+
+    private static Response response(Interceptor.Chain chain, int code) {
+        return new Response.Builder()
+                .request(chain.request())
+                .protocol(Protocol.HTTP_1_1)
+                .code(code)
+                .message("")
+                .body(ResponseBody.create("[]", null))
+                .build();
+    }
+}
@@ -0,0 +1,123 @@
+package com.atipera.searcher.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class GithubTokenPoolTests {
+
+    private static final Instant NOW = Instant.parse("2024-06-01T12:00:00Z");
+    private static final Instant RESET_AT = NOW.plusSeconds(3600);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final GithubTokenPool tokenPool = new GithubTokenPool(List.of("token-a", "token-b", " "),
+            Clock.fixed(NOW, ZoneOffset.UTC), meterRegistry);
+    private final List<String> authorizations = new ArrayList<>();
+
+    @Test
+    void testCallsAreSentWithTokenWithMostRemainingBudget() throws IOException {
+        var remaining = Map.of("Bearer token-a", 100, "Bearer token-b", 4000);
+        var client = client(chain -> response(chain, 200, remaining.get(authorization(chain))));
+
+        for (int i = 0; i < 3; i++) {
+            client.newCall(request()).execute().close();
+        }
+
+        assertEquals(List.of("Bearer token-a", "Bearer token-b", "Bearer token-b"), authorizations);
+    }
+
+    @Test
+    void testExhaustedTokenFailsOverToNextToken() throws IOException {
+        var client = client(chain -> authorization(chain).equals("Bearer token-a")
+                ? response(chain, 403, 0)
+                : response(chain, 200, 4000));
+
+        try (var response = client.newCall(request()).execute()) {
+            assertEquals(200, response.code());
+            assertEquals("10000", response.header("X-RateLimit-Limit"));
+            assertEquals("4000", response.header("X-RateLimit-Remaining"));
+        }
+        client.newCall(request()).execute().close();
+
+        assertEquals(List.of("Bearer token-a", "Bearer token-b", "Bearer token-b"), authorizations);
+        assertEquals(1, meterRegistry.counter("github.api.tokens.failovers").count());
+    }
+
+    @Test
+    void testLastRejectionIsReturnedOnceEveryTokenIsExhausted() throws IOException {
+        var client = client(chain -> response(chain, 403, 0));
+
+        try (var response = client.newCall(request()).execute()) {
+            assertEquals(403, response.code());
+            assertEquals("0", response.header("X-RateLimit-Remaining"));
+            assertEquals(String.valueOf(RESET_AT.getEpochSecond()), response.header("X-RateLimit-Reset"));
+        }
+        assertEquals(2, authorizations.size());
+    }
+
+    @Test
+    void testCallsArePassedThroughWithoutTokens() throws IOException {
+        var pool = new GithubTokenPool(List.of(), Clock.fixed(NOW, ZoneOffset.UTC), meterRegistry);
+        var client = new OkHttpClient.Builder()
+                .addInterceptor(pool)
+                .addInterceptor(chain -> {
+                    assertNull(chain.request().header("Authorization"));
+                    return response(chain, 200, 50);
+                })
+                .build();
+
+        try (var response = client.newCall(request()).execute()) {
+            assertEquals("50", response.header("X-RateLimit-Remaining"));
+        }
+    }
+
+    private OkHttpClient client(Interceptor server) {
+        return new OkHttpClient.Builder()
+                .addInterceptor(tokenPool)
+                .addInterceptor(chain -> {
+                    authorizations.add(authorization(chain));
+                    return server.intercept(chain);
+                })
+                .build();
+    }
+
+    private static String authorization(Interceptor.Chain chain) {
+        return chain.request().header("Authorization");
+    }
+
+    private static Request request() {
+        return new Request.Builder()
+                .url("https://api.github.com/users/octocat/repos")
+                .tag(GithubEndpoint.class, GithubEndpoint.USER_REPOSITORIES)
+                .build();
+    }
+
+    private static Response response(Interceptor.Chain chain, int code, int remaining) {
+        return new Response.Builder()
+                .request(chain.request())
+                .protocol(Protocol.HTTP_1_1)
+                .code(code)
+                .message("")
+                .header("X-RateLimit-Limit", "5000")
+                .header("X-RateLimit-Remaining", String.valueOf(remaining))
+                .header("X-RateLimit-Reset", String.valueOf(RESET_AT.getEpochSecond()))
+                .body(ResponseBody.create("[]", null))
+                .build();
+    }
+}
@@ -0,0 +1,122 @@
+package com.atipera.searcher.client;
+
+import com.atipera.searcher.cache.FakeRedisServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import redis.clients.jedis.JedisPooled;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RedisGithubRateLimitBudgetTests {
+
+    private static final Instant NOW = Instant.parse("2024-06-01T12:00:00Z");
+    private static final Clock CLOCK = Clock.fixed(NOW, ZoneOffset.UTC);
+    private static final GithubRateLimit REPORTED = new GithubRateLimit(5000, 100, NOW.plusSeconds(3600));
+
+    private FakeRedisServer redisServer;
+    private JedisPooled jedis;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        redisServer = new FakeRedisServer();
+        jedis = new JedisPooled(redisServer.uri());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        jedis.close();
+        redisServer.close();
+    }
+
+    @Test
+    void testConsumeSeesCallsOfOtherNodes() {
+        var first = new RedisGithubRateLimitBudget(jedis, "test:", CLOCK);
+        var second = new RedisGithubRateLimitBudget(jedis, "test:", CLOCK);
+        first.merge(REPORTED);
+        second.merge(REPORTED);
+
+        for (int i = 0; i < 10; i++) {
+            first.tryConsume(0);
+        }
+        second.tryConsume(0);
+
+        assertEquals(90, first.current().remaining());
+        assertEquals(89, second.current().remaining());
+    }
+
+    @Test
+    void testMergeKeepsLowestRemainingReportedByAnyNode() {
+        var first = new RedisGithubRateLimitBudget(jedis, "test:", CLOCK);
+        var second = new RedisGithubRateLimitBudget(jedis, "test:", CLOCK);
+        first.merge(REPORTED);
+
+        second.merge(new GithubRateLimit(5000, 40, REPORTED.resetAt()));
+        first.merge(new GithubRateLimit(5000, 60, REPORTED.resetAt()));
+        first.tryConsume(0);
+
+        assertEquals(40, second.current().remaining());
+        assertEquals(39, first.current().remaining());
+    }
+
+    @Test
+    void testTryConsumeDoesNotSeedUsedUpCounterAgain() {
+        var first = new RedisGithubRateLimitBudget(jedis, "test:", CLOCK);
+        var second = new RedisGithubRateLimitBudget(jedis, "test:", CLOCK);
+        var reported = new GithubRateLimit(5000, 2, REPORTED.resetAt());
+        first.merge(reported);
+        second.merge(reported);
+
+        assertTrue(first.tryConsume(0));
+        assertTrue(first.tryConsume(0));
+
+        assertFalse(second.tryConsume(0));
+        assertEquals(0, second.current().remaining());
+        assertEquals("0", jedis.get("test:rate-limit:" + REPORTED.resetAt().getEpochSecond()));
+    }
+
+    @Test
+    void testConcurrentTryConsumeNeverOverdrawsRequirement() throws Exception {
+        var first = new RedisGithubRateLimitBudget(jedis, "test:", CLOCK);
+        var second = new RedisGithubRateLimitBudget(jedis, "test:", CLOCK);
+        first.merge(REPORTED);
+        second.merge(REPORTED);
+        var spent = new AtomicInteger();
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 80; i++) {
+                var budget = i % 2 == 0 ? first : second;
+                executor.submit(() -> {
+                    if (budget.tryConsume(60)) {
+                        spent.incrementAndGet();
+                    }
+                });
+            }
+        }
+
+        assertEquals(40, spent.get());
+        assertEquals("60", jedis.get("test:rate-limit:" + REPORTED.resetAt().getEpochSecond()));
+    }
+
+    @Test
+    void testBudgetIsAccountedForLocallyWhileRedisIsDown() throws Exception {
+        var budget = new RedisGithubRateLimitBudget(jedis, "test:", CLOCK);
+        budget.merge(REPORTED);
+        redisServer.close();
+
+        budget.tryConsume(0);
+        budget.merge(new GithubRateLimit(5000, 50, REPORTED.resetAt()));
+
+        assertEquals(50, budget.current().remaining());
+        budget.tryConsume(0);
+        assertEquals(49, budget.current().remaining());
+    }
+}
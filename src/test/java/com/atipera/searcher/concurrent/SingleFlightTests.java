@@ -0,0 +1,159 @@
+package com.atipera.searcher.concurrent;
+
+import com.atipera.searcher.exception.ProcessingFailedException;
+import com.atipera.searcher.exception.UserNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>("test", meterRegistry);
+
+    @Test
+    void testExecuteCoalescesConcurrentCallsForSameKey() throws Exception {
+        var executions = new AtomicInteger();
+        var release = new CountDownLatch(1);
+        var callers = 10;
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var results = new ArrayList<Future<String>>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> singleFlight.execute("octocat", () -> {
+                    executions.incrementAndGet();
+                    await(release);
+                    return "result";
+                })));
+            }
+            awaitCoalescedCalls(callers - 1);
+            release.countDown();
+
+            for (var result : results) {
+                assertEquals("result", result.get());
+            }
+        }
+
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void testExecuteSharesExceptionWithCoalescedCallers() throws Exception {
+        var failure = new UserNotFoundException();
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var leader = executor.submit(() -> singleFlight.execute("octocat", () -> {
+                started.countDown();
+                await(release);
+                throw failure;
+            }));
+            started.await();
+            var follower = executor.submit(() -> singleFlight.execute("octocat", () -> "unused"));
+            awaitCoalescedCalls(1);
+            release.countDown();
+
+            var leaderFailure = assertThrows(ExecutionException.class, leader::get);
+            var followerFailure = assertThrows(ExecutionException.class, follower::get);
+            assertSame(failure, leaderFailure.getCause());
+            assertSame(failure, followerFailure.getCause());
+        }
+    }
+
+    @Test
+    void testInterruptedCallerDoesNotFailCoalescedCallers() throws Exception {
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var interrupted = new AtomicBoolean();
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var leader = executor.submit(() -> singleFlight.execute("octocat", () -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    interrupted.set(true);
+                    throw new ProcessingFailedException("interrupted");
+                }
+                return "result";
+            }));
+            started.await();
+            var follower = executor.submit(() -> singleFlight.execute("octocat", () -> "unused"));
+            awaitCoalescedCalls(1);
+
+            leader.cancel(true);
+            release.countDown();
+
+            assertEquals("result", follower.get());
+            assertFalse(interrupted.get());
+        }
+    }
+
+    @Test
+    void testExecuteInterruptsComputationOnceNoCallerWaits() throws Exception {
+        var started = new CountDownLatch(1);
+        var interrupted = new CountDownLatch(1);
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            var caller = executor.submit(() -> singleFlight.execute("octocat", () -> {
+                started.countDown();
+                try {
+                    new CountDownLatch(1).await();
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+                return "abandoned";
+            }));
+            started.await();
+
+            caller.cancel(true);
+
+            assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        }
+        assertEquals("fresh", singleFlight.execute("octocat", () -> "fresh"));
+    }
+
+    @Test
+    void testExecuteRunsAgainAfterCompletion() {
+        var executions = new AtomicInteger();
+
+        singleFlight.execute("octocat", () -> "first" + executions.incrementAndGet());
+        var result = singleFlight.execute("octocat", () -> "second" + executions.incrementAndGet());
+
+        assertEquals("second2", result);
+        assertEquals(0.0, coalescedCalls());
+    }
+
+    private double coalescedCalls() {
+        return meterRegistry.counter("github.single.flight.calls", "name", "test", "result", "coalesced").count();
+    }
+
+    private void awaitCoalescedCalls(int expected) throws InterruptedException {
+        while (coalescedCalls() < expected) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
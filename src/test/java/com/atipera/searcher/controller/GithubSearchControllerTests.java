@@ -1,20 +1,31 @@
 package com.atipera.searcher.controller;
 
 import com.atipera.searcher.dto.github.BranchDetails;
+import com.atipera.searcher.dto.github.CommitSha;
 import com.atipera.searcher.dto.github.RepositoryDetails;
 import com.atipera.searcher.exception.FetchFailedException;
+import com.atipera.searcher.exception.GithubUnavailableException;
 import com.atipera.searcher.exception.UserNotFoundException;
 import com.atipera.searcher.service.GithubSearchService;
+import com.atipera.searcher.service.SearchPage;
+import com.atipera.searcher.service.SearchQuery;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.Duration;
 import java.util.List;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -32,7 +43,7 @@ class GithubSearchControllerTests {
         var username = "testUsername";
         var branchDetails = BranchDetails.builder()
                 .name("master")
-                .commitSha("123asd")
+                .commitSha(CommitSha.of("123asd"))
                 .build();
         var repositoryDetails = RepositoryDetails.builder()
                 .repositoryName("repo1")
@@ -45,10 +56,75 @@ class GithubSearchControllerTests {
 
         mockMvc.perform(get(BASE_URL + "/{username}", username))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].repositoryName").value(repositoryDetails.getRepositoryName()))
+                .andExpect(jsonPath("$[0].repositoryName").value(repositoryDetails.repositoryName()))
                 .andExpect(jsonPath("$[0].ownerLogin").value(username))
-                .andExpect(jsonPath("$[0].branches[0].name").value(branchDetails.getName()))
-                .andExpect(jsonPath("$[0].branches[0].commitSha").value(branchDetails.getCommitSha()));
+                .andExpect(jsonPath("$[0].branches[0].name").value(branchDetails.name()))
+                .andExpect(jsonPath("$[0].branches[0].commitSha").value(branchDetails.commitSha().toString()));
+    }
+
+    @Test
+    void testGetRepositoriesDetailsReturnsNotModifiedForMatchingETag() throws Exception {
+        var username = "etagUsername";
+        var repositoryDetails = repositoryDetails(username, "123asd");
+        when(githubSearchService.processNonForkedUserRepositories(username)).thenReturn(List.of(repositoryDetails));
+
+        var etag = mockMvc.perform(get(BASE_URL + "/{username}", username))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=60, must-revalidate"))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get(BASE_URL + "/{username}", username).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void testGetRepositoriesDetailsChangesETagWhenBranchHeadMoves() throws Exception {
+        var username = "movingUsername";
+        when(githubSearchService.processNonForkedUserRepositories(username))
+                .thenReturn(List.of(repositoryDetails(username, "123asd")))
+                .thenReturn(List.of(repositoryDetails(username, "456qwe")));
+
+        var etag = mockMvc.perform(get(BASE_URL + "/{username}", username))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get(BASE_URL + "/{username}", username).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+                .andExpect(jsonPath("$[0].branches[0].commitSha").value("456qwe"));
+    }
+
+    @Test
+    void testGetRepositoriesDetailsWithQueryLinksNextPage() throws Exception {
+        var username = "queryUsername";
+        var query = SearchQuery.parse("repositoryName", null, "repo", "name", 1, null);
+        when(githubSearchService.queryNonForkedUserRepositories(username, query))
+                .thenReturn(new SearchPage(List.of(RepositoryDetails.builder().repositoryName("repo1").build()),
+                        "next-cursor"));
+
+        mockMvc.perform(get(BASE_URL + "/{username}?fields=repositoryName&nameFilter=repo&sort=name&limit=1",
+                        username))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].repositoryName").value("repo1"))
+                .andExpect(jsonPath("$[0].ownerLogin").doesNotExist())
+                .andExpect(jsonPath("$[0].branches").doesNotExist())
+                .andExpect(header().string(HttpHeaders.LINK, containsString("cursor=next-cursor>; rel=\"next\"")))
+                .andExpect(header().string(HttpHeaders.LINK, containsString("limit=1")));
+    }
+
+    @Test
+    void testGetRepositoriesDetailsWithInvalidQueryReturnsBadRequest() throws Exception {
+        mockMvc.perform(get(BASE_URL + "/{username}", "testUsername").param("branches", "some"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400))
+                .andExpect(jsonPath("$.message").value("branches must be one of none, default, all"));
+
+        verifyNoInteractions(githubSearchService);
     }
 
     @Test
@@ -76,4 +152,26 @@ class GithubSearchControllerTests {
                 .andExpect(jsonPath("$.status").value(500))
                 .andExpect(jsonPath("$.message").value("Unable to fetch data from the GitHub API"));
     }
+
+    @Test
+    void testGetRepositoriesDetailsThrowsGithubUnavailableException() throws Exception {
+        var username = "testUsername";
+
+        when(githubSearchService.processNonForkedUserRepositories(username))
+                .thenThrow(new GithubUnavailableException(Duration.ofSeconds(30)));
+
+        mockMvc.perform(get(BASE_URL + "/{username}", username))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "30"))
+                .andExpect(jsonPath("$.status").value(503))
+                .andExpect(jsonPath("$.message").value("GitHub API is temporarily unavailable"));
+    }
+
+    private static RepositoryDetails repositoryDetails(String username, String commitSha) {
+        return RepositoryDetails.builder()
+                .repositoryName("repo1")
+                .ownerLogin(username)
+                .branches(List.of(BranchDetails.builder().name("master").commitSha(CommitSha.of(commitSha)).build()))
+                .build();
+    }
 }
@@ -0,0 +1,75 @@
+package com.atipera.searcher.controller;
+
+import com.atipera.searcher.dto.job.SearchJobResponse;
+import com.atipera.searcher.dto.job.SearchJobStatus;
+import com.atipera.searcher.exception.JobNotFoundException;
+import com.atipera.searcher.exception.JobQueueFullException;
+import com.atipera.searcher.service.GithubSearchJobService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(GithubSearchJobController.class)
+class GithubSearchJobControllerTests {
+
+    private static final String BASE_URL = "/github/search";
+    @MockBean
+    private GithubSearchJobService githubSearchJobService;
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void testSubmitSearchJobReturnsJobLocation() throws Exception {
+        when(githubSearchJobService.submit("octocat")).thenReturn(SearchJobResponse.builder()
+                .id("job-1")
+                .username("octocat")
+                .status(SearchJobStatus.QUEUED)
+                .build());
+
+        mockMvc.perform(post(BASE_URL + "/octocat/jobs"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(HttpHeaders.LOCATION, "http://localhost/github/search/octocat/jobs/job-1"))
+                .andExpect(jsonPath("$.id").value("job-1"))
+                .andExpect(jsonPath("$.status").value("QUEUED"))
+                .andExpect(jsonPath("$.repositoriesTotal").doesNotExist());
+
+        when(githubSearchJobService.submit("octocat")).thenThrow(new JobQueueFullException());
+
+        mockMvc.perform(post(BASE_URL + "/octocat/jobs"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.status").value(503));
+    }
+
+    @Test
+    void testGetSearchJobReturnsProgress() throws Exception {
+        when(githubSearchJobService.get("octocat", "job-1")).thenReturn(SearchJobResponse.builder()
+                .id("job-1")
+                .username("octocat")
+                .status(SearchJobStatus.RUNNING)
+                .repositoriesDone(40)
+                .repositoriesTotal(100)
+                .build());
+        when(githubSearchJobService.get("octocat", "expired")).thenThrow(new JobNotFoundException());
+
+        mockMvc.perform(get(BASE_URL + "/octocat/jobs/job-1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-store"))
+                .andExpect(jsonPath("$.status").value("RUNNING"))
+                .andExpect(jsonPath("$.repositoriesDone").value(40))
+                .andExpect(jsonPath("$.repositoriesTotal").value(100));
+
+        mockMvc.perform(get(BASE_URL + "/octocat/jobs/expired"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Search job not found"));
+    }
+}
@@ -1,28 +1,47 @@
 package com.atipera.searcher.e2e;
 
+import com.atipera.searcher.dto.batch.BatchSearchResult;
 import com.atipera.searcher.dto.error.ErrorResponse;
 import com.atipera.searcher.dto.github.RepositoryDetails;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.cloud.contract.wiremock.AutoConfigureWireMock;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.netty.http.client.HttpClient;
+
+import java.time.Instant;
+import java.util.StringJoiner;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.absent;
 import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
-import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @AutoConfigureWireMock(port = 0)
+@AutoConfigureObservability
 @ActiveProfiles("test")
 class EndToEndGithubSearchTests {
     @LocalServerPort
     private int port;
+    @Value("${wiremock.server.port}")
+    private int wireMockPort;
     private WebTestClient webTestClient;
 
     @BeforeEach
@@ -34,14 +53,14 @@ class EndToEndGithubSearchTests {
 
     @Test
     void testGetRepositoriesDetailsReturnsCorrectRepositoryDetails() {
-        stubFor(get(urlEqualTo("/users/octocat/repos"))
+        stubFor(get(urlPathEqualTo("/users/octocat/repos"))
                 .willReturn(aResponse()
                         .withStatus(200)
                         .withHeader("Content-Type", "application/json")
                         .withBody("[{\"name\":\"repo1\",\"owner\":{\"login\":\"octocat\"},\"fork\":false}," +
                                 "{\"name\":\"repo2\",\"owner\":{\"login\":\"octocat\"},\"fork\":true}]")));
 
-        stubFor(get(urlEqualTo("/repos/octocat/repo1/branches"))
+        stubFor(get(urlPathEqualTo("/repos/octocat/repo1/branches"))
                 .willReturn(aResponse()
                         .withStatus(200)
                         .withHeader("Content-Type", "application/json")
@@ -59,22 +78,302 @@ class EndToEndGithubSearchTests {
         assertNotNull(result);
         assertEquals(1, result.size());
         var repo = result.get(0);
-        assertEquals("repo1", repo.getRepositoryName());
-        assertEquals("octocat", repo.getOwnerLogin());
-        assertEquals(2, repo.getBranches().size());
+        assertEquals("repo1", repo.repositoryName());
+        assertEquals("octocat", repo.ownerLogin());
+        assertEquals(2, repo.branches().size());
+
+        var branch1 = repo.branches().get(0);
+        assertEquals("main", branch1.name());
+        assertEquals("123abcd", branch1.commitSha().toString());
+
+        var branch2 = repo.branches().get(1);
+        assertEquals("feature", branch2.name());
+        assertEquals("456def", branch2.commitSha().toString());
+    }
+
+    @Test
+    void testGetRepositoriesDetailsFollowsPagination() {
+        var baseUrl = "http://localhost:" + wireMockPort;
+        stubFor(get(urlPathEqualTo("/users/octocat/repos"))
+                .withQueryParam("per_page", equalTo("100"))
+                .withQueryParam("page", absent())
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withHeader("Link", "<" + baseUrl + "/users/octocat/repos?per_page=100&page=2>; rel=\"next\", " +
+                                "<" + baseUrl + "/users/octocat/repos?per_page=100&page=3>; rel=\"last\"")
+                        .withBody("[{\"name\":\"repo1\",\"owner\":{\"login\":\"octocat\"},\"fork\":false}]")));
+        stubFor(get(urlPathEqualTo("/users/octocat/repos"))
+                .withQueryParam("page", equalTo("2"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"repo2\",\"owner\":{\"login\":\"octocat\"},\"fork\":false}]")));
+        stubFor(get(urlPathEqualTo("/users/octocat/repos"))
+                .withQueryParam("page", equalTo("3"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"repo3\",\"owner\":{\"login\":\"octocat\"},\"fork\":false}]")));
+        stubFor(get(urlPathEqualTo("/repos/octocat/repo1/branches"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"main\",\"commit\":{\"sha\":\"111\"}}]")));
+        stubFor(get(urlPathEqualTo("/repos/octocat/repo2/branches"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withHeader("Link", "<" + baseUrl + "/repos/octocat/repo2/branches?per_page=100&page=2>; rel=\"next\"")
+                        .withBody("[{\"name\":\"main\",\"commit\":{\"sha\":\"222\"}}]")));
+        stubFor(get(urlPathEqualTo("/repos/octocat/repo2/branches"))
+                .withQueryParam("page", equalTo("2"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"develop\",\"commit\":{\"sha\":\"333\"}}]")));
+        stubFor(get(urlPathEqualTo("/repos/octocat/repo3/branches"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[]")));
+
+        var result = webTestClient.get()
+                .uri("/github/search/octocat")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(RepositoryDetails.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertNotNull(result);
+        assertEquals(3, result.size());
+        assertEquals("repo1", result.get(0).repositoryName());
+        assertEquals("repo2", result.get(1).repositoryName());
+        assertEquals("repo3", result.get(2).repositoryName());
+        assertEquals(2, result.get(1).branches().size());
+        assertEquals("develop", result.get(1).branches().get(1).name());
+        assertEquals(0, result.get(2).branches().size());
+    }
+
+    @Test
+    void testStreamRepositoriesDetailsWritesNewlineDelimitedJson() {
+        stubFor(get(urlPathEqualTo("/users/stream-user/repos"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"repo1\",\"owner\":{\"login\":\"stream-user\"},\"fork\":false}," +
+                                "{\"name\":\"repo2\",\"owner\":{\"login\":\"stream-user\"},\"fork\":false}]")));
+        stubFor(get(urlPathEqualTo("/repos/stream-user/repo1/branches"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"main\",\"commit\":{\"sha\":\"111\"}}]")));
+        stubFor(get(urlPathEqualTo("/repos/stream-user/repo2/branches"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[]")));
+
+        var result = webTestClient.get()
+                .uri("/github/search/stream-user")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(RepositoryDetails.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertNotNull(result);
+        assertEquals(2, result.size());
+        assertEquals("repo1", result.get(0).repositoryName());
+        assertEquals("111", result.get(0).branches().get(0).commitSha().toString());
+        assertEquals("repo2", result.get(1).repositoryName());
+    }
+
+    @Test
+    void testStreamRepositoriesDetailsThrowsUserNotFoundException() {
+        stubFor(get(urlPathEqualTo("/users/wrong_username/repos"))
+                .willReturn(aResponse()
+                        .withStatus(404)));
 
-        var branch1 = repo.getBranches().get(0);
-        assertEquals("main", branch1.getName());
-        assertEquals("123abcd", branch1.getCommitSha());
+        var result = webTestClient.get()
+                .uri("/github/search/wrong_username")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody(ErrorResponse.class)
+                .returnResult()
+                .getResponseBody();
 
-        var branch2 = repo.getBranches().get(1);
-        assertEquals("feature", branch2.getName());
-        assertEquals("456def", branch2.getCommitSha());
+        assertNotNull(result);
+        assertEquals("User not found", result.getMessage());
+    }
+
+    @Test
+    void testSearchUsersStreamsResultsAndErrorsPerUser() {
+        stubFor(get(urlPathEqualTo("/users/batch-user/repos"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"repo1\",\"owner\":{\"login\":\"batch-user\"},\"fork\":false}]")));
+        stubFor(get(urlPathEqualTo("/repos/batch-user/repo1/branches"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"main\",\"commit\":{\"sha\":\"111\"}}]")));
+        stubFor(get(urlPathEqualTo("/users/missing-batch-user/repos"))
+                .willReturn(aResponse()
+                        .withStatus(404)));
+
+        var result = webTestClient.post()
+                .uri("/github/search/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue("{\"usernames\":[\"batch-user\",\"missing-batch-user\",\"Batch-User\"]}")
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(BatchSearchResult.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertNotNull(result);
+        assertEquals(2, result.size());
+        assertEquals("batch-user", result.get(0).getUsername());
+        assertEquals("111", result.get(0).getRepositories().get(0).branches().get(0).commitSha().toString());
+        assertEquals("missing-batch-user", result.get(1).getUsername());
+        assertEquals(404, result.get(1).getError().getStatus());
+        assertEquals("User not found", result.get(1).getError().getMessage());
+        verify(1, getRequestedFor(urlPathEqualTo("/users/batch-user/repos")));
+    }
+
+    @Test
+    void testSearchUsersRejectsEmptyBatch() {
+        var result = webTestClient.post()
+                .uri("/github/search/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue("{\"usernames\":[]}")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(ErrorResponse.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertNotNull(result);
+        assertEquals(400, result.getStatus());
+        assertEquals("At least one username is required", result.getMessage());
+    }
+
+    @Test
+    void testGetRepositoriesDetailsCompressesLargeResponsesWhenAccepted() {
+        var branches = new StringJoiner(",", "[", "]");
+        for (int i = 0; i < 50; i++) {
+            branches.add("{\"name\":\"branch-" + i + "\",\"commit\":{\"sha\":\"" + "a".repeat(40) + "\"}}");
+        }
+        stubFor(get(urlPathEqualTo("/users/gzip-user/repos"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"repo1\",\"owner\":{\"login\":\"gzip-user\"},\"fork\":false}]")));
+        stubFor(get(urlPathEqualTo("/repos/gzip-user/repo1/branches"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody(branches.toString())));
+
+        WebTestClient.bindToServer(new ReactorClientHttpConnector(HttpClient.create()))
+                .baseUrl("http://localhost:" + port)
+                .build()
+                .get()
+                .uri("/github/search/gzip-user")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.CONTENT_ENCODING, "gzip");
+    }
+
+    @Test
+    void testGetRepositoriesDetailsRevalidatesCachedResponsesWithETag() {
+        stubFor(get(urlPathEqualTo("/users/etag-user/repos"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withHeader("ETag", "\"repos-v1\"")
+                        .withBody("[{\"name\":\"repo1\",\"owner\":{\"login\":\"etag-user\"},\"fork\":false}]")));
+        stubFor(get(urlPathEqualTo("/users/etag-user/repos"))
+                .withHeader("If-None-Match", equalTo("\"repos-v1\""))
+                .willReturn(aResponse()
+                        .withStatus(304)));
+        stubFor(get(urlPathEqualTo("/repos/etag-user/repo1/branches"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withHeader("ETag", "\"branches-v1\"")
+                        .withBody("[{\"name\":\"main\",\"commit\":{\"sha\":\"123abcd\"}}]")));
+        stubFor(get(urlPathEqualTo("/repos/etag-user/repo1/branches"))
+                .withHeader("If-None-Match", equalTo("\"branches-v1\""))
+                .willReturn(aResponse()
+                        .withStatus(304)));
+
+        for (int i = 0; i < 2; i++) {
+            var result = webTestClient.get()
+                    .uri("/github/search/etag-user")
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBodyList(RepositoryDetails.class)
+                    .returnResult()
+                    .getResponseBody();
+
+            assertNotNull(result);
+            assertEquals(1, result.size());
+            assertEquals("main", result.get(0).branches().get(0).name());
+        }
+
+        verify(1, getRequestedFor(urlPathEqualTo("/users/etag-user/repos"))
+                .withHeader("If-None-Match", equalTo("\"repos-v1\"")));
+        verify(1, getRequestedFor(urlPathEqualTo("/repos/etag-user/repo1/branches"))
+                .withHeader("If-None-Match", equalTo("\"branches-v1\"")));
+    }
+
+    @Test
+    void testGetRepositoriesDetailsReturnsNotModifiedWhenNothingChanged() {
+        stubFor(get(urlPathEqualTo("/users/polling-user/repos"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"repo1\",\"owner\":{\"login\":\"polling-user\"},\"fork\":false}]")));
+        stubFor(get(urlPathEqualTo("/repos/polling-user/repo1/branches"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"main\",\"commit\":{\"sha\":\"123abcd\"}}]")));
+
+        var etag = webTestClient.get()
+                .uri("/github/search/polling-user")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(HttpHeaders.CACHE_CONTROL)
+                .returnResult(String.class)
+                .getResponseHeaders()
+                .getETag();
+
+        assertNotNull(etag);
+        webTestClient.get()
+                .uri("/github/search/polling-user")
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, etag)
+                .expectBody().isEmpty();
     }
 
     @Test
     void testGetRepositoriesDetailsWithOnlyForkedRepos() {
-        stubFor(get(urlEqualTo("/users/octocat/repos"))
+        stubFor(get(urlPathEqualTo("/users/octocat/repos"))
                 .willReturn(aResponse()
                         .withStatus(200)
                         .withHeader("Content-Type", "application/json")
@@ -90,7 +389,7 @@ class EndToEndGithubSearchTests {
 
     @Test
     void testGetRepositoriesDetailsThrowsFetchFailedException() {
-        stubFor(get(urlEqualTo("/users/octocat/repos"))
+        stubFor(get(urlPathEqualTo("/users/octocat/repos"))
                 .willReturn(aResponse()
                         .withStatus(500)));
 
@@ -109,7 +408,7 @@ class EndToEndGithubSearchTests {
 
     @Test
     void testGetRepositoriesDetailsThrowsUserNotFoundException() {
-        stubFor(get(urlEqualTo("/users/wrong_username/repos"))
+        stubFor(get(urlPathEqualTo("/users/wrong_username/repos"))
                 .willReturn(aResponse()
                         .withStatus(404)));
 
@@ -128,7 +427,7 @@ class EndToEndGithubSearchTests {
 
     @Test
     void testGetRepositoriesDetailsThrowsRateLimitExceededException() {
-        stubFor(get(urlEqualTo("/users/octocat/repos"))
+        stubFor(get(urlPathEqualTo("/users/octocat/repos"))
                 .willReturn(aResponse()
                         .withStatus(403)));
 
@@ -145,4 +444,62 @@ class EndToEndGithubSearchTests {
         assertEquals("API rate limit exceeded", result.getMessage());
     }
 
+    @Test
+    @DirtiesContext
+    void testGetRepositoriesDetailsReturnsRetryAfterWhenRateLimitIsExhausted() {
+        var reset = Instant.now().plusSeconds(120).getEpochSecond();
+        stubFor(get(urlPathEqualTo("/users/limited-user/repos"))
+                .willReturn(aResponse()
+                        .withStatus(403)
+                        .withHeader("X-RateLimit-Limit", "60")
+                        .withHeader("X-RateLimit-Remaining", "0")
+                        .withHeader("X-RateLimit-Reset", String.valueOf(reset))));
+
+        for (int i = 0; i < 2; i++) {
+            webTestClient.get()
+                    .uri("/github/search/limited-user")
+                    .exchange()
+                    .expectStatus().isForbidden()
+                    .expectHeader().value("Retry-After", retryAfter ->
+                            assertTrue(Long.parseLong(retryAfter) > 0 && Long.parseLong(retryAfter) <= 120));
+        }
+
+        verify(1, getRequestedFor(urlPathEqualTo("/users/limited-user/repos")));
+    }
+
+    @Test
+    void testPrometheusEndpointExposesGithubClientMetrics() {
+        stubFor(get(urlPathEqualTo("/users/metrics-user/repos"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"repo1\",\"owner\":{\"login\":\"metrics-user\"},\"fork\":false}]")));
+        stubFor(get(urlPathEqualTo("/repos/metrics-user/repo1/branches"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"main\",\"commit\":{\"sha\":\"123abcd\"}}]")));
+
+        webTestClient.get()
+                .uri("/github/search/metrics-user")
+                .exchange()
+                .expectStatus().isOk();
+
+        var metrics = webTestClient.get()
+                .uri("/actuator/prometheus")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertNotNull(metrics);
+        assertTrue(metrics.contains("github_client_requests_seconds_count{endpoint=\"USER_REPOSITORIES\""));
+        assertTrue(metrics.contains("github_client_requests_seconds_count{endpoint=\"REPOSITORY_BRANCHES\""));
+        assertTrue(metrics.contains("github_client_response_size_bytes_count"));
+        assertTrue(metrics.contains("github_client_requests_in_flight"));
+        assertTrue(metrics.contains("github_search_duration_seconds_count{outcome=\"success\""));
+        assertTrue(metrics.contains("github_client_pool_connection_count_connections{state=\"idle\"}"));
+        assertTrue(metrics.contains("github_client_dispatcher_calls{state=\"queued\"}"));
+    }
 }
@@ -0,0 +1,140 @@
+package com.atipera.searcher.e2e;
+
+import com.atipera.searcher.dto.error.ErrorResponse;
+import com.atipera.searcher.dto.github.RepositoryDetails;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.cloud.contract.wiremock.AutoConfigureWireMock;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.matchingJsonPath;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.verify;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"github.api.backend=graphql", "github.api.graphql.token=test-token"})
+@AutoConfigureWireMock(port = 0)
+@ActiveProfiles("test")
+class GraphqlEndToEndGithubSearchTests {
+    @LocalServerPort
+    private int port;
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setup() {
+        webTestClient = WebTestClient.bindToServer()
+                .baseUrl("http://localhost:" + port)
+                .build();
+    }
+
+    @Test
+    void testGetRepositoriesDetailsFollowsRepositoryAndBranchCursors() {
+        stubFor(post(urlPathEqualTo("/graphql"))
+                .withRequestBody(matchingJsonPath("$.variables.login", equalTo("graphql-user")))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("{\"data\":{\"repositoryOwner\":{\"repositories\":{" +
+                                "\"pageInfo\":{\"hasNextPage\":true,\"endCursor\":\"repos-1\"}," +
+                                "\"nodes\":[{\"name\":\"repo1\",\"owner\":{\"login\":\"graphql-user\"},\"refs\":{" +
+                                "\"pageInfo\":{\"hasNextPage\":true,\"endCursor\":\"refs-1\"}," +
+                                "\"nodes\":[{\"name\":\"main\",\"target\":{\"oid\":\"111\"}}]}}]}}}}")));
+        stubFor(post(urlPathEqualTo("/graphql"))
+                .atPriority(1)
+                .withRequestBody(matchingJsonPath("$.variables.cursor", equalTo("repos-1")))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("{\"data\":{\"repositoryOwner\":{\"repositories\":{" +
+                                "\"pageInfo\":{\"hasNextPage\":false,\"endCursor\":\"repos-2\"}," +
+                                "\"nodes\":[{\"name\":\"repo2\",\"owner\":{\"login\":\"graphql-user\"},\"refs\":{" +
+                                "\"pageInfo\":{\"hasNextPage\":false,\"endCursor\":null},\"nodes\":[]}}]}}}}")));
+        stubFor(post(urlPathEqualTo("/graphql"))
+                .atPriority(1)
+                .withRequestBody(matchingJsonPath("$.variables.cursor", equalTo("refs-1")))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("{\"data\":{\"repository\":{\"refs\":{" +
+                                "\"pageInfo\":{\"hasNextPage\":false,\"endCursor\":\"refs-2\"}," +
+                                "\"nodes\":[{\"name\":\"develop\",\"target\":{\"oid\":\"222\"}}]}}}}")));
+
+        var result = webTestClient.get()
+                .uri("/github/search/graphql-user")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(RepositoryDetails.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertNotNull(result);
+        assertEquals(2, result.size());
+        assertEquals("repo1", result.get(0).repositoryName());
+        assertEquals("graphql-user", result.get(0).ownerLogin());
+        assertEquals(2, result.get(0).branches().size());
+        assertEquals("develop", result.get(0).branches().get(1).name());
+        assertEquals("222", result.get(0).branches().get(1).commitSha().toString());
+        assertEquals("repo2", result.get(1).repositoryName());
+        assertEquals(0, result.get(1).branches().size());
+        verify(2, postRequestedFor(urlPathEqualTo("/graphql"))
+                .withHeader("Authorization", equalTo("Bearer test-token"))
+                .withRequestBody(matchingJsonPath("$.variables.login", equalTo("graphql-user"))));
+        verify(1, postRequestedFor(urlPathEqualTo("/graphql"))
+                .withHeader("Authorization", equalTo("Bearer test-token"))
+                .withRequestBody(matchingJsonPath("$.variables.owner", equalTo("graphql-user"))));
+    }
+
+    @Test
+    void testGetRepositoriesDetailsThrowsUserNotFoundException() {
+        stubFor(post(urlPathEqualTo("/graphql"))
+                .withRequestBody(matchingJsonPath("$.variables.login", equalTo("wrong_username")))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("{\"data\":{\"repositoryOwner\":null},\"errors\":[{\"type\":\"NOT_FOUND\"," +
+                                "\"message\":\"Could not resolve to a RepositoryOwner with the login of 'wrong_username'.\"}]}")));
+
+        var result = webTestClient.get()
+                .uri("/github/search/wrong_username")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody(ErrorResponse.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertNotNull(result);
+        assertEquals("User not found", result.getMessage());
+    }
+
+    @Test
+    void testGetRepositoriesDetailsThrowsRateLimitExceededException() {
+        stubFor(post(urlPathEqualTo("/graphql"))
+                .withRequestBody(matchingJsonPath("$.variables.login", equalTo("limited-user")))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("{\"data\":null,\"errors\":[{\"type\":\"RATE_LIMITED\"," +
+                                "\"message\":\"API rate limit exceeded\"}]}")));
+
+        var result = webTestClient.get()
+                .uri("/github/search/limited-user")
+                .exchange()
+                .expectStatus().isForbidden()
+                .expectBody(ErrorResponse.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertNotNull(result);
+        assertEquals("API rate limit exceeded", result.getMessage());
+    }
+}
@@ -0,0 +1,189 @@
+package com.atipera.searcher.e2e;
+
+import com.atipera.searcher.dto.error.ErrorResponse;
+import com.atipera.searcher.dto.github.RepositoryDetails;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.cloud.contract.wiremock.AutoConfigureWireMock;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.absent;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "github.search.pipeline=reactive")
+@AutoConfigureWireMock(port = 0)
+@ActiveProfiles("test")
+class ReactiveEndToEndGithubSearchTests {
+    @LocalServerPort
+    private int port;
+    @Value("${wiremock.server.port}")
+    private int wireMockPort;
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setup() {
+        webTestClient = WebTestClient.bindToServer()
+                .baseUrl("http://localhost:" + port)
+                .build();
+    }
+
+    @Test
+    void testGetRepositoriesDetailsFollowsPagination() {
+        var baseUrl = "http://localhost:" + wireMockPort;
+        stubFor(get(urlPathEqualTo("/users/reactive-user/repos"))
+                .withQueryParam("page", absent())
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withHeader("Link", "<" + baseUrl + "/users/reactive-user/repos?per_page=100&page=2>; rel=\"next\", " +
+                                "<" + baseUrl + "/users/reactive-user/repos?per_page=100&page=2>; rel=\"last\"")
+                        .withBody("[{\"name\":\"repo1\",\"owner\":{\"login\":\"reactive-user\"},\"fork\":false}," +
+                                "{\"name\":\"fork1\",\"owner\":{\"login\":\"reactive-user\"},\"fork\":true}]")));
+        stubFor(get(urlPathEqualTo("/users/reactive-user/repos"))
+                .withQueryParam("page", equalTo("2"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"repo2\",\"owner\":{\"login\":\"reactive-user\"},\"fork\":false}]")));
+        stubFor(get(urlPathEqualTo("/repos/reactive-user/repo1/branches"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withHeader("Link", "<" + baseUrl + "/repos/reactive-user/repo1/branches?per_page=100&page=2>; rel=\"next\"")
+                        .withBody("[{\"name\":\"main\",\"commit\":{\"sha\":\"111\"}}]")));
+        stubFor(get(urlPathEqualTo("/repos/reactive-user/repo1/branches"))
+                .withQueryParam("page", equalTo("2"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"develop\",\"commit\":{\"sha\":\"222\"}}]")));
+        stubFor(get(urlPathEqualTo("/repos/reactive-user/repo2/branches"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[]")));
+
+        var result = webTestClient.get()
+                .uri("/github/search/reactive-user")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(RepositoryDetails.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertNotNull(result);
+        assertEquals(2, result.size());
+        assertEquals("repo1", result.get(0).repositoryName());
+        assertEquals("repo2", result.get(1).repositoryName());
+        assertEquals(2, result.get(0).branches().size());
+        assertEquals("develop", result.get(0).branches().get(1).name());
+        assertEquals("222", result.get(0).branches().get(1).commitSha().toString());
+        assertEquals(0, result.get(1).branches().size());
+    }
+
+    @Test
+    void testStreamRepositoriesDetailsWritesNewlineDelimitedJson() {
+        stubFor(get(urlPathEqualTo("/users/stream-user/repos"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"repo1\",\"owner\":{\"login\":\"stream-user\"},\"fork\":false}," +
+                                "{\"name\":\"repo2\",\"owner\":{\"login\":\"stream-user\"},\"fork\":false}]")));
+        stubFor(get(urlPathEqualTo("/repos/stream-user/repo1/branches"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[{\"name\":\"main\",\"commit\":{\"sha\":\"111\"}}]")));
+        stubFor(get(urlPathEqualTo("/repos/stream-user/repo2/branches"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("[]")));
+
+        var result = webTestClient.get()
+                .uri("/github/search/stream-user")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(RepositoryDetails.class)
+                .getResponseBody()
+                .collectList()
+                .block();
+
+        assertNotNull(result);
+        assertEquals(2, result.size());
+        assertEquals("repo1", result.get(0).repositoryName());
+        assertEquals("111", result.get(0).branches().get(0).commitSha().toString());
+        assertEquals("repo2", result.get(1).repositoryName());
+    }
+
+    @Test
+    void testStreamRepositoriesDetailsThrowsUserNotFoundException() {
+        stubFor(get(urlPathEqualTo("/users/wrong_username/repos"))
+                .willReturn(aResponse()
+                        .withStatus(404)));
+
+        var result = webTestClient.get()
+                .uri("/github/search/wrong_username")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody(ErrorResponse.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertNotNull(result);
+        assertEquals("User not found", result.getMessage());
+    }
+
+    @Test
+    void testGetRepositoriesDetailsThrowsUserNotFoundException() {
+        stubFor(get(urlPathEqualTo("/users/wrong_username/repos"))
+                .willReturn(aResponse()
+                        .withStatus(404)));
+
+        var result = webTestClient.get()
+                .uri("/github/search/wrong_username")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody(ErrorResponse.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertNotNull(result);
+        assertEquals(404, result.getStatus());
+        assertEquals("User not found", result.getMessage());
+    }
+
+    @Test
+    void testGetRepositoriesDetailsThrowsRateLimitExceededException() {
+        stubFor(get(urlPathEqualTo("/users/octocat/repos"))
+                .willReturn(aResponse()
+                        .withStatus(403)));
+
+        var result = webTestClient.get()
+                .uri("/github/search/octocat")
+                .exchange()
+                .expectStatus().isForbidden()
+                .expectBody(ErrorResponse.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertNotNull(result);
+        assertEquals(403, result.getStatus());
+        assertEquals("API rate limit exceeded", result.getMessage());
+    }
+}
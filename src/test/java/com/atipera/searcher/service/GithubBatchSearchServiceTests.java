@@ -0,0 +1,81 @@
+package com.atipera.searcher.service;
+
+import com.atipera.searcher.dto.batch.BatchSearchResult;
+import com.atipera.searcher.dto.github.RepositoryDetails;
+import com.atipera.searcher.exception.InvalidRequestException;
+import com.atipera.searcher.exception.RateLimitExceededException;
+import com.atipera.searcher.exception.UserNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class GithubBatchSearchServiceTests {
+
+    @Mock
+    private GithubSearchService githubSearchService;
+
+    @InjectMocks
+    private GithubBatchSearchService githubBatchSearchService;
+
+    @BeforeEach
+    void setup() {
+        ReflectionTestUtils.setField(githubBatchSearchService, "batchParallelism", 4);
+        ReflectionTestUtils.setField(githubBatchSearchService, "maxUsernames", 10);
+    }
+
+    @Test
+    void testSearchUsersReportsFailuresPerUser() {
+        var repositoryDetails = RepositoryDetails.builder()
+                .repositoryName("repo1")
+                .ownerLogin("octocat")
+                .branches(List.of())
+                .build();
+        when(githubSearchService.processNonForkedUserRepositories("octocat")).thenReturn(List.of(repositoryDetails));
+        when(githubSearchService.processNonForkedUserRepositories("missing")).thenThrow(new UserNotFoundException());
+        when(githubSearchService.processNonForkedUserRepositories("limited"))
+                .thenThrow(new RateLimitExceededException());
+
+        var results = new ArrayList<BatchSearchResult>();
+        githubBatchSearchService.searchUsers(List.of("octocat", "missing", "OctoCat", "limited"), results::add);
+
+        assertEquals(3, results.size());
+        assertEquals("octocat", results.get(0).getUsername());
+        assertEquals("repo1", results.get(0).getRepositories().get(0).repositoryName());
+        assertNull(results.get(0).getError());
+        assertEquals("missing", results.get(1).getUsername());
+        assertEquals(404, results.get(1).getError().getStatus());
+        assertEquals("User not found", results.get(1).getError().getMessage());
+        assertEquals(403, results.get(2).getError().getStatus());
+        verify(githubSearchService, times(1)).processNonForkedUserRepositories("octocat");
+    }
+
+    @Test
+    void testSearchUsersRejectsInvalidRequests() {
+        assertThrows(InvalidRequestException.class, () -> githubBatchSearchService.searchUsers(List.of(), result -> {
+        }));
+        assertThrows(InvalidRequestException.class, () -> githubBatchSearchService.searchUsers(
+                Collections.nCopies(11, "octocat"), result -> {
+                }));
+        assertThrows(InvalidRequestException.class, () -> githubBatchSearchService.searchUsers(
+                List.of("octocat", " "), result -> {
+                }));
+        verifyNoInteractions(githubSearchService);
+    }
+}
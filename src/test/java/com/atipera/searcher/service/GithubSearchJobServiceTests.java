@@ -0,0 +1,178 @@
+package com.atipera.searcher.service;
+
+import com.atipera.searcher.dto.github.RepositoryDetails;
+import com.atipera.searcher.dto.job.SearchJobResponse;
+import com.atipera.searcher.dto.job.SearchJobStatus;
+import com.atipera.searcher.exception.JobNotFoundException;
+import com.atipera.searcher.exception.JobQueueFullException;
+import com.atipera.searcher.exception.UserNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+
+@ExtendWith(MockitoExtension.class)
+class GithubSearchJobServiceTests {
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    @Mock
+    private GithubSearchService githubSearchService;
+
+    private GithubSearchJobService githubSearchJobService;
+
+    @AfterEach
+    void teardown() {
+        githubSearchJobService.close();
+    }
+
+    @Test
+    void testJobReportsProgressAndKeepsResultForRetention() throws Exception {
+        githubSearchJobService = new GithubSearchJobService(githubSearchService, 1, 1, Duration.ofMinutes(10),
+                1000, new SimpleMeterRegistry(), nanos::get);
+        var firstDone = new CountDownLatch(1);
+        var resume = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            IntConsumer onListed = invocation.getArgument(1);
+            Consumer<RepositoryDetails> consumer = invocation.getArgument(2);
+            onListed.accept(2);
+            consumer.accept(repositoryDetails("repo1"));
+            firstDone.countDown();
+            resume.await();
+            consumer.accept(repositoryDetails("repo2"));
+            return null;
+        }).when(githubSearchService).streamNonForkedUserRepositories(eq("octocat"), any(IntConsumer.class), any());
+
+        var submitted = githubSearchJobService.submit("octocat");
+        assertTrue(firstDone.await(5, TimeUnit.SECONDS));
+        var running = githubSearchJobService.get("OctoCat", submitted.getId());
+        assertEquals(SearchJobStatus.RUNNING, running.getStatus());
+        assertEquals(1, running.getRepositoriesDone());
+        assertEquals(2, running.getRepositoriesTotal());
+        assertNull(running.getRepositories());
+
+        resume.countDown();
+        var finished = awaitFinished("octocat", submitted.getId());
+        assertEquals(SearchJobStatus.SUCCEEDED, finished.getStatus());
+        assertEquals(2, finished.getRepositoriesDone());
+        assertEquals(List.of("repo1", "repo2"), finished.getRepositories().stream()
+                .map(RepositoryDetails::repositoryName)
+                .toList());
+
+        nanos.addAndGet(Duration.ofMinutes(11).toNanos());
+        assertThrows(JobNotFoundException.class, () -> githubSearchJobService.get("octocat", submitted.getId()));
+    }
+
+    @Test
+    void testJobReportsFailureAndIsScopedToItsUser() throws Exception {
+        githubSearchJobService = new GithubSearchJobService(githubSearchService, 1, 1, Duration.ofMinutes(10),
+                1000, new SimpleMeterRegistry(), nanos::get);
+        doThrow(new UserNotFoundException()).when(githubSearchService)
+                .streamNonForkedUserRepositories(eq("missing"), any(IntConsumer.class), any());
+
+        var submitted = githubSearchJobService.submit("missing");
+        var finished = awaitFinished("missing", submitted.getId());
+
+        assertEquals(SearchJobStatus.FAILED, finished.getStatus());
+        assertEquals(404, finished.getError().getStatus());
+        assertNull(finished.getRepositoriesTotal());
+        assertThrows(JobNotFoundException.class, () -> githubSearchJobService.get("octocat", submitted.getId()));
+        assertThrows(JobNotFoundException.class, () -> githubSearchJobService.get("missing", "unknown"));
+    }
+
+    @Test
+    void testSubmitRejectsJobsBeyondQueueCapacity() throws Exception {
+        var registry = new SimpleMeterRegistry();
+        githubSearchJobService = new GithubSearchJobService(githubSearchService, 1, 1, Duration.ofMinutes(10),
+                1000, registry, nanos::get);
+        var started = new CountDownLatch(1);
+        var resume = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            started.countDown();
+            resume.await();
+            return null;
+        }).when(githubSearchService).streamNonForkedUserRepositories(any(), any(IntConsumer.class), any());
+
+        var running = githubSearchJobService.submit("user1");
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        var queued = githubSearchJobService.submit("user2");
+
+        assertThrows(JobQueueFullException.class, () -> githubSearchJobService.submit("user3"));
+        assertEquals(SearchJobStatus.QUEUED, githubSearchJobService.get("user2", queued.getId()).getStatus());
+        assertEquals(1, registry.counter("github.search.jobs", "outcome", "rejected").count());
+
+        resume.countDown();
+        assertEquals(SearchJobStatus.SUCCEEDED, awaitFinished("user1", running.getId()).getStatus());
+        assertEquals(SearchJobStatus.SUCCEEDED, awaitFinished("user2", queued.getId()).getStatus());
+    }
+
+    @Test
+    void testFinishedJobsKeepAtMostMaxRetainedRepositories() throws Exception {
+        var registry = new SimpleMeterRegistry();
+        githubSearchJobService = new GithubSearchJobService(githubSearchService, 1, 2, Duration.ofMinutes(10),
+                4, registry, nanos::get);
+        doAnswer(invocation -> {
+            Consumer<RepositoryDetails> consumer = invocation.getArgument(2);
+            consumer.accept(repositoryDetails("repo1"));
+            consumer.accept(repositoryDetails("repo2"));
+            return null;
+        }).when(githubSearchService).streamNonForkedUserRepositories(any(), any(IntConsumer.class), any());
+
+        var first = githubSearchJobService.submit("user1");
+        var second = githubSearchJobService.submit("user2");
+
+        var succeeded = registry.counter("github.search.jobs", "outcome", "succeeded");
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while ((succeeded.count() < 2 || retained("user1", first.getId()) + retained("user2", second.getId()) > 1)
+                && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, retained("user1", first.getId()) + retained("user2", second.getId()));
+    }
+
+    private int retained(String username, String jobId) {
+        try {
+            return githubSearchJobService.get(username, jobId).getStatus() == SearchJobStatus.SUCCEEDED ? 1 : 0;
+        } catch (JobNotFoundException e) {
+            return 0;
+        }
+    }
+
+    private SearchJobResponse awaitFinished(String username, String jobId) throws InterruptedException {
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        var job = githubSearchJobService.get(username, jobId);
+        while (job.getStatus() != SearchJobStatus.SUCCEEDED && job.getStatus() != SearchJobStatus.FAILED
+                && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            job = githubSearchJobService.get(username, jobId);
+        }
+        return job;
+    }
+
+    private static RepositoryDetails repositoryDetails(String repositoryName) {
+        return RepositoryDetails.builder()
+                .repositoryName(repositoryName)
+                .ownerLogin("octocat")
+                .branches(List.of())
+                .build();
+    }
+}
@@ -1,22 +1,42 @@
 package com.atipera.searcher.service;
 
 import com.atipera.searcher.client.GithubApiClient;
+import com.atipera.searcher.client.GithubGraphqlClient;
+import com.atipera.searcher.client.GithubRepositoryBranches;
+import com.atipera.searcher.concurrent.SingleFlight;
+import com.atipera.searcher.dto.github.BranchDetails;
 import com.atipera.searcher.dto.github.BranchResponse;
 import com.atipera.searcher.dto.github.CommitResponse;
 import com.atipera.searcher.dto.github.OwnerResponse;
+import com.atipera.searcher.dto.github.RepositoryDetails;
 import com.atipera.searcher.dto.github.RepositoryResponse;
+import com.atipera.searcher.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -25,6 +45,25 @@ class GithubSearchServiceTests {
     @Mock
     private GithubApiClient githubApiClient;
 
+    @Mock
+    private GithubGraphqlClient githubGraphqlClient;
+
+    @Spy
+    private RepositoryDetailsMapper repositoryDetailsMapper;
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private SingleFlight<String, List<RepositoryDetails>> searchSingleFlight = new SingleFlight<>("test", meterRegistry);
+
+    @Spy
+    private RepositoryBranchSnapshots repositoryBranchSnapshots = new RepositoryBranchSnapshots(100, Duration.ofHours(1));
+
+    @Spy
+    private HotUserSearchCache hotUserSearchCache = new HotUserSearchCache(List.of("hot-user"), 0, Duration.ZERO,
+            Duration.ofMinutes(10));
+
     @InjectMocks
     private GithubSearchService githubSearchService;
 
@@ -91,9 +130,246 @@ class GithubSearchServiceTests {
 
         assertNotNull(result);
         assertEquals(1, result.size());
-        assertEquals("repo1", result.get(0).getRepositoryName());
-        assertEquals(1, result.get(0).getBranches().size());
-        assertEquals("main", result.get(0).getBranches().get(0).getName());
-        assertEquals("123abc", result.get(0).getBranches().get(0).getCommitSha());
+        assertEquals("repo1", result.get(0).repositoryName());
+        assertEquals(1, result.get(0).branches().size());
+        assertEquals("main", result.get(0).branches().get(0).name());
+        assertEquals("123abc", result.get(0).branches().get(0).commitSha().toString());
+        assertEquals(1, meterRegistry.get("github.search.duration").tag("outcome", "success").timer().count());
+        assertEquals(1.0, meterRegistry.get("github.search.branch.fetches").summary().totalAmount());
+    }
+
+    @Test
+    void testProcessAllUserRepositoriesConcurrentlyPreservesOrder() {
+        var username = "username";
+        ReflectionTestUtils.setField(githubSearchService, "branchFetchParallelism", 4);
+        var ownerResponse = OwnerResponse.builder().login(username).build();
+        var repositoryResponseList = new ArrayList<RepositoryResponse>();
+        for (int i = 0; i < 10; i++) {
+            repositoryResponseList.add(RepositoryResponse.builder()
+                    .name("repo" + i)
+                    .isForked(false)
+                    .owner(ownerResponse)
+                    .build());
+        }
+
+        when(githubApiClient.fetchUserRepositories(username)).thenReturn(repositoryResponseList);
+        when(githubApiClient.fetchRepositoryBranches(anyString(), eq(username))).thenAnswer(invocation -> {
+            String repositoryName = invocation.getArgument(0);
+            Thread.sleep(50 - Integer.parseInt(repositoryName.substring(4)) * 5L);
+            return List.of(BranchResponse.builder()
+                    .name(repositoryName + "-main")
+                    .commit(CommitResponse.builder().sha("sha-" + repositoryName).build())
+                    .build());
+        });
+
+        var result = githubSearchService.processNonForkedUserRepositories(username);
+
+        assertEquals(10, result.size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals("repo" + i, result.get(i).repositoryName());
+            assertEquals("repo" + i + "-main", result.get(i).branches().get(0).name());
+        }
+    }
+
+    @Test
+    void testProcessAllUserRepositoriesSkipsBranchesOfRepositoriesNotPushedTo() {
+        var username = "username";
+        var ownerResponse = OwnerResponse.builder().login(username).build();
+        var branchResponse = BranchResponse.builder()
+                .name("main")
+                .commit(CommitResponse.builder().sha("123abc").build())
+                .build();
+        var unchanged = RepositoryResponse.builder().name("repo1").isForked(false).owner(ownerResponse)
+                .pushedAt("2024-01-01T00:00:00Z").build();
+        var pushedBefore = RepositoryResponse.builder().name("repo2").isForked(false).owner(ownerResponse)
+                .pushedAt("2024-01-01T00:00:00Z").build();
+        var pushedAfter = RepositoryResponse.builder().name("repo2").isForked(false).owner(ownerResponse)
+                .pushedAt("2024-06-01T00:00:00Z").build();
+
+        when(githubApiClient.fetchUserRepositories(username))
+                .thenReturn(List.of(unchanged, pushedBefore))
+                .thenReturn(List.of(unchanged, pushedAfter));
+        when(githubApiClient.fetchRepositoryBranches(anyString(), eq(username))).thenReturn(List.of(branchResponse));
+
+        githubSearchService.processNonForkedUserRepositories(username);
+        var result = githubSearchService.processNonForkedUserRepositories(username);
+
+        assertEquals(2, result.size());
+        assertEquals("123abc", result.get(0).branches().get(0).commitSha().toString());
+        verify(githubApiClient, times(1)).fetchRepositoryBranches("repo1", username);
+        verify(githubApiClient, times(2)).fetchRepositoryBranches("repo2", username);
+        assertEquals(3, meterRegistry.summary("github.search.branch.fetches").totalAmount());
+    }
+
+    @Test
+    void testQueryUserRepositoriesFetchesBranchesOfSelectedRepositoriesOnly() {
+        var username = "username";
+        var ownerResponse = OwnerResponse.builder().login(username).build();
+        var repositoryResponseList = List.of(
+                RepositoryResponse.builder().name("api-server").isForked(false).owner(ownerResponse)
+                        .defaultBranch("main").pushedAt("2024-01-01T00:00:00Z").build(),
+                RepositoryResponse.builder().name("website").isForked(false).owner(ownerResponse)
+                        .defaultBranch("main").pushedAt("2024-03-01T00:00:00Z").build(),
+                RepositoryResponse.builder().name("api-client").isForked(false).owner(ownerResponse)
+                        .defaultBranch("main").pushedAt("2024-02-01T00:00:00Z").build(),
+                RepositoryResponse.builder().name("api-docs").isForked(false).owner(ownerResponse)
+                        .defaultBranch("main").pushedAt("2023-01-01T00:00:00Z").build());
+        when(githubApiClient.fetchUserRepositories(username)).thenReturn(repositoryResponseList);
+        when(githubApiClient.fetchRepositoryBranch(anyString(), eq("main"), eq(username))).thenReturn(List.of(
+                BranchResponse.builder().name("main").commit(CommitResponse.builder().sha("123abc").build()).build()));
+
+        var firstPage = githubSearchService.queryNonForkedUserRepositories(username,
+                SearchQuery.parse(null, "default", "API", "pushed", 2, null));
+        var secondPage = githubSearchService.queryNonForkedUserRepositories(username,
+                SearchQuery.parse(null, "default", "API", "pushed", 2, firstPage.nextCursor()));
+
+        assertEquals(List.of("api-client", "api-server"), firstPage.repositoryDetails().stream()
+                .map(RepositoryDetails::repositoryName).toList());
+        assertEquals(List.of("main"), firstPage.repositoryDetails().get(0).branches().stream()
+                .map(BranchDetails::name).toList());
+        assertEquals(List.of("api-docs"), secondPage.repositoryDetails().stream()
+                .map(RepositoryDetails::repositoryName).toList());
+        assertNull(secondPage.nextCursor());
+        verify(githubApiClient, never()).fetchRepositoryBranch("website", "main", username);
+        verify(githubApiClient, times(3)).fetchRepositoryBranch(anyString(), eq("main"), eq(username));
+        verify(githubApiClient, never()).fetchRepositoryBranches(anyString(), anyString());
+    }
+
+    @Test
+    void testQueryUserRepositoriesWithoutBranchesTakesListingCallsOnly() {
+        var username = "username";
+        var ownerResponse = OwnerResponse.builder().login(username).build();
+        when(githubApiClient.fetchUserRepositories(username)).thenReturn(List.of(
+                RepositoryResponse.builder().name("repo1").isForked(false).owner(ownerResponse).build(),
+                RepositoryResponse.builder().name("repo2").isForked(true).owner(ownerResponse).build()));
+
+        var result = githubSearchService.queryNonForkedUserRepositories(username,
+                SearchQuery.parse("repositoryName", null, null, null, null, null));
+
+        assertEquals(1, result.repositoryDetails().size());
+        assertEquals("repo1", result.repositoryDetails().get(0).repositoryName());
+        assertNull(result.repositoryDetails().get(0).ownerLogin());
+        assertNull(result.repositoryDetails().get(0).branches());
+        verify(githubApiClient, never()).fetchRepositoryBranches(anyString(), anyString());
+        assertEquals(0, meterRegistry.summary("github.search.branch.fetches").totalAmount());
+    }
+
+    @Test
+    void testProcessHotUserRepositoriesServesStaleResultWhileRefreshing() {
+        var username = "hot-user";
+        var ownerResponse = OwnerResponse.builder().login(username).build();
+        when(githubApiClient.fetchUserRepositories(username))
+                .thenReturn(List.of(RepositoryResponse.builder().name("repo1").isForked(false).owner(ownerResponse)
+                        .build()));
+        when(githubApiClient.fetchRepositoryBranches(anyString(), eq(username))).thenReturn(List.of());
+        var refreshRequests = new ArrayList<String>();
+        hotUserSearchCache.onRefreshRequested(refreshRequests::add);
+
+        var first = githubSearchService.processNonForkedUserRepositories(username);
+        var second = githubSearchService.processNonForkedUserRepositories(username);
+
+        assertEquals("repo1", first.get(0).repositoryName());
+        assertEquals("repo1", second.get(0).repositoryName());
+        assertEquals(List.of(username), refreshRequests);
+        verify(githubApiClient).fetchUserRepositories(username);
+        assertEquals(1, meterRegistry.counter("github.search.hot-users.hits", "freshness", "stale").count());
+    }
+
+    @Test
+    void testProcessAllUserRepositoriesConcurrentlyPropagatesFirstFailure() throws InterruptedException {
+        var username = "username";
+        ReflectionTestUtils.setField(githubSearchService, "branchFetchParallelism", 4);
+        var ownerResponse = OwnerResponse.builder().login(username).build();
+        var repositoryResponseList = List.of(
+                RepositoryResponse.builder().name("repo1").isForked(false).owner(ownerResponse).build(),
+                RepositoryResponse.builder().name("repo2").isForked(false).owner(ownerResponse).build());
+
+        var started = new CountDownLatch(1);
+        var interrupted = new CountDownLatch(1);
+        when(githubApiClient.fetchUserRepositories(username)).thenReturn(repositoryResponseList);
+        when(githubApiClient.fetchRepositoryBranches("repo1", username)).thenAnswer(invocation -> {
+            started.countDown();
+            try {
+                Thread.sleep(5_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+            return List.of();
+        });
+        when(githubApiClient.fetchRepositoryBranches("repo2", username)).thenAnswer(invocation -> {
+            started.await();
+            throw new RateLimitExceededException();
+        });
+
+        var start = System.nanoTime();
+        assertThrows(RateLimitExceededException.class,
+                () -> githubSearchService.processNonForkedUserRepositories(username));
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(2)) < 0);
+        assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testStreamAllUserRepositoriesConcurrentlyPreservesOrder() {
+        var username = "username";
+        ReflectionTestUtils.setField(githubSearchService, "branchFetchParallelism", 4);
+        var ownerResponse = OwnerResponse.builder().login(username).build();
+        var repositoryResponseList = new ArrayList<RepositoryResponse>();
+        for (int i = 0; i < 10; i++) {
+            repositoryResponseList.add(RepositoryResponse.builder()
+                    .name("repo" + i)
+                    .isForked(i == 5)
+                    .owner(ownerResponse)
+                    .build());
+        }
+
+        when(githubApiClient.fetchUserRepositories(username)).thenReturn(repositoryResponseList);
+        when(githubApiClient.fetchRepositoryBranches(anyString(), eq(username))).thenAnswer(invocation -> {
+            String repositoryName = invocation.getArgument(0);
+            Thread.sleep(50 - Integer.parseInt(repositoryName.substring(4)) * 5L);
+            return List.of(BranchResponse.builder()
+                    .name(repositoryName + "-main")
+                    .commit(CommitResponse.builder().sha("sha-" + repositoryName).build())
+                    .build());
+        });
+
+        var callingThread = Thread.currentThread();
+        var result = new ArrayList<RepositoryDetails>();
+        githubSearchService.streamNonForkedUserRepositories(username, repositoryDetails -> {
+            assertEquals(callingThread, Thread.currentThread());
+            result.add(repositoryDetails);
+        });
+
+        assertEquals(9, result.size());
+        assertEquals("repo0", result.get(0).repositoryName());
+        assertEquals("repo6", result.get(5).repositoryName());
+        assertEquals("repo9-main", result.get(8).branches().get(0).name());
+        assertEquals(1, meterRegistry.get("github.search.duration").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void testProcessAllUserRepositoriesWithGraphqlBackend() {
+        var username = "username";
+        ReflectionTestUtils.setField(githubSearchService, "apiBackend", "graphql");
+        var repositoryResponse = RepositoryResponse.builder()
+                .name("repo1")
+                .isForked(false)
+                .owner(OwnerResponse.builder().login(username).build())
+                .build();
+        var branchResponse = BranchResponse.builder()
+                .name("main")
+                .commit(CommitResponse.builder().sha("123abc").build())
+                .build();
+
+        when(githubGraphqlClient.fetchNonForkedRepositoriesWithBranches(username))
+                .thenReturn(List.of(new GithubRepositoryBranches(repositoryResponse, List.of(branchResponse))));
+
+        var result = githubSearchService.processNonForkedUserRepositories(username);
+
+        assertEquals(1, result.size());
+        assertEquals("repo1", result.get(0).repositoryName());
+        assertEquals("123abc", result.get(0).branches().get(0).commitSha().toString());
+        verifyNoInteractions(githubApiClient);
     }
 }
@@ -0,0 +1,136 @@
+package com.atipera.searcher.service;
+
+import com.atipera.searcher.client.GithubEndpoint;
+import com.atipera.searcher.client.GithubRateLimit;
+import com.atipera.searcher.client.GithubRateLimitScheduler;
+import com.atipera.searcher.client.LocalGithubRateLimitBudget;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.Interceptor;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class HotUserRefresherTests {
+
+    private static final Instant RESET_AT = Instant.now().plus(Duration.ofHours(1));
+
+    @Mock
+    private GithubSearchService githubSearchService;
+
+    private final LocalGithubRateLimitBudget budget = new LocalGithubRateLimitBudget();
+
+    private final GithubRateLimitScheduler githubRateLimitScheduler = new GithubRateLimitScheduler(0, 0,
+            Duration.ofSeconds(5), budget, new SimpleMeterRegistry());
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final HotUserSearchCache hotUserSearchCache = new HotUserSearchCache(List.of(), 0,
+            Duration.ofMinutes(1), Duration.ofMinutes(10));
+
+    private HotUserRefresher hotUserRefresher;
+
+    @BeforeEach
+    void setUp() {
+        budget.merge(new GithubRateLimit(5000, 5000, RESET_AT));
+        hotUserRefresher = new HotUserRefresher(githubSearchService, hotUserSearchCache, githubRateLimitScheduler,
+                meterRegistry);
+        ReflectionTestUtils.setField(hotUserRefresher, "refreshInterval", Duration.ofHours(1));
+        ReflectionTestUtils.setField(hotUserRefresher, "rateLimitShare", 0.002);
+    }
+
+    @AfterEach
+    void tearDown() {
+        hotUserRefresher.close();
+    }
+
+    @Test
+    void testRefreshSoonSkipsOnceIntervalAllowanceIsSpent() throws InterruptedException {
+        doAnswer(invocation -> {
+            spendCalls(10);
+            return List.of();
+        }).when(githubSearchService).refreshNonForkedUserRepositories("alice");
+
+        hotUserRefresher.refreshHotUsers();
+        hotUserRefresher.refreshSoon("alice");
+        awaitRefreshes("success");
+        hotUserRefresher.refreshSoon("bob");
+        awaitRefreshes("skipped");
+
+        verify(githubSearchService).refreshNonForkedUserRepositories("alice");
+        verify(githubSearchService, never()).refreshNonForkedUserRepositories("bob");
+        assertEquals(1, meterRegistry.counter("github.search.hot-users.refreshes", "outcome", "skipped").count());
+    }
+
+    @Test
+    void testRefreshCountsOnlyItsOwnCallsAgainstAllowance() throws Exception {
+        var refreshing = new CountDownLatch(1);
+        var foregroundDone = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            spendCalls(3);
+            refreshing.countDown();
+            foregroundDone.await();
+            return List.of();
+        }).when(githubSearchService).refreshNonForkedUserRepositories("alice");
+
+        hotUserRefresher.refreshHotUsers();
+        hotUserRefresher.refreshSoon("alice");
+        assertTrue(refreshing.await(5, TimeUnit.SECONDS));
+        spendCalls(20);
+        foregroundDone.countDown();
+        awaitRefreshes("success");
+
+        var allowance = (AtomicLong) ReflectionTestUtils.getField(hotUserRefresher, "allowance");
+        assertEquals(7, allowance.get());
+        assertEquals(4977, githubRateLimitScheduler.currentRateLimit().remaining());
+    }
+
+    private void spendCalls(int calls) throws IOException {
+        var request = new Request.Builder()
+                .url("https://api.github.com/repos/octocat/repo1/branches")
+                .tag(GithubEndpoint.class, GithubEndpoint.REPOSITORY_BRANCHES)
+                .build();
+        var chain = mock(Interceptor.Chain.class);
+        when(chain.request()).thenReturn(request);
+        when(chain.proceed(request)).thenReturn(new Response.Builder()
+                .request(request)
+                .protocol(Protocol.HTTP_1_1)
+                .code(200)
+                .message("OK")
+                .build());
+        for (int i = 0; i < calls; i++) {
+            githubRateLimitScheduler.intercept(chain);
+        }
+    }
+
+    private void awaitRefreshes(String outcome) throws InterruptedException {
+        var counter = meterRegistry.counter("github.search.hot-users.refreshes", "outcome", outcome);
+        var deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (counter.count() < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
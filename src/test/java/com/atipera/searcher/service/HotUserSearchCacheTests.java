@@ -0,0 +1,62 @@
+package com.atipera.searcher.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HotUserSearchCacheTests {
+
+    private static final Instant NOW = Instant.parse("2024-06-01T12:00:00Z");
+
+    private final HotUserSearchCache hotUserSearchCache = new HotUserSearchCache(List.of("Configured"), 2,
+            Duration.ofMinutes(1), Duration.ofMinutes(10), Clock.fixed(NOW, ZoneOffset.UTC));
+
+    @Test
+    void testRankHotUsersLearnsMostRequestedUsernames() {
+        record(Set.of("alice"), 5);
+        record(Set.of("bob"), 3);
+        record(Set.of("carol"), 1);
+
+        var hotUsernames = hotUserSearchCache.rankHotUsers();
+
+        assertEquals(List.of("configured", "alice", "bob"), List.copyOf(hotUsernames));
+        assertTrue(hotUserSearchCache.isHot("alice"));
+        assertFalse(hotUserSearchCache.isHot("carol"));
+    }
+
+    @Test
+    void testRankHotUsersDecaysRequestCounts() {
+        record(Set.of("alice"), 4);
+        hotUserSearchCache.rankHotUsers();
+        record(Set.of("bob"), 4);
+        record(Set.of("carol"), 3);
+
+        assertEquals(List.of("configured", "bob", "carol"), List.copyOf(hotUserSearchCache.rankHotUsers()));
+    }
+
+    @Test
+    void testPutKeepsOnlyResultsOfHotUsers() {
+        hotUserSearchCache.put("configured", List.of());
+        hotUserSearchCache.put("alice", List.of());
+
+        assertTrue(hotUserSearchCache.get("configured").isPresent());
+        assertFalse(hotUserSearchCache.needsRefresh("configured"));
+        assertTrue(hotUserSearchCache.get("alice").isEmpty());
+        assertTrue(hotUserSearchCache.needsRefresh("alice"));
+    }
+
+    private void record(Set<String> usernames, int times) {
+        for (int i = 0; i < times; i++) {
+            usernames.forEach(hotUserSearchCache::recordRequest);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.atipera.searcher.service;
+
+import com.atipera.searcher.dto.github.BranchDetails;
+import com.atipera.searcher.dto.github.BranchResponse;
+import com.atipera.searcher.dto.github.CommitResponse;
+import com.atipera.searcher.dto.github.CommitSha;
+import com.atipera.searcher.dto.github.OwnerResponse;
+import com.atipera.searcher.dto.github.RepositoryResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class RepositoryDetailsMapperTests {
+
+    private static final String SHA = "6dcb09b5b57875f334f61aebed695e2e4193db5e";
+
+    private final RepositoryDetailsMapper repositoryDetailsMapper = new RepositoryDetailsMapper();
+
+    @Test
+    void testMappingSharesRepeatedOwnerLoginsAndBranchNames() {
+        var first = repositoryDetailsMapper.toRepositoryDetails(repositoryResponse("repo1", new String("octocat")),
+                List.of(repositoryDetailsMapper.toBranchDetails(branchResponse(new String("main"), SHA))));
+        var second = repositoryDetailsMapper.toRepositoryDetails(repositoryResponse("repo2", new String("octocat")),
+                List.of(repositoryDetailsMapper.toBranchDetails(branchResponse(new String("main"), SHA))));
+
+        assertSame(first.ownerLogin(), second.ownerLogin());
+        assertSame(first.branches().get(0).name(), second.branches().get(0).name());
+        assertEquals(first.branches().get(0).commitSha(), second.branches().get(0).commitSha());
+        assertEquals(SHA, second.branches().get(0).commitSha().toString());
+    }
+
+    @Test
+    void testCommitShaIsSerializedInItsStringForm() throws Exception {
+        var objectMapper = new ObjectMapper();
+        var compact = BranchDetails.builder().name("main").commitSha(CommitSha.of(SHA)).build();
+        var verbatim = BranchDetails.builder().name("dev").commitSha(CommitSha.of(SHA.toUpperCase())).build();
+
+        var json = objectMapper.writeValueAsString(List.of(compact, verbatim));
+
+        assertEquals("[{\"name\":\"main\",\"commitSha\":\"" + SHA + "\"},"
+                + "{\"name\":\"dev\",\"commitSha\":\"" + SHA.toUpperCase() + "\"}]", json);
+        assertEquals(compact, objectMapper.readValue(json, BranchDetails[].class)[0]);
+        assertNotEquals(compact.commitSha(), verbatim.commitSha());
+        assertNull(CommitSha.of(null));
+    }
+
+    private static RepositoryResponse repositoryResponse(String name, String ownerLogin) {
+        return RepositoryResponse.builder()
+                .name(name)
+                .owner(OwnerResponse.builder().login(ownerLogin).build())
+                .build();
+    }
+
+    private static BranchResponse branchResponse(String name, String sha) {
+        return BranchResponse.builder()
+                .name(name)
+                .commit(CommitResponse.builder().sha(sha).build())
+                .build();
+    }
+}